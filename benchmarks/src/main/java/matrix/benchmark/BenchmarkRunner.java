@@ -0,0 +1,164 @@
+package matrix.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler and compares throughput and allocation per operation
+ * against a baseline file. Any JMH command line option can be passed, e.g.
+ * <pre>java -jar target/benchmarks.jar DenseBenchmark.multiply -p type=Double</pre>
+ * System properties:
+ * <ul>
+ * <li>baseline: the baseline file, baseline.csv by default</li>
+ * <li>baseline.update: merge the results into the baseline instead of comparing, replacing the
+ * entries of the benchmarks run and keeping the others</li>
+ * <li>tolerance: the allowed relative regression, 0.10 by default</li>
+ * <li>matrix.simd: false to benchmark the scalar kernels, passed to the forks with -jvmArgsAppend</li>
+ * </ul>
+ * The baseline is written when it does not exist yet, and the results of benchmarks it has no
+ * entry for are printed and added to it. The exit status is 1 if any benchmark regressed.
+ */
+public final class BenchmarkRunner {
+	/**
+	 * The secondary result of the GC profiler with the bytes allocated per operation
+	 */
+	private static final String ALLOCATION = "gc.alloc.rate.norm";
+	/**
+	 * The class file of the Vector API kernels, bundled when the benchmarks are built on JDK 17 or later
+	 */
+	private static final String VECTOR_KERNELS = "matrix/simd/VectorDoubleKernels.class";
+
+	private BenchmarkRunner() {
+
+	}
+
+	public static void main(String[] args) throws Exception {
+		Path baseline = Paths.get(System.getProperty("baseline", "baseline.csv"));
+		double tolerance = Double.parseDouble(System.getProperty("tolerance", "0.10"));
+
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.resultFormat(ResultFormatType.CSV)
+				.result("jmh-result.csv");
+		if (BenchmarkRunner.class.getClassLoader().getResource(VECTOR_KERNELS) != null)
+			builder.jvmArgsAppend("--add-modules=jdk.incubator.vector");
+		Options options = builder.build();
+		Collection<RunResult> results = new Runner(options).run();
+
+		Map<String, double[]> current = new TreeMap<>();
+		for (RunResult result : results) {
+			Result<?> allocation = result.getSecondaryResults().get(ALLOCATION);
+			current.put(key(result.getParams()), new double[] {result.getPrimaryResult().getScore(),
+					allocation == null ? Double.NaN : allocation.getScore()});
+		}
+
+		Map<String, double[]> scores = Files.exists(baseline) ? read(baseline) : new TreeMap<>();
+		if (Boolean.getBoolean("baseline.update") || scores.isEmpty()) {
+			scores.putAll(current);
+			write(baseline, scores);
+			System.out.println("Baseline written to " + baseline.toAbsolutePath());
+			return;
+		}
+
+		List<String> added = add(scores, current);
+		for (String entry : added)
+			System.out.println("NEW " + entry);
+		if (!added.isEmpty())
+			write(baseline, scores);
+		List<String> regressions = compare(scores, current, tolerance);
+		for (String regression : regressions)
+			System.out.println("REGRESSION " + regression);
+		if (!regressions.isEmpty())
+			System.exit(1);
+		System.out.println("No regression against " + baseline.toAbsolutePath());
+	}
+	/**
+	 * Add the results of the benchmarks the baseline has no entry for
+	 * @param baseline
+	 * @param current
+	 * @return a description of every result added
+	 */
+	private static List<String> add(Map<String, double[]> baseline, Map<String, double[]> current) {
+		List<String> added = new ArrayList<>();
+		for (Map.Entry<String, double[]> entry : current.entrySet()) {
+			if (baseline.containsKey(entry.getKey()))
+				continue;
+			baseline.put(entry.getKey(), entry.getValue());
+			added.add(String.format("%s throughput %.3f ops/s, allocation %.0f B/op", entry.getKey(),
+					entry.getValue()[0], entry.getValue()[1]));
+		}
+		return added;
+	}
+	/**
+	 * Find the benchmarks whose throughput dropped or whose allocation grew by more than the tolerance
+	 * @param baseline
+	 * @param current
+	 * @param tolerance the allowed relative regression
+	 * @return a description of every regression
+	 */
+	private static List<String> compare(Map<String, double[]> baseline, Map<String, double[]> current,
+			double tolerance) {
+		List<String> regressions = new ArrayList<>();
+		for (Map.Entry<String, double[]> entry : current.entrySet()) {
+			double[] before = baseline.get(entry.getKey());
+			double[] after = entry.getValue();
+			if (before == null)
+				continue;
+			if (after[0] < before[0] * (1 - tolerance))
+				regressions.add(String.format("%s throughput %.3f -> %.3f ops/s", entry.getKey(), before[0], after[0]));
+			if (after[1] > before[1] * (1 + tolerance))
+				regressions.add(String.format("%s allocation %.0f -> %.0f B/op", entry.getKey(), before[1], after[1]));
+		}
+		return regressions;
+	}
+	/**
+	 * Identify a benchmark by its name and parameters
+	 * @param params
+	 * @return the key, e.g. matrix.benchmark.DenseBenchmark.multiply size=64 type=Double
+	 */
+	private static String key(BenchmarkParams params) {
+		StringBuilder key = new StringBuilder(params.getBenchmark());
+		for (String name : params.getParamsKeys())
+			key.append(' ').append(name).append('=').append(params.getParam(name));
+		return key.toString();
+	}
+
+	private static Map<String, double[]> read(Path file) throws IOException {
+		Map<String, double[]> scores = new TreeMap<>();
+		for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+			if (line.isEmpty() || line.startsWith("#"))
+				continue;
+			String[] fields = line.split(",");
+			scores.put(fields[0], new double[] {Double.parseDouble(fields[1]), Double.parseDouble(fields[2])});
+		}
+		return scores;
+	}
+
+	private static void write(Path file, Map<String, double[]> scores) throws IOException {
+		List<String> lines = new ArrayList<>();
+		lines.add("# benchmark,throughput (ops/s),allocation (B/op)");
+		for (Map.Entry<String, double[]> entry : scores.entrySet())
+			lines.add(entry.getKey() + "," + entry.getValue()[0] + "," + entry.getValue()[1]);
+		Files.write(file, lines, StandardCharsets.UTF_8);
+	}
+
+}
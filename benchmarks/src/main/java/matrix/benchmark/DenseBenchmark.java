@@ -0,0 +1,100 @@
+package matrix.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import matrix.CachePolicy;
+import matrix.GenericMatrix;
+import matrix.IntegerMatrix;
+
+/**
+ * Every public <code>GenericMatrix</code> operation on dense matrices. The default sizes finish in a
+ * reasonable time for every type; pass larger ones with -p, e.g. -p type=Double -p size=1024,4096
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class DenseBenchmark {
+	@Param({"4", "64", "256"})
+	public int size;
+
+	@Param({"Integer", "Double", "Float", "Rational"})
+	public String type;
+
+	private GenericMatrix a;
+	private GenericMatrix b;
+	private GenericMatrix rhs;
+
+	@Setup
+	public void setUp() {
+		a = Matrices.dense(type, size, size, 1);
+		b = Matrices.dense(type, size, size, 2);
+		rhs = Matrices.dense(type, size, 8, 3);
+		// The matrices are reused by every invocation, which would otherwise measure cache hits
+		a.setCachePolicy(CachePolicy.NONE);
+		b.setCachePolicy(CachePolicy.NONE);
+	}
+
+	@Benchmark
+	public Object multiply() {
+		return a.multiply(b);
+	}
+
+	@Benchmark
+	public Object add() {
+		return a.add(b);
+	}
+
+	@Benchmark
+	public Object subtract() {
+		return a.subtract(b);
+	}
+
+	@Benchmark
+	public Object transpose() {
+		return a.transpose();
+	}
+
+	@Benchmark
+	public Object getDeterminant() {
+		// The determinant of a large integer matrix does not fit in an int
+		return a instanceof IntegerMatrix ? ((IntegerMatrix) a).getDeterminantExact() : a.getDeterminant();
+	}
+
+	@Benchmark
+	public int getRank() {
+		return a.getRank();
+	}
+
+	@Benchmark
+	public Object inverse() {
+		// The inversion of an integer matrix is rational
+		return a instanceof IntegerMatrix ? ((IntegerMatrix) a).inverseExact() : a.inverse();
+	}
+
+	@Benchmark
+	public Object getAdjointMatrix() {
+		return a.getAdjointMatrix();
+	}
+
+	@Benchmark
+	public Object solve() {
+		return a instanceof IntegerMatrix ? ((IntegerMatrix) a).solveExact(rhs) : a.solve(rhs);
+	}
+
+}
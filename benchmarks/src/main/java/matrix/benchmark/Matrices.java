@@ -0,0 +1,97 @@
+package matrix.benchmark;
+
+import java.math.BigInteger;
+import java.util.Random;
+
+import matrix.DoubleMatrix;
+import matrix.FloatMatrix;
+import matrix.GenericMatrix;
+import matrix.IntegerMatrix;
+import matrix.Rational;
+import matrix.RationalMatrix;
+import matrix.SparseMatrix;
+
+final class Matrices {
+
+	private Matrices() {
+
+	}
+	/**
+	 * Construct a dense matrix of the element type with small random entries. Square matrices are
+	 * made diagonally dominant, so they are non-singular
+	 * @param type Integer, Double, Float or Rational
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @param seed
+	 * @return a new dense matrix
+	 */
+	static GenericMatrix<?> dense(String type, int row, int column, long seed) {
+		Random random = new Random(seed);
+		switch (type) {
+		case "Integer":
+			Integer[][] integers = new Integer[row][column];
+			for (int i = 0; i < row; i++)
+				for (int j = 0; j < column; j++)
+					integers[i][j] = entry(random, i, j, row);
+			return new IntegerMatrix(integers);
+		case "Double":
+			double[][] doubles = new double[row][column];
+			for (int i = 0; i < row; i++)
+				for (int j = 0; j < column; j++)
+					doubles[i][j] = entry(random, i, j, row);
+			return new DoubleMatrix(doubles);
+		case "Float":
+			float[][] floats = new float[row][column];
+			for (int i = 0; i < row; i++)
+				for (int j = 0; j < column; j++)
+					floats[i][j] = entry(random, i, j, row);
+			return new FloatMatrix(floats);
+		case "Rational":
+			Rational[][] rationals = new Rational[row][column];
+			for (int i = 0; i < row; i++)
+				for (int j = 0; j < column; j++)
+					rationals[i][j] = new Rational(BigInteger.valueOf(entry(random, i, j, row)),
+							BigInteger.valueOf(random.nextInt(4) + 1));
+			return new RationalMatrix(rationals);
+		default:
+			throw new IllegalArgumentException("Unknown element type " + type);
+		}
+	}
+	/**
+	 * Construct a sparse matrix of the element type with the input density of non-zeros
+	 * @param type Integer, Double or Rational
+	 * @param size the number of rows (also columns) of the matrix
+	 * @param density the fraction of non-zeros
+	 * @param seed
+	 * @return a new sparse matrix
+	 */
+	@SuppressWarnings({"rawtypes", "unchecked"})
+	static SparseMatrix<?> sparse(String type, int size, double density, long seed) {
+		Random random = new Random(seed);
+		GenericMatrix ops = dense(type, 1, 1, seed);
+		SparseMatrix.Builder builder = new SparseMatrix.Builder(ops, size, size);
+		long nonZeros = Math.max(size, (long) (density * size * size));
+		for (long t = 0; t < nonZeros; t++) {
+			int i = random.nextInt(size);
+			int j = random.nextInt(size);
+			int value = random.nextInt(19) - 9;
+			switch (type) {
+			case "Integer":
+				builder.add(i, j, value);
+				break;
+			case "Double":
+				builder.add(i, j, (double) value);
+				break;
+			default:
+				builder.add(i, j, new Rational(BigInteger.valueOf(value), BigInteger.valueOf(random.nextInt(4) + 1)));
+			}
+		}
+		return builder.build();
+	}
+
+	private static int entry(Random random, int i, int j, int size) {
+		int value = random.nextInt(19) - 9;
+		return i == j ? value + 10 * size : value;
+	}
+
+}
@@ -0,0 +1,77 @@
+package matrix.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import matrix.GenericMatrix;
+import matrix.SparseMatrix;
+
+/**
+ * The <code>SparseMatrix</code> operations whose cost scales with the number of non-zeros
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+@SuppressWarnings({"rawtypes", "unchecked"})
+public class SparseBenchmark {
+	@Param({"1024", "4096"})
+	public int size;
+
+	@Param({"Integer", "Double", "Rational"})
+	public String type;
+
+	@Param({"0.001", "0.01", "0.1"})
+	public double density;
+
+	private SparseMatrix a;
+	private SparseMatrix b;
+	private GenericMatrix dense;
+
+	@Setup
+	public void setUp() {
+		a = Matrices.sparse(type, size, density, 1);
+		b = Matrices.sparse(type, size, density, 2);
+		dense = Matrices.dense(type, size, 8, 3);
+	}
+
+	@Benchmark
+	public Object multiplySparse() {
+		return a.multiply(b);
+	}
+
+	@Benchmark
+	public Object multiplyDense() {
+		return a.multiply(dense);
+	}
+
+	@Benchmark
+	public Object add() {
+		return a.add(b);
+	}
+
+	@Benchmark
+	public Object transpose() {
+		return a.transpose();
+	}
+
+	@Benchmark
+	public Object subtractRow() {
+		// Keeps the matrix unchanged: row 0 -= 0 * row 1 still merges the two rows
+		return a.subtractRow(0, 1, a.zero());
+	}
+
+}
@@ -0,0 +1,28 @@
+package matrix.jfr;
+
+import matrix.MatrixTracer;
+
+public final class JfrMatrixTracer extends MatrixTracer {
+
+	public JfrMatrixTracer() {
+
+	}
+
+	@Override
+	public Object begin(String operation, int row, int column) {
+		MatrixOperationEvent event = new MatrixOperationEvent();
+		if (!event.isEnabled()) // No recording asks for the events
+			return null;
+		event.operation = operation;
+		event.rows = row;
+		event.columns = column;
+		event.begin();
+		return event;
+	}
+
+	@Override
+	public void end(Object token) {
+		if (token != null)
+			((MatrixOperationEvent) token).commit();
+	}
+}
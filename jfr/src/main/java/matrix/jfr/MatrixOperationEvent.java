@@ -0,0 +1,20 @@
+package matrix.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("matrix.Operation")
+@Label("Matrix Operation")
+@Category("Matrix")
+@Description("An outermost call of a timed matrix operation")
+final class MatrixOperationEvent extends Event {
+	@Label("Operation")
+	String operation;
+	@Label("Rows")
+	int rows;
+	@Label("Columns")
+	int columns;
+}
@@ -0,0 +1,105 @@
+package matrix;
+
+import java.math.BigInteger;
+
+public final class BareissElimination {
+	/**
+	 * The number of rows of the eliminated matrix
+	 */
+	private final int row;
+	/**
+	 * The number of columns of the eliminated matrix
+	 */
+	private final int column;
+	/**
+	 * The rank of the eliminated matrix
+	 */
+	private int rank;
+	/**
+	 * The determinant of the eliminated matrix, or null if it is not square
+	 */
+	private BigInteger determinant;
+
+	/**
+	 * Run fraction-free elimination on the input integer matrix
+	 * @param matrix the matrix, which is not modified
+	 */
+	public BareissElimination(BigInteger[][] matrix) {
+		this.row = matrix.length;
+		this.column = row == 0 ? 0 : matrix[0].length;
+
+		BigInteger[][] temp = new BigInteger[row][];
+		for (int i = 0; i < row; i++)
+			temp[i] = matrix[i].clone();
+		eliminate(temp);
+	}
+	/**
+	 * Get the rank of the eliminated matrix
+	 * @return the rank
+	 */
+	public int getRank() {
+		return rank;
+	}
+	/**
+	 * Check if the rank of the eliminated matrix is full
+	 * @return true if the rank is full, false otherwise
+	 */
+	public boolean isFullRank() {
+		return rank == Math.min(row, column);
+	}
+	/**
+	 * Get the determinant of the eliminated matrix
+	 * @return the exact determinant
+	 */
+	public BigInteger getDeterminant() {
+		if (row != column)
+			throw new RuntimeException("The matrices do not have compatible size.");
+		return determinant;
+	}
+	/**
+	 * Eliminate with <code>BigInteger</code> entries
+	 * @param a the matrix to eliminate in place
+	 */
+	private void eliminate(BigInteger[][] a) {
+		BigInteger previous = BigInteger.ONE; // The previous pivot, which divides every updated entry exactly
+		int swaps = 0;
+		int r = 0; // The row of the next pivot
+
+		for (int c = 0; c < column && r < row; c++) {
+			int pivotRow = r;
+			while (pivotRow < row && a[pivotRow][c].signum() == 0)
+				pivotRow++;
+			if (pivotRow == row) // No pivot in this column
+				continue;
+			if (pivotRow != r) {
+				BigInteger[] temp = a[r];
+				a[r] = a[pivotRow];
+				a[pivotRow] = temp;
+				swaps++;
+			}
+			MatrixMetrics.pivot(pivotRow != r);
+
+			BigInteger pivot = a[r][c];
+			BigInteger divisor = previous;
+			BigInteger[] pivotValues = a[r];
+			int pivotColumn = c;
+			int nextRow = r + 1;
+			MatrixExecutor.forEachRowBlock(row - nextRow, (long) (column - c) * 64, (fromRow, toRow) -> {
+				for (int i = nextRow + fromRow; i < nextRow + toRow; i++) {
+					BigInteger[] values = a[i];
+					BigInteger times = values[pivotColumn];
+					for (int j = pivotColumn + 1; j < column; j++)
+						values[j] = pivot.multiply(values[j]).subtract(times.multiply(pivotValues[j])).divide(divisor);
+					values[pivotColumn] = BigInteger.ZERO;
+				}
+			});
+			previous = pivot;
+			r++;
+		}
+
+		rank = r;
+		if (row == column)
+			determinant = rank < row ? BigInteger.ZERO : swaps % 2 == 0 ? previous : previous.negate();
+	}
+
+}
@@ -0,0 +1,238 @@
+package matrix;
+
+public final class BlockMultiplier {
+	/**
+	 * The default edge length of the square tiles
+	 */
+	public static final int DEFAULT_BLOCK_SIZE = 64;
+	/**
+	 * The edge length of the square tiles used by the kernels
+	 */
+	private static volatile int blockSize = DEFAULT_BLOCK_SIZE;
+
+	private BlockMultiplier() {
+
+	}
+	/**
+	 * Get the edge length of the tiles used by the kernels
+	 * @return the block size
+	 */
+	public static int getBlockSize() {
+		return blockSize;
+	}
+	/**
+	 * Set the edge length of the tiles used by the kernels
+	 * @param blockSize the block size, should be chosen so that three tiles fit in the cache
+	 */
+	public static void setBlockSize(int blockSize) {
+		if (blockSize <= 0)
+			throw new RuntimeException("The block size must be positive.");
+		BlockMultiplier.blockSize = blockSize;
+	}
+	/**
+	 * Multiply two row-major <code>double</code> arrays tile by tile
+	 * @param a the left array of size n * m
+	 * @param b the right array of size m * p
+	 * @param n the number of rows of a
+	 * @param m the number of columns of a (also rows of b)
+	 * @param p the number of columns of b
+	 * @return a new row-major array of size n * p
+	 */
+	public static double[] multiply(double[] a, double[] b, int n, int m, int p) {
+		double[] c = new double[n * p];
+		MatrixExecutor.forEachRowBlock(n, (long) m * p, (fromRow, toRow) ->
+				multiply(a, b, c, m, p, fromRow, toRow));
+		return c;
+	}
+	/**
+	 * Multiply the rows [fromRow, toRow) of two row-major <code>double</code> arrays tile by tile
+	 * @param a the left array
+	 * @param b the right array of size m * p
+	 * @param c the result array, whose elements must be zero on entry
+	 * @param m the number of columns of a (also rows of b)
+	 * @param p the number of columns of b
+	 * @param fromRow the first row of the block
+	 * @param toRow the row after the last row of the block
+	 */
+	private static void multiply(double[] a, double[] b, double[] c, int m, int p, int fromRow, int toRow) {
+		int bs = blockSize;
+		DoubleKernels kernels = DoubleKernels.get();
+
+		for (int ii = fromRow; ii < toRow; ii += bs) {
+			int iEnd = Math.min(ii + bs, toRow);
+			for (int kk = 0; kk < m; kk += bs) {
+				int kEnd = Math.min(kk + bs, m);
+				for (int jj = 0; jj < p; jj += bs) {
+					int jEnd = Math.min(jj + bs, p);
+					// i-k-j order: c[i][j] and b[k][j] are both walked along a row
+					for (int i = ii; i < iEnd; i++) {
+						int cOffset = i * p;
+						for (int k = kk; k < kEnd; k++)
+							kernels.axpy(a[i * m + k], b, k * p + jj, c, cOffset + jj, jEnd - jj);
+					}
+				}
+			}
+		}
+	}
+	/**
+	 * Multiply two row-major <code>float</code> arrays tile by tile
+	 * @param a the left array of size n * m
+	 * @param b the right array of size m * p
+	 * @param n the number of rows of a
+	 * @param m the number of columns of a (also rows of b)
+	 * @param p the number of columns of b
+	 * @return a new row-major array of size n * p
+	 */
+	public static float[] multiply(float[] a, float[] b, int n, int m, int p) {
+		float[] c = new float[n * p];
+		MatrixExecutor.forEachRowBlock(n, (long) m * p, (fromRow, toRow) ->
+				multiply(a, b, c, m, p, fromRow, toRow));
+		return c;
+	}
+	/**
+	 * Multiply the rows [fromRow, toRow) of two row-major <code>float</code> arrays tile by tile
+	 * @param a the left array
+	 * @param b the right array of size m * p
+	 * @param c the result array, whose elements must be zero on entry
+	 * @param m the number of columns of a (also rows of b)
+	 * @param p the number of columns of b
+	 * @param fromRow the first row of the block
+	 * @param toRow the row after the last row of the block
+	 */
+	private static void multiply(float[] a, float[] b, float[] c, int m, int p, int fromRow, int toRow) {
+		int bs = blockSize;
+
+		for (int ii = fromRow; ii < toRow; ii += bs) {
+			int iEnd = Math.min(ii + bs, toRow);
+			for (int kk = 0; kk < m; kk += bs) {
+				int kEnd = Math.min(kk + bs, m);
+				for (int jj = 0; jj < p; jj += bs) {
+					int jEnd = Math.min(jj + bs, p);
+					for (int i = ii; i < iEnd; i++) {
+						int cOffset = i * p;
+						for (int k = kk; k < kEnd; k++) {
+							float aik = a[i * m + k];
+							int bOffset = k * p;
+							for (int j = jj; j < jEnd; j++)
+								c[cOffset + j] += aik * b[bOffset + j];
+						}
+					}
+				}
+			}
+		}
+	}
+	/**
+	 * Multiply two row-major <code>int</code> arrays tile by tile, summing in <code>long</code>.
+	 * The sums are only checked for overflow when the largest elements could overflow them
+	 * @param a the left array of size n * m
+	 * @param b the right array of size m * p
+	 * @param n the number of rows of a
+	 * @param m the number of columns of a (also rows of b)
+	 * @param p the number of columns of b
+	 * @return a new row-major array of size n * p
+	 * @throws ArithmeticException if an element of the product does not fit in a <code>long</code>
+	 */
+	public static long[] multiplyExact(int[] a, int[] b, int n, int m, int p) {
+		// Every product of two ints fits in a long, only their sum can overflow
+		boolean checked = (double) m * maxAbs(a) * maxAbs(b) >= 0x1p62;
+		long[] c = new long[n * p];
+		MatrixExecutor.forEachRowBlock(n, (long) m * p, (fromRow, toRow) ->
+				multiply(a, b, c, m, p, fromRow, toRow, checked));
+		return c;
+	}
+	/**
+	 * Multiply the rows [fromRow, toRow) of two row-major <code>int</code> arrays tile by tile into longs
+	 * @param a the left array
+	 * @param b the right array of size m * p
+	 * @param c the result array, whose elements must be zero on entry
+	 * @param m the number of columns of a (also rows of b)
+	 * @param p the number of columns of b
+	 * @param fromRow the first row of the block
+	 * @param toRow the row after the last row of the block
+	 * @param checked whether the sums are checked for overflow
+	 */
+	private static void multiply(int[] a, int[] b, long[] c, int m, int p, int fromRow, int toRow, boolean checked) {
+		int bs = blockSize;
+
+		for (int ii = fromRow; ii < toRow; ii += bs) {
+			int iEnd = Math.min(ii + bs, toRow);
+			for (int kk = 0; kk < m; kk += bs) {
+				int kEnd = Math.min(kk + bs, m);
+				for (int jj = 0; jj < p; jj += bs) {
+					int jEnd = Math.min(jj + bs, p);
+					for (int i = ii; i < iEnd; i++) {
+						int cOffset = i * p;
+						for (int k = kk; k < kEnd; k++) {
+							long aik = a[i * m + k];
+							int bOffset = k * p;
+							if (checked)
+								for (int j = jj; j < jEnd; j++)
+									c[cOffset + j] = Math.addExact(c[cOffset + j], aik * b[bOffset + j]);
+							else
+								for (int j = jj; j < jEnd; j++)
+									c[cOffset + j] += aik * b[bOffset + j];
+						}
+					}
+				}
+			}
+		}
+	}
+	/**
+	 * Get the largest absolute value of an <code>int</code> array
+	 */
+	private static long maxAbs(int[] a) {
+		long max = 0;
+		for (int value : a)
+			max = Math.max(max, Math.abs((long) value));
+		return max;
+	}
+	/**
+	 * Multiply two matrices tile by tile with the element operations of a <code>GenericMatrix</code>
+	 * @param ops the matrix whose element operations are used
+	 * @param a the left matrix
+	 * @param b the right matrix
+	 * @param c the result matrix, whose elements must be zero on entry
+	 */
+	public static <E extends Number> void multiply(GenericMatrix<E> ops, E[][] a, E[][] b, E[][] c) {
+		int m = b.length;
+		int p = c.length == 0 ? 0 : c[0].length;
+		MatrixExecutor.forEachRowBlock(a.length, (long) m * p * ops.getOperationCost(), (fromRow, toRow) ->
+				multiply(ops, a, b, c, m, p, fromRow, toRow));
+	}
+	/**
+	 * Multiply the rows [fromRow, toRow) of two matrices tile by tile
+	 * @param ops the matrix whose element operations are used
+	 * @param a the left matrix
+	 * @param b the right matrix of size m * p
+	 * @param c the result matrix, whose elements must be zero on entry
+	 * @param m the number of columns of a (also rows of b)
+	 * @param p the number of columns of b
+	 * @param fromRow the first row of the block
+	 * @param toRow the row after the last row of the block
+	 */
+	private static <E extends Number> void multiply(GenericMatrix<E> ops, E[][] a, E[][] b, E[][] c,
+			int m, int p, int fromRow, int toRow) {
+		int bs = blockSize;
+
+		for (int ii = fromRow; ii < toRow; ii += bs) {
+			int iEnd = Math.min(ii + bs, toRow);
+			for (int kk = 0; kk < m; kk += bs) {
+				int kEnd = Math.min(kk + bs, m);
+				for (int jj = 0; jj < p; jj += bs) {
+					int jEnd = Math.min(jj + bs, p);
+					for (int i = ii; i < iEnd; i++) {
+						E[] ai = a[i];
+						E[] ci = c[i];
+						for (int k = kk; k < kEnd; k++) {
+							E aik = ai[k];
+							E[] bk = b[k];
+							for (int j = jj; j < jEnd; j++)
+								ci[j] = ops.add(ci[j], ops.multiply(aik, bk[j]));
+						}
+					}
+				}
+			}
+		}
+	}
+
+}
@@ -0,0 +1,17 @@
+package matrix;
+
+public enum CachePolicy {
+	/**
+	 * Every query computes its result again
+	 */
+	NONE,
+	/**
+	 * The results are kept by the matrix until it is modified
+	 */
+	INSTANCE,
+	/**
+	 * The results are kept in the bounded <code>MatrixCache</code>, where they are found by every
+	 * matrix of the same type and the same elements
+	 */
+	SHARED
+}
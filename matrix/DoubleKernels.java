@@ -0,0 +1,116 @@
+package matrix;
+
+public abstract class DoubleKernels {
+	/**
+	 * The class of the kernels on the Vector API, found on the class path when the simd module is built
+	 */
+	private static final String VECTOR_KERNELS = "matrix.simd.VectorDoubleKernels";
+	/**
+	 * The loop kernels, which do not depend on the Vector API
+	 */
+	private static final DoubleKernels SCALAR = new Scalar();
+	/**
+	 * The kernels selected when the class is loaded
+	 */
+	private static final DoubleKernels INSTANCE = load();
+
+	protected DoubleKernels() {
+
+	}
+	/**
+	 * Get the fastest kernels available at runtime. The Vector API kernels are used when they are
+	 * on the class path, the JVM runs with --add-modules jdk.incubator.vector and the system
+	 * property matrix.simd is not false
+	 * @return the selected kernels
+	 */
+	public static DoubleKernels get() {
+		return INSTANCE;
+	}
+	/**
+	 * Get the plain loop kernels
+	 * @return the scalar kernels
+	 */
+	public static DoubleKernels scalar() {
+		return SCALAR;
+	}
+	/**
+	 * Select the kernels, falling back to the scalar ones if the Vector API cannot be loaded
+	 */
+	private static DoubleKernels load() {
+		if (!Boolean.parseBoolean(System.getProperty("matrix.simd", "true")))
+			return SCALAR;
+		try {
+			return (DoubleKernels) Class.forName(VECTOR_KERNELS).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError | SecurityException ex) {
+			return SCALAR;
+		}
+	}
+	/**
+	 * Get the name of the kernels
+	 * @return a short description, e.g. the vector shape
+	 */
+	public abstract String getName();
+	/**
+	 * y[yOffset..yOffset+length) += alpha * x[xOffset..xOffset+length)
+	 */
+	public abstract void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length);
+	/**
+	 * x[offset..offset+length) *= alpha
+	 */
+	public abstract void scale(double alpha, double[] x, int offset, int length);
+	/**
+	 * x[offset..offset+length) /= divisor, dividing every element so that the results equal the scalar ones
+	 */
+	public abstract void divide(double divisor, double[] x, int offset, int length);
+	/**
+	 * c[i] = a[i] + b[i] for i in [fromIndex, toIndex), c may be a or b
+	 */
+	public abstract void add(double[] a, double[] b, double[] c, int fromIndex, int toIndex);
+	/**
+	 * c[i] = a[i] - b[i] for i in [fromIndex, toIndex), c may be a or b
+	 */
+	public abstract void subtract(double[] a, double[] b, double[] c, int fromIndex, int toIndex);
+
+	@Override
+	public String toString() {
+		return getName();
+	}
+
+	private static final class Scalar extends DoubleKernels {
+		@Override
+		public String getName() {
+			return "scalar";
+		}
+
+		@Override
+		public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+			for (int i = 0; i < length; i++)
+				y[yOffset + i] += alpha * x[xOffset + i];
+		}
+
+		@Override
+		public void scale(double alpha, double[] x, int offset, int length) {
+			for (int i = offset; i < offset + length; i++)
+				x[i] *= alpha;
+		}
+
+		@Override
+		public void divide(double divisor, double[] x, int offset, int length) {
+			for (int i = offset; i < offset + length; i++)
+				x[i] /= divisor;
+		}
+
+		@Override
+		public void add(double[] a, double[] b, double[] c, int fromIndex, int toIndex) {
+			for (int i = fromIndex; i < toIndex; i++)
+				c[i] = a[i] + b[i];
+		}
+
+		@Override
+		public void subtract(double[] a, double[] b, double[] c, int fromIndex, int toIndex) {
+			for (int i = fromIndex; i < toIndex; i++)
+				c[i] = a[i] - b[i];
+		}
+	}
+
+}
@@ -1,24 +1,144 @@
 package matrix;
 
 public class DoubleMatrix extends GenericMatrix<Double> {
+	/**
+	 * The largest number of refinements of a mixed-precision solution, as in LAPACK's dsgesv
+	 */
+	private static final int MAX_REFINEMENTS = 30;
+
+	/**
+	 * The elements of the <code>DoubleMatrix</code> stored row by row in one contiguous array
+	 */
+	private double[] data;
+
 	/**
 	 * Construct a new <code>DoubleMatrix</code> object with default properties
 	 */
 	public DoubleMatrix() {
-		
+		this(0, 0);
 	}
 	/**
 	 * Construct a new <code>DoubleMatrix</code> object with the input matrix
 	 * @param matrix
 	 */
 	public DoubleMatrix(Double[][] matrix) {
-		super(matrix);
+		this(matrix.length, matrix[0].length);
+		setMatrix(matrix);
+	}
+	/**
+	 * Construct a new <code>DoubleMatrix</code> object with the input primitive matrix
+	 * @param matrix
+	 */
+	public DoubleMatrix(double[][] matrix) {
+		this(matrix.length, matrix[0].length);
+		for (int i = 0; i < matrix.length; i++)
+			System.arraycopy(matrix[i], 0, data, i * getColumn(), getColumn());
+	}
+	/**
+	 * Construct a new <code>DoubleMatrix</code> object with the input row&column
+	 * whose elements are all zero
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 */
+	public DoubleMatrix(int row, int column) {
+		this(row, column, new double[row * column]);
+	}
+	/**
+	 * Construct a new <code>DoubleMatrix</code> object over the input row-major array without copying it
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @param data the elements stored row by row
+	 */
+	DoubleMatrix(int row, int column, double[] data) {
+		super(row, column);
+		if (data.length != row * column)
+			throw new RuntimeException("The data does not match the size of the matrix.");
+		this.data = data;
+	}
+	/**
+	 * Get the row-major array backing the current <code>DoubleMatrix</code>
+	 * @return the backing array, not a copy
+	 */
+	double[] getData() {
+		return data;
+	}
+	/**
+	 * Get the matrix of the current <code>DoubleMatrix</code> as boxed values
+	 * @return a new boxed copy of the matrix
+	 */
+	@Override
+	public Double[][] getMatrix() {
+		Double[][] matrix = new Double[getRow()][getColumn()];
+		for (int i = 0; i < getRow(); i++)
+			for (int j = 0; j < getColumn(); j++)
+				matrix[i][j] = data[i * getColumn() + j];
+
+		return matrix;
+	}
+	/**
+	 * Set the value of current matrix to the passed matrix, resizing if needed
+	 * @param matrix
+	 */
+	@Override
+	public void setMatrix(Double[][] matrix) {
+		markModified();
+		int row = matrix.length;
+		int column = matrix[0].length;
+		if (data == null || data.length != row * column)
+			data = new double[row * column];
+		setRow(row);
+		setColumn(column);
+
+		for (int i = 0; i < row; i++)
+			for (int j = 0; j < column; j++)
+				data[i * column + j] = matrix[i][j];
+	}
+	/**
+	 * Get the value of matrix[row][column]
+	 */
+	@Override
+	public Double getValue(int row, int column) {
+		return getDouble(row, column);
+	}
+	/**
+	 * Set current value to the passed value in the matrix[row][column]
+	 */
+	@Override
+	public void setValue(int row, int column, Double value) {
+		setDouble(row, column, value);
+	}
+	/**
+	 * Get the primitive value of matrix[row][column]
+	 * @param row the row index of the matrix
+	 * @param column the column index of the matrix
+	 * @return the value of matrix[row][column]
+	 */
+	public double getDouble(int row, int column) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		else
+			return data[row * getColumn() + column];
+	}
+	/**
+	 * Set current primitive value to the passed value in the matrix[row][column]
+	 * @param row the row index of the matrix
+	 * @param column the column index of the matrix
+	 * @param value the value of matrix[row][column]
+	 */
+	public void setDouble(int row, int column, double value) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		else {
+			markModified();
+			data[row * getColumn() + column] = value;
+		}
 	}
 	/**
 	 * Add two specified doubles
 	 */
 	@Override
 	public Double add(Double d1, Double d2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_ADDITIONS, 1);
 		return d1 + d2;
 	}
 	/**
@@ -26,6 +146,7 @@ public class DoubleMatrix extends GenericMatrix<Double> {
 	 */
 	@Override
 	public Double subtract(Double d1, Double d2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_SUBTRACTIONS, 1);
 		return d1 - d2;
 	}
 	/**
@@ -33,6 +154,7 @@ public class DoubleMatrix extends GenericMatrix<Double> {
 	 */
 	@Override
 	public Double multiply(Double d1, Double d2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_MULTIPLICATIONS, 1);
 		return d1 * d2;
 	}
 	/**
@@ -40,6 +162,7 @@ public class DoubleMatrix extends GenericMatrix<Double> {
 	 */
 	@Override
 	public Double divide(Double d1, Double d2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_DIVISIONS, 1);
 		return d1 / d2;
 	}
 	/**
@@ -78,41 +201,556 @@ public class DoubleMatrix extends GenericMatrix<Double> {
 	 */
 	@Override
 	public DoubleMatrix zeros(int row, int column) {
-		Double[][] zeros = new Double[row][column];
-		for (int i = 0; i < row; i++)
-			for (int j = 0; j < column; j++)
-				zeros[i][j] = zero();
-		
-		return new DoubleMatrix(zeros);
+		MatrixMetrics.temporary(row, column);
+		return new DoubleMatrix(row, column);
 	}
 	/**
 	 * Construct a new specified identity <code>DoubleMatrix</code> object with the input row
 	 */
 	@Override
 	public DoubleMatrix eye(int row) {
-		Double[][] eye = new Double[row][row];
-		for (int i = 0; i < row; i++) {
-			for (int j = 0; j < row; j++) {
-				if (i == j) // Set elements on the diagonal to one
-					eye[i][i] = 1.0;
-				else // Set elements that are not on the diagonal to zero
-					eye[i][j] = zero();
-			}
-		}
-		
-		return new DoubleMatrix(eye);
+		DoubleMatrix eye = new DoubleMatrix(row, row);
+		for (int i = 0; i < row; i++) // Set elements on the diagonal to one
+			eye.data[i * row + i] = 1.0;
+
+		return eye;
 	}
 	/**
 	 * Construct a new <code>DoubleMatrix</code> object copied from this
 	 */
 	@Override
 	public DoubleMatrix getCopy() {
-		Double[][] copy = new Double[getRow()][getColumn()];
-		for (int i = 0; i < getRow(); i++)
-			for (int j = 0; j < getColumn(); j++)
-				copy[i][j] = getValue(i, j);
-		
-		return new DoubleMatrix(copy);
+		MatrixMetrics.temporary(getRow(), getColumn());
+		return new DoubleMatrix(getRow(), getColumn(), data.clone());
+	}
+	/**
+	 * Add values in row2 multiplied by times to values in row1
+	 */
+	@Override
+	public DoubleMatrix addRow(int row1, int row2, Double times) {
+		checkRow(row1);
+		checkRow(row2);
+		markModified();
+		axpy(times, row2, row1);
+		return this;
+	}
+	/**
+	 * Subtract values in row2 multiplied by times from values in row1
+	 */
+	@Override
+	public DoubleMatrix subtractRow(int row1, int row2, Double times) {
+		checkRow(row1);
+		checkRow(row2);
+		markModified();
+		axpy(-times, row2, row1);
+		return this;
+	}
+	/**
+	 * Multiply values in row by multiplicand
+	 */
+	@Override
+	public DoubleMatrix multiplyRow(int row, Double multiplicand) {
+		checkRow(row);
+		markModified();
+		DoubleKernels.get().scale(multiplicand, data, row * getColumn(), getColumn());
+		return this;
+	}
+	/**
+	 * Divide values in row by dividend
+	 */
+	@Override
+	public DoubleMatrix divideRow(int row, Double dividend) {
+		checkRow(row);
+		markModified();
+		DoubleKernels.get().divide(dividend, data, row * getColumn(), getColumn());
+		return this;
+	}
+	/**
+	 * Commute two rows
+	 */
+	@Override
+	public DoubleMatrix commuteRow(int row1, int row2) {
+		checkRow(row1);
+		checkRow(row2);
+		if (row1 == row2)
+			return this;
+		markModified();
+
+		int offset1 = row1 * getColumn();
+		int offset2 = row2 * getColumn();
+		for (int i = 0; i < getColumn(); i++) {
+			double temp = data[offset1 + i];
+			data[offset1 + i] = data[offset2 + i];
+			data[offset2 + i] = temp;
+		}
+		return this;
+	}
+	/**
+	 * Add another <code>GenericMatrix</code> to the current <code>DoubleMatrix</code>
+	 */
+	@Override
+	public GenericMatrix<Double> add(GenericMatrix<Double> anotherMatrix) {
+		if (!(anotherMatrix instanceof DoubleMatrix))
+			return super.add(anotherMatrix);
+		checkSameSize(anotherMatrix);
+
+		double[] other = ((DoubleMatrix) anotherMatrix).data;
+		double[] result = new double[data.length];
+		int column = getColumn();
+		MatrixExecutor.forEachRowBlock(getRow(), column, (fromRow, toRow) -> {
+			DoubleKernels.get().add(data, other, result, fromRow * column, toRow * column);
+		});
+
+		return new DoubleMatrix(getRow(), getColumn(), result);
+	}
+	/**
+	 * Add another <code>GenericMatrix</code> to the current <code>DoubleMatrix</code> in place
+	 */
+	@Override
+	public GenericMatrix<Double> addEquals(GenericMatrix<Double> anotherMatrix) {
+		if (!(anotherMatrix instanceof DoubleMatrix))
+			return super.addEquals(anotherMatrix);
+		checkSameSize(anotherMatrix);
+		markModified();
+
+		double[] other = ((DoubleMatrix) anotherMatrix).data;
+		int column = getColumn();
+		MatrixExecutor.forEachRowBlock(getRow(), column, (fromRow, toRow) -> {
+			DoubleKernels.get().add(data, other, data, fromRow * column, toRow * column);
+		});
+
+		return this;
+	}
+	/**
+	 * Subtract another <code>GenericMatrix</code> from the current <code>DoubleMatrix</code>
+	 */
+	@Override
+	public GenericMatrix<Double> subtract(GenericMatrix<Double> anotherMatrix) {
+		if (!(anotherMatrix instanceof DoubleMatrix))
+			return super.subtract(anotherMatrix);
+		checkSameSize(anotherMatrix);
+
+		double[] other = ((DoubleMatrix) anotherMatrix).data;
+		double[] result = new double[data.length];
+		int column = getColumn();
+		MatrixExecutor.forEachRowBlock(getRow(), column, (fromRow, toRow) -> {
+			DoubleKernels.get().subtract(data, other, result, fromRow * column, toRow * column);
+		});
+
+		return new DoubleMatrix(getRow(), getColumn(), result);
+	}
+	/**
+	 * Subtract another <code>GenericMatrix</code> from the current <code>DoubleMatrix</code> in place
+	 */
+	@Override
+	public GenericMatrix<Double> subtractEquals(GenericMatrix<Double> anotherMatrix) {
+		if (!(anotherMatrix instanceof DoubleMatrix))
+			return super.subtractEquals(anotherMatrix);
+		checkSameSize(anotherMatrix);
+		markModified();
+
+		double[] other = ((DoubleMatrix) anotherMatrix).data;
+		int column = getColumn();
+		MatrixExecutor.forEachRowBlock(getRow(), column, (fromRow, toRow) -> {
+			DoubleKernels.get().subtract(data, other, data, fromRow * column, toRow * column);
+		});
+
+		return this;
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>DoubleMatrix</code>
+	 */
+	@Override
+	public GenericMatrix<Double> multiply(GenericMatrix<Double> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			if (!(anotherMatrix instanceof DoubleMatrix))
+				return super.multiply(anotherMatrix);
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			DoubleMatrix other = (DoubleMatrix) anotherMatrix;
+			return new DoubleMatrix(getRow(), other.getColumn(), BlockMultiplier.multiply(data, other.data,
+					getRow(), getColumn(), other.getColumn()));
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>DoubleMatrix</code> by the input algorithm.
+	 * AUTO stays classical, since Strassen-Winograd has weaker bounds on the rounding errors
+	 */
+	@Override
+	public GenericMatrix<Double> multiply(GenericMatrix<Double> anotherMatrix, MultiplicationAlgorithm algorithm) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			if (!(anotherMatrix instanceof DoubleMatrix))
+				return super.multiply(anotherMatrix, algorithm);
+			if (algorithm != MultiplicationAlgorithm.STRASSEN)
+				return multiply(anotherMatrix);
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			DoubleMatrix other = (DoubleMatrix) anotherMatrix;
+			return new DoubleMatrix(getRow(), other.getColumn(), StrassenMultiplier.multiply(data, other.data,
+					getRow(), getColumn(), other.getColumn()));
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>DoubleMatrix</code> in place
+	 */
+	@Override
+	public GenericMatrix<Double> multiplyEquals(GenericMatrix<Double> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			if (!(anotherMatrix instanceof DoubleMatrix))
+				return super.multiplyEquals(anotherMatrix);
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+			markModified();
+
+			DoubleMatrix other = (DoubleMatrix) anotherMatrix;
+			data = BlockMultiplier.multiply(data, other.data, getRow(), getColumn(), other.getColumn());
+			setColumn(other.getColumn());
+
+			return this;
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Transpose the current <code>DoubleMatrix</code>
+	 */
+	@Override
+	public DoubleMatrix transpose() {
+		int row = getRow();
+		int column = getColumn();
+		double[] transpose = new double[data.length];
+		for (int i = 0; i < row; i++)
+			for (int j = 0; j < column; j++)
+				transpose[j * row + i] = data[i * column + j];
+
+		return new DoubleMatrix(column, row, transpose);
+	}
+	/**
+	 * Get the determinant of the current <code>DoubleMatrix</code> by LU decomposition
+	 * with partial pivoting
+	 */
+	@Override
+	public Double getDeterminant() {
+		// Check bounds of the matrix
+		if (getRow() != getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		return cached(MatrixCache.Result.DETERMINANT, () -> eliminate(data.clone(), getRow(), null, 0));
+	}
+	/**
+	 * Solve this * X = rhs for X by Gaussian elimination with partial pivoting and back substitution
+	 * on primitive arrays
+	 */
+	@Override
+	public DoubleMatrix solve(GenericMatrix<Double> rhs) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.SOLVE, this);
+		try {
+			// Check bounds of the two matrices
+			if (getRow() != getColumn() || getRow() != rhs.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			int n = getRow();
+			int p = rhs.getColumn();
+			double[] a = data.clone();
+			double[] x = rhs instanceof DoubleMatrix ? ((DoubleMatrix) rhs).data.clone()
+					: new DoubleMatrix(rhs.getMatrix()).data;
+			if (eliminate(a, n, x, p) == 0.0)
+				throw new RuntimeException("The matrix is not an non-singular matrix.");
+
+			// Back substitution, one row of right-hand sides at a time
+			for (int i = n - 1; i >= 0; i--) {
+				int xOffset = i * p;
+				for (int k = i + 1; k < n; k++) {
+					double times = a[i * n + k];
+					if (times == 0.0)
+						continue;
+					DoubleKernels.get().axpy(-times, x, k * p, x, xOffset, p);
+				}
+				DoubleKernels.get().divide(a[i * n + i], x, xOffset, p);
+			}
+
+			return new DoubleMatrix(n, p, x);
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Solve this * X = rhs for X in the input precision. MIXED factors a single-precision copy of the
+	 * matrix once and refines the solution by x += solve(r), with the residuals r = rhs - this * x computed
+	 * in double precision, until |r| <= |x| * |this| * sqrt(n) * eps in every column as in LAPACK's dsgesv
+	 * @param rhs the right-hand sides
+	 * @param precision the precision of the factorization
+	 * @return the solution
+	 */
+	public DoubleMatrix solve(GenericMatrix<Double> rhs, SolvePrecision precision) {
+		if (precision != SolvePrecision.MIXED)
+			return solve(rhs);
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.SOLVE, this);
+		try {
+			// Check bounds of the two matrices
+			if (getRow() != getColumn() || getRow() != rhs.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			int n = getRow();
+			int p = rhs.getColumn();
+			double[] b = rhs instanceof DoubleMatrix ? ((DoubleMatrix) rhs).data : new DoubleMatrix(rhs.getMatrix()).data;
+			float[] lu = new float[data.length];
+			int[] pivot = new int[n];
+			// Elements out of the range of float, or a pivot which is zero in float, need double precision
+			if (!toFloat(data, lu) || FloatMatrix.decompose(lu, n, pivot) < 0)
+				return solve(rhs);
+
+			double norm = 0.0; // The maximum absolute row sum
+			for (int i = 0; i < n; i++) {
+				double sum = 0.0;
+				for (int j = 0; j < n; j++)
+					sum += Math.abs(data[i * n + j]);
+				norm = Math.max(norm, sum);
+			}
+			double tolerance = norm * Math.sqrt(n) * Math.ulp(1.0) / 2;
+
+			double[] x = new double[n * p];
+			double[] r = b;
+			float[] d = new float[n * p];
+			for (int iteration = 0; iteration <= MAX_REFINEMENTS; iteration++) {
+				if (iteration > 0) {
+					if (isConverged(r, x, n, p, tolerance))
+						return new DoubleMatrix(n, p, x);
+					if (iteration == MAX_REFINEMENTS)
+						break;
+				}
+				if (!toFloat(r, d))
+					break;
+				d = FloatMatrix.permute(d, pivot, p);
+				FloatMatrix.substitute(lu, n, d, p);
+				for (int i = 0; i < x.length; i++)
+					x[i] += d[i];
+				// r = b - this * x
+				r = BlockMultiplier.multiply(data, x, n, n, p);
+				for (int i = 0; i < r.length; i++)
+					r[i] = b[i] - r[i];
+			}
+
+			return solve(rhs); // The refinement did not converge
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Check if the residuals of every column are within the tolerance relative to the column of the solution
+	 */
+	private static boolean isConverged(double[] r, double[] x, int n, int p, double tolerance) {
+		for (int j = 0; j < p; j++) {
+			double residual = 0.0;
+			double solution = 0.0;
+			for (int i = 0; i < n; i++) {
+				residual = Math.max(residual, Math.abs(r[i * p + j]));
+				solution = Math.max(solution, Math.abs(x[i * p + j]));
+			}
+			if (!(residual <= solution * tolerance)) // Also false for NaN
+				return false;
+		}
+		return true;
+	}
+	/**
+	 * Round doubles to floats
+	 * @param from the doubles
+	 * @param to the floats, of the same length
+	 * @return false if an element is out of the range of float or NaN
+	 */
+	private static boolean toFloat(double[] from, float[] to) {
+		for (int i = 0; i < from.length; i++) {
+			float value = (float) from[i];
+			if (Float.isInfinite(value) || Float.isNaN(value))
+				return false;
+			to[i] = value;
+		}
+		return true;
+	}
+	/**
+	 * Reduce a square row-major array to upper triangular form in place by Gaussian elimination
+	 * with partial pivoting, applying the same row operations to the right-hand sides
+	 * @param a the n * n array
+	 * @param n the number of rows of a
+	 * @param x the n * p right-hand sides, or null
+	 * @param p the number of columns of x
+	 * @return the determinant, 0 if a pivot is zero in which case the elimination stops
+	 */
+	private static double eliminate(double[] a, int n, double[] x, int p) {
+		double determinant = 1.0;
+
+		for (int i = 0; i < n; i++) {
+			int currentRow = i; // The row where the max absolute value is
+			for (int k = i + 1; k < n; k++)
+				if (Math.abs(a[k * n + i]) > Math.abs(a[currentRow * n + i]))
+					currentRow = k;
+			if (a[currentRow * n + i] == 0.0)
+				return 0.0;
+			if (currentRow != i) { // Every row swap flips the sign
+				swap(a, i * n + i, currentRow * n + i, n - i);
+				if (x != null)
+					swap(x, i * p, currentRow * p, p);
+				determinant = -determinant;
+			}
+			MatrixMetrics.pivot(currentRow != i);
+
+			double pivot = a[i * n + i];
+			determinant *= pivot;
+			// Turn elements below the diagonal to zero
+			int pivotRow = i;
+			MatrixExecutor.forEachRowBlock(n - i - 1, n - i + p, (fromRow, toRow) -> {
+				for (int k = pivotRow + 1 + fromRow; k < pivotRow + 1 + toRow; k++) {
+					double times = a[k * n + pivotRow] / pivot;
+					if (times == 0.0)
+						continue;
+					DoubleKernels.get().axpy(-times, a, pivotRow * n + pivotRow + 1, a, k * n + pivotRow + 1,
+							n - pivotRow - 1);
+					if (x != null)
+						DoubleKernels.get().axpy(-times, x, pivotRow * p, x, k * p, p);
+				}
+			});
+		}
+
+		return determinant;
+	}
+	/**
+	 * Swap two ranges of an array
+	 * @param array
+	 * @param offset1 the start of the first range
+	 * @param offset2 the start of the second range
+	 * @param length the length of the ranges
+	 */
+	private static void swap(double[] array, int offset1, int offset2, int length) {
+		for (int i = 0; i < length; i++) {
+			double temp = array[offset1 + i];
+			array[offset1 + i] = array[offset2 + i];
+			array[offset2 + i] = temp;
+		}
+	}
+	/**
+	 * Get the inversion of the current <code>DoubleMatrix</code> by Gauss-Jordan elimination
+	 * with partial pivoting
+	 */
+	@Override
+	public DoubleMatrix inverse() {
+		// Check bounds of the two matrices
+		if (getRow() != getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		return cached(MatrixCache.Result.INVERSE, this::invert).getCopy();
+	}
+	/**
+	 * Invert the current <code>DoubleMatrix</code> by Gauss-Jordan elimination with partial pivoting
+	 */
+	private DoubleMatrix invert() {
+		int n = getRow();
+		DoubleMatrix temp = getCopy();
+		DoubleMatrix inversion = eye(n);
+		double[] a = temp.data;
+
+		for (int i = 0; i < n; i++) {
+			int currentRow = i; // The row where the max absolute value is
+			for (int k = i + 1; k < n; k++)
+				if (Math.abs(a[k * n + i]) > Math.abs(a[currentRow * n + i]))
+					currentRow = k;
+			if (a[currentRow * n + i] == 0.0)
+				throw new RuntimeException("The matrix is not an non-singular matrix.");
+
+			MatrixMetrics.pivot(currentRow != i);
+			temp.commuteRow(i, currentRow);
+			inversion.commuteRow(i, currentRow);
+			double pivot = a[i * n + i];
+			temp.divideRow(i, pivot);
+			inversion.divideRow(i, pivot);
+			// Turn the other elements of the column to zero
+			for (int k = 0; k < n; k++) {
+				double times = a[k * n + i];
+				if (k != i && times != 0.0) {
+					temp.axpy(-times, i, k);
+					inversion.axpy(-times, i, k);
+				}
+			}
+		}
+
+		return inversion;
+	}
+	/**
+	 * Get the row echelon form of the current <code>DoubleMatrix</code> by Gaussian elimination
+	 * with partial pivoting, skipping the columns without a pivot, with every pivot turned to one
+	 */
+	@Override
+	public DoubleMatrix getUpperTriangularMatrix() {
+		int row = getRow();
+		int column = getColumn();
+		DoubleMatrix upper = getCopy();
+		double[] a = upper.data;
+		int r = 0; // The row of the next pivot
+
+		for (int c = 0; c < column && r < row; c++) {
+			int currentRow = r; // The row where the max absolute value is
+			for (int k = r + 1; k < row; k++)
+				if (Math.abs(a[k * column + c]) > Math.abs(a[currentRow * column + c]))
+					currentRow = k;
+			if (a[currentRow * column + c] == 0.0) // No pivot in this column
+				continue;
+			MatrixMetrics.pivot(currentRow != r);
+			upper.commuteRow(r, currentRow);
+
+			double pivot = a[r * column + c];
+			int pivotRow = r;
+			int pivotColumn = c;
+			MatrixExecutor.forEachRowBlock(row - r - 1, column - c, (fromRow, toRow) -> {
+				for (int k = pivotRow + 1 + fromRow; k < pivotRow + 1 + toRow; k++) {
+					double times = a[k * column + pivotColumn] / pivot;
+					a[k * column + pivotColumn] = 0.0;
+					if (times != 0.0)
+						DoubleKernels.get().axpy(-times, a, pivotRow * column + pivotColumn + 1,
+								a, k * column + pivotColumn + 1, column - pivotColumn - 1);
+				}
+			});
+			DoubleKernels.get().divide(pivot, a, r * column + c, column - c);
+			r++;
+		}
+
+		return upper;
+	}
+	/**
+	 * Add values in the source row multiplied by times to the target row
+	 * @param times
+	 * @param source the source row index
+	 * @param target the target row index
+	 */
+	private void axpy(double times, int source, int target) {
+		int column = getColumn();
+		DoubleKernels.get().axpy(times, data, source * column, data, target * column, column);
+	}
+	/**
+	 * Check if the row index is valid
+	 * @param row the row index
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= getRow())
+			throw new NullPointerException("Invalid input!");
+	}
+	/**
+	 * Check if another <code>GenericMatrix</code> has the same size with this
+	 * @param anotherMatrix
+	 */
+	private void checkSameSize(GenericMatrix<Double> anotherMatrix) {
+		if (getRow() != anotherMatrix.getRow() || getColumn() != anotherMatrix.getColumn())
+			throw new RuntimeException("The matrices do not have the same size.");
 	}
 
 }
@@ -0,0 +1,681 @@
+package matrix;
+
+/**
+ * A matrix of single-precision elements, which takes half the memory of a <code>DoubleMatrix</code>
+ * and so moves twice as many elements per byte of memory bandwidth, at about 7 instead of 16
+ * significant digits
+ */
+public class FloatMatrix extends GenericMatrix<Float> {
+	/**
+	 * The elements of the <code>FloatMatrix</code> stored row by row in one contiguous array
+	 */
+	private float[] data;
+
+	/**
+	 * Construct a new <code>FloatMatrix</code> object with default properties
+	 */
+	public FloatMatrix() {
+		this(0, 0);
+	}
+	/**
+	 * Construct a new <code>FloatMatrix</code> object with the input matrix
+	 * @param matrix
+	 */
+	public FloatMatrix(Float[][] matrix) {
+		this(matrix.length, matrix[0].length);
+		setMatrix(matrix);
+	}
+	/**
+	 * Construct a new <code>FloatMatrix</code> object with the input primitive matrix
+	 * @param matrix
+	 */
+	public FloatMatrix(float[][] matrix) {
+		this(matrix.length, matrix[0].length);
+		for (int i = 0; i < matrix.length; i++)
+			System.arraycopy(matrix[i], 0, data, i * getColumn(), getColumn());
+	}
+	/**
+	 * Construct a new <code>FloatMatrix</code> object with the input row&column
+	 * whose elements are all zero
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 */
+	public FloatMatrix(int row, int column) {
+		this(row, column, new float[row * column]);
+	}
+	/**
+	 * Construct a new <code>FloatMatrix</code> object over the input row-major array without copying it
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @param data the elements stored row by row
+	 */
+	FloatMatrix(int row, int column, float[] data) {
+		super(row, column);
+		if (data.length != row * column)
+			throw new RuntimeException("The data does not match the size of the matrix.");
+		this.data = data;
+	}
+	/**
+	 * Get the row-major array backing the current <code>FloatMatrix</code>
+	 * @return the backing array, not a copy
+	 */
+	float[] getData() {
+		return data;
+	}
+	/**
+	 * Get the matrix of the current <code>FloatMatrix</code> as boxed values
+	 * @return a new boxed copy of the matrix
+	 */
+	@Override
+	public Float[][] getMatrix() {
+		Float[][] matrix = new Float[getRow()][getColumn()];
+		for (int i = 0; i < getRow(); i++)
+			for (int j = 0; j < getColumn(); j++)
+				matrix[i][j] = data[i * getColumn() + j];
+
+		return matrix;
+	}
+	/**
+	 * Set the value of current matrix to the passed matrix, resizing if needed
+	 * @param matrix
+	 */
+	@Override
+	public void setMatrix(Float[][] matrix) {
+		markModified();
+		int row = matrix.length;
+		int column = matrix[0].length;
+		if (data == null || data.length != row * column)
+			data = new float[row * column];
+		setRow(row);
+		setColumn(column);
+
+		for (int i = 0; i < row; i++)
+			for (int j = 0; j < column; j++)
+				data[i * column + j] = matrix[i][j];
+	}
+	/**
+	 * Get the value of matrix[row][column]
+	 */
+	@Override
+	public Float getValue(int row, int column) {
+		return getFloat(row, column);
+	}
+	/**
+	 * Set current value to the passed value in the matrix[row][column]
+	 */
+	@Override
+	public void setValue(int row, int column, Float value) {
+		setFloat(row, column, value);
+	}
+	/**
+	 * Get the primitive value of matrix[row][column]
+	 * @param row the row index of the matrix
+	 * @param column the column index of the matrix
+	 * @return the value of matrix[row][column]
+	 */
+	public float getFloat(int row, int column) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		else
+			return data[row * getColumn() + column];
+	}
+	/**
+	 * Set current primitive value to the passed value in the matrix[row][column]
+	 * @param row the row index of the matrix
+	 * @param column the column index of the matrix
+	 * @param value the value of matrix[row][column]
+	 */
+	public void setFloat(int row, int column, float value) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		else {
+			markModified();
+			data[row * getColumn() + column] = value;
+		}
+	}
+	/**
+	 * Add two specified floats
+	 */
+	@Override
+	public Float add(Float f1, Float f2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_ADDITIONS, 1);
+		return f1 + f2;
+	}
+	/**
+	 * Subtract f2 from f1
+	 */
+	@Override
+	public Float subtract(Float f1, Float f2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_SUBTRACTIONS, 1);
+		return f1 - f2;
+	}
+	/**
+	 * Multiply two specified floats
+	 */
+	@Override
+	public Float multiply(Float f1, Float f2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_MULTIPLICATIONS, 1);
+		return f1 * f2;
+	}
+	/**
+	 *  Divide f1 by f2
+	 */
+	@Override
+	public Float divide(Float f1, Float f2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_DIVISIONS, 1);
+		return f1 / f2;
+	}
+	/**
+	 * Specify zero for a float
+	 */
+	@Override
+	public Float zero() {
+		return 0.0f;
+	}
+	/**
+	 * Get the absolute Value of a specified float
+	 */
+	@Override
+	public Float abs(Float f) {
+		return (f.compareTo(zero()) > 0) ? f : multiply(f, -1.0f);
+	}
+	/**
+	 * Calculate the current specified matrix element to the passed integer power
+	 * @param power
+	 * @return a <code>Float</code> which is (-1)^power
+	 */
+	@Override
+	public Float powOfMinusOne(int power) {
+		return power % 2 == 0 ? 1.0f : -1.0f;
+	}
+	/**
+	 * Compare two specified matrix elements
+	 */
+	@Override
+	public int compare(Float f1, Float f2) {
+		return f1.compareTo(f2);
+	}
+	/**
+	 * Construct a new specified <code>FloatMatrix</code> object with the input row&column
+	 * whose elements are all zero
+	 */
+	@Override
+	public FloatMatrix zeros(int row, int column) {
+		MatrixMetrics.temporary(row, column);
+		return new FloatMatrix(row, column);
+	}
+	/**
+	 * Construct a new specified identity <code>FloatMatrix</code> object with the input row
+	 */
+	@Override
+	public FloatMatrix eye(int row) {
+		FloatMatrix eye = new FloatMatrix(row, row);
+		for (int i = 0; i < row; i++) // Set elements on the diagonal to one
+			eye.data[i * row + i] = 1.0f;
+
+		return eye;
+	}
+	/**
+	 * Construct a new <code>FloatMatrix</code> object copied from this
+	 */
+	@Override
+	public FloatMatrix getCopy() {
+		MatrixMetrics.temporary(getRow(), getColumn());
+		return new FloatMatrix(getRow(), getColumn(), data.clone());
+	}
+	/**
+	 * Add values in row2 multiplied by times to values in row1
+	 */
+	@Override
+	public FloatMatrix addRow(int row1, int row2, Float times) {
+		checkRow(row1);
+		checkRow(row2);
+		markModified();
+		axpy(times, data, row2 * getColumn(), data, row1 * getColumn(), getColumn());
+		return this;
+	}
+	/**
+	 * Subtract values in row2 multiplied by times from values in row1
+	 */
+	@Override
+	public FloatMatrix subtractRow(int row1, int row2, Float times) {
+		checkRow(row1);
+		checkRow(row2);
+		markModified();
+		axpy(-times, data, row2 * getColumn(), data, row1 * getColumn(), getColumn());
+		return this;
+	}
+	/**
+	 * Multiply values in row by multiplicand
+	 */
+	@Override
+	public FloatMatrix multiplyRow(int row, Float multiplicand) {
+		checkRow(row);
+		markModified();
+		int offset = row * getColumn();
+		for (int j = offset; j < offset + getColumn(); j++)
+			data[j] *= multiplicand;
+		return this;
+	}
+	/**
+	 * Divide values in row by dividend
+	 */
+	@Override
+	public FloatMatrix divideRow(int row, Float dividend) {
+		checkRow(row);
+		markModified();
+		divide(dividend, data, row * getColumn(), getColumn());
+		return this;
+	}
+	/**
+	 * Commute two rows
+	 */
+	@Override
+	public FloatMatrix commuteRow(int row1, int row2) {
+		checkRow(row1);
+		checkRow(row2);
+		if (row1 == row2)
+			return this;
+		markModified();
+
+		swap(data, row1 * getColumn(), row2 * getColumn(), getColumn());
+		return this;
+	}
+	/**
+	 * Add another <code>GenericMatrix</code> to the current <code>FloatMatrix</code>
+	 */
+	@Override
+	public GenericMatrix<Float> add(GenericMatrix<Float> anotherMatrix) {
+		if (!(anotherMatrix instanceof FloatMatrix))
+			return super.add(anotherMatrix);
+		checkSameSize(anotherMatrix);
+
+		float[] other = ((FloatMatrix) anotherMatrix).data;
+		float[] result = new float[data.length];
+		int column = getColumn();
+		MatrixExecutor.forEachRowBlock(getRow(), column, (fromRow, toRow) -> {
+			for (int i = fromRow * column; i < toRow * column; i++)
+				result[i] = data[i] + other[i];
+		});
+
+		return new FloatMatrix(getRow(), getColumn(), result);
+	}
+	/**
+	 * Add another <code>GenericMatrix</code> to the current <code>FloatMatrix</code> in place
+	 */
+	@Override
+	public GenericMatrix<Float> addEquals(GenericMatrix<Float> anotherMatrix) {
+		if (!(anotherMatrix instanceof FloatMatrix))
+			return super.addEquals(anotherMatrix);
+		checkSameSize(anotherMatrix);
+		markModified();
+
+		float[] other = ((FloatMatrix) anotherMatrix).data;
+		int column = getColumn();
+		MatrixExecutor.forEachRowBlock(getRow(), column, (fromRow, toRow) -> {
+			for (int i = fromRow * column; i < toRow * column; i++)
+				data[i] += other[i];
+		});
+
+		return this;
+	}
+	/**
+	 * Subtract another <code>GenericMatrix</code> from the current <code>FloatMatrix</code>
+	 */
+	@Override
+	public GenericMatrix<Float> subtract(GenericMatrix<Float> anotherMatrix) {
+		if (!(anotherMatrix instanceof FloatMatrix))
+			return super.subtract(anotherMatrix);
+		checkSameSize(anotherMatrix);
+
+		float[] other = ((FloatMatrix) anotherMatrix).data;
+		float[] result = new float[data.length];
+		int column = getColumn();
+		MatrixExecutor.forEachRowBlock(getRow(), column, (fromRow, toRow) -> {
+			for (int i = fromRow * column; i < toRow * column; i++)
+				result[i] = data[i] - other[i];
+		});
+
+		return new FloatMatrix(getRow(), getColumn(), result);
+	}
+	/**
+	 * Subtract another <code>GenericMatrix</code> from the current <code>FloatMatrix</code> in place
+	 */
+	@Override
+	public GenericMatrix<Float> subtractEquals(GenericMatrix<Float> anotherMatrix) {
+		if (!(anotherMatrix instanceof FloatMatrix))
+			return super.subtractEquals(anotherMatrix);
+		checkSameSize(anotherMatrix);
+		markModified();
+
+		float[] other = ((FloatMatrix) anotherMatrix).data;
+		int column = getColumn();
+		MatrixExecutor.forEachRowBlock(getRow(), column, (fromRow, toRow) -> {
+			for (int i = fromRow * column; i < toRow * column; i++)
+				data[i] -= other[i];
+		});
+
+		return this;
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>FloatMatrix</code>
+	 */
+	@Override
+	public GenericMatrix<Float> multiply(GenericMatrix<Float> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			if (!(anotherMatrix instanceof FloatMatrix))
+				return super.multiply(anotherMatrix);
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			FloatMatrix other = (FloatMatrix) anotherMatrix;
+			return new FloatMatrix(getRow(), other.getColumn(), BlockMultiplier.multiply(data, other.data,
+					getRow(), getColumn(), other.getColumn()));
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>FloatMatrix</code> in place
+	 */
+	@Override
+	public GenericMatrix<Float> multiplyEquals(GenericMatrix<Float> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			if (!(anotherMatrix instanceof FloatMatrix))
+				return super.multiplyEquals(anotherMatrix);
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+			markModified();
+
+			FloatMatrix other = (FloatMatrix) anotherMatrix;
+			data = BlockMultiplier.multiply(data, other.data, getRow(), getColumn(), other.getColumn());
+			setColumn(other.getColumn());
+
+			return this;
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Transpose the current <code>FloatMatrix</code>
+	 */
+	@Override
+	public FloatMatrix transpose() {
+		int row = getRow();
+		int column = getColumn();
+		float[] transpose = new float[data.length];
+		for (int i = 0; i < row; i++)
+			for (int j = 0; j < column; j++)
+				transpose[j * row + i] = data[i * column + j];
+
+		return new FloatMatrix(column, row, transpose);
+	}
+	/**
+	 * Get the determinant of the current <code>FloatMatrix</code> by LU decomposition
+	 * with partial pivoting
+	 */
+	@Override
+	public Float getDeterminant() {
+		// Check bounds of the matrix
+		if (getRow() != getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		return cached(MatrixCache.Result.DETERMINANT, () -> {
+			int n = getRow();
+			float[] lu = data.clone();
+			int swaps = decompose(lu, n, new int[n]);
+			if (swaps < 0)
+				return 0.0f;
+
+			float determinant = swaps % 2 == 0 ? 1.0f : -1.0f;
+			for (int i = 0; i < n; i++)
+				determinant *= lu[i * n + i];
+			return determinant;
+		});
+	}
+	/**
+	 * Solve this * X = rhs for X by LU decomposition with partial pivoting and substitution
+	 * on primitive arrays
+	 */
+	@Override
+	public FloatMatrix solve(GenericMatrix<Float> rhs) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.SOLVE, this);
+		try {
+			// Check bounds of the two matrices
+			if (getRow() != getColumn() || getRow() != rhs.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			int n = getRow();
+			int p = rhs.getColumn();
+			float[] lu = data.clone();
+			int[] pivot = new int[n];
+			if (decompose(lu, n, pivot) < 0)
+				throw new RuntimeException("The matrix is not an non-singular matrix.");
+
+			float[] x = rhs instanceof FloatMatrix ? ((FloatMatrix) rhs).data : new FloatMatrix(rhs.getMatrix()).data;
+			x = permute(x, pivot, p);
+			substitute(lu, n, x, p);
+			return new FloatMatrix(n, p, x);
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Factor a square row-major array in place into L * U by Gaussian elimination with partial pivoting,
+	 * storing the multipliers of L below the diagonal and U on and above it
+	 * @param a the n * n array
+	 * @param n the number of rows of a
+	 * @param pivot the row permutation on return, pivot[i] is the original index of the i-th row
+	 * @return the number of row swaps, -1 if a pivot is zero in which case the elimination stops
+	 */
+	static int decompose(float[] a, int n, int[] pivot) {
+		int swaps = 0;
+		for (int i = 0; i < n; i++)
+			pivot[i] = i;
+
+		for (int i = 0; i < n; i++) {
+			int currentRow = i; // The row where the max absolute value is
+			for (int k = i + 1; k < n; k++)
+				if (Math.abs(a[k * n + i]) > Math.abs(a[currentRow * n + i]))
+					currentRow = k;
+			if (a[currentRow * n + i] == 0.0f)
+				return -1;
+			if (currentRow != i) {
+				swap(a, i * n, currentRow * n, n);
+				int index = pivot[i];
+				pivot[i] = pivot[currentRow];
+				pivot[currentRow] = index;
+				swaps++;
+			}
+			MatrixMetrics.pivot(currentRow != i);
+
+			float pivotValue = a[i * n + i];
+			// Turn elements below the diagonal to zero, keeping the multipliers in their place
+			int pivotRow = i;
+			MatrixExecutor.forEachRowBlock(n - i - 1, n - i, (fromRow, toRow) -> {
+				for (int k = pivotRow + 1 + fromRow; k < pivotRow + 1 + toRow; k++) {
+					float times = a[k * n + pivotRow] / pivotValue;
+					a[k * n + pivotRow] = times;
+					if (times != 0.0f)
+						axpy(-times, a, pivotRow * n + pivotRow + 1, a, k * n + pivotRow + 1, n - pivotRow - 1);
+				}
+			});
+		}
+
+		return swaps;
+	}
+	/**
+	 * Solve L * U * X = B in place, where B has been permuted by the pivots of <code>decompose</code>
+	 * @param lu the n * n factors returned by <code>decompose</code>
+	 * @param n the number of rows of lu
+	 * @param x the n * p right-hand sides on entry, the solutions on return
+	 * @param p the number of columns of x
+	 */
+	static void substitute(float[] lu, int n, float[] x, int p) {
+		// Forward substitution with the unit lower triangle
+		for (int i = 1; i < n; i++)
+			for (int k = 0; k < i; k++) {
+				float times = lu[i * n + k];
+				if (times != 0.0f)
+					axpy(-times, x, k * p, x, i * p, p);
+			}
+		// Back substitution with the upper triangle
+		for (int i = n - 1; i >= 0; i--) {
+			for (int k = i + 1; k < n; k++) {
+				float times = lu[i * n + k];
+				if (times != 0.0f)
+					axpy(-times, x, k * p, x, i * p, p);
+			}
+			divide(lu[i * n + i], x, i * p, p);
+		}
+	}
+	/**
+	 * Reorder the rows of right-hand sides by the pivots of <code>decompose</code>
+	 * @param x the n * p right-hand sides, which are not modified
+	 * @param pivot the row permutation
+	 * @param p the number of columns of x
+	 * @return a new array whose i-th row is the pivot[i]-th row of x
+	 */
+	static float[] permute(float[] x, int[] pivot, int p) {
+		float[] permuted = new float[x.length];
+		for (int i = 0; i < pivot.length; i++)
+			System.arraycopy(x, pivot[i] * p, permuted, i * p, p);
+		return permuted;
+	}
+	/**
+	 * Get the inversion of the current <code>FloatMatrix</code> by Gauss-Jordan elimination
+	 * with partial pivoting
+	 */
+	@Override
+	public FloatMatrix inverse() {
+		// Check bounds of the two matrices
+		if (getRow() != getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		return cached(MatrixCache.Result.INVERSE, this::invert).getCopy();
+	}
+	/**
+	 * Invert the current <code>FloatMatrix</code> by Gauss-Jordan elimination with partial pivoting
+	 */
+	private FloatMatrix invert() {
+		int n = getRow();
+		FloatMatrix temp = getCopy();
+		FloatMatrix inversion = eye(n);
+		float[] a = temp.data;
+
+		for (int i = 0; i < n; i++) {
+			int currentRow = i; // The row where the max absolute value is
+			for (int k = i + 1; k < n; k++)
+				if (Math.abs(a[k * n + i]) > Math.abs(a[currentRow * n + i]))
+					currentRow = k;
+			if (a[currentRow * n + i] == 0.0f)
+				throw new RuntimeException("The matrix is not an non-singular matrix.");
+
+			MatrixMetrics.pivot(currentRow != i);
+			temp.commuteRow(i, currentRow);
+			inversion.commuteRow(i, currentRow);
+			float pivot = a[i * n + i];
+			temp.divideRow(i, pivot);
+			inversion.divideRow(i, pivot);
+			// Turn the other elements of the column to zero
+			for (int k = 0; k < n; k++) {
+				float times = a[k * n + i];
+				if (k != i && times != 0.0f) {
+					axpy(-times, a, i * n, a, k * n, n);
+					axpy(-times, inversion.data, i * n, inversion.data, k * n, n);
+				}
+			}
+		}
+
+		return inversion;
+	}
+	/**
+	 * Get the row echelon form of the current <code>FloatMatrix</code> by Gaussian elimination
+	 * with partial pivoting, skipping the columns without a pivot, with every pivot turned to one
+	 */
+	@Override
+	public FloatMatrix getUpperTriangularMatrix() {
+		int row = getRow();
+		int column = getColumn();
+		FloatMatrix upper = getCopy();
+		float[] a = upper.data;
+		int r = 0; // The row of the next pivot
+
+		for (int c = 0; c < column && r < row; c++) {
+			int currentRow = r; // The row where the max absolute value is
+			for (int k = r + 1; k < row; k++)
+				if (Math.abs(a[k * column + c]) > Math.abs(a[currentRow * column + c]))
+					currentRow = k;
+			if (a[currentRow * column + c] == 0.0f) // No pivot in this column
+				continue;
+			MatrixMetrics.pivot(currentRow != r);
+			upper.commuteRow(r, currentRow);
+
+			float pivot = a[r * column + c];
+			int pivotRow = r;
+			int pivotColumn = c;
+			MatrixExecutor.forEachRowBlock(row - r - 1, column - c, (fromRow, toRow) -> {
+				for (int k = pivotRow + 1 + fromRow; k < pivotRow + 1 + toRow; k++) {
+					float times = a[k * column + pivotColumn] / pivot;
+					a[k * column + pivotColumn] = 0.0f;
+					if (times != 0.0f)
+						axpy(-times, a, pivotRow * column + pivotColumn + 1,
+								a, k * column + pivotColumn + 1, column - pivotColumn - 1);
+				}
+			});
+			divide(pivot, a, r * column + c, column - c);
+			r++;
+		}
+
+		return upper;
+	}
+	/**
+	 * y[yOffset..yOffset+length) += alpha * x[xOffset..xOffset+length)
+	 */
+	private static void axpy(float alpha, float[] x, int xOffset, float[] y, int yOffset, int length) {
+		for (int i = 0; i < length; i++)
+			y[yOffset + i] += alpha * x[xOffset + i];
+	}
+	/**
+	 * x[offset..offset+length) /= divisor
+	 */
+	private static void divide(float divisor, float[] x, int offset, int length) {
+		for (int i = offset; i < offset + length; i++)
+			x[i] /= divisor;
+	}
+	/**
+	 * Swap two ranges of an array
+	 * @param array
+	 * @param offset1 the start of the first range
+	 * @param offset2 the start of the second range
+	 * @param length the length of the ranges
+	 */
+	private static void swap(float[] array, int offset1, int offset2, int length) {
+		for (int i = 0; i < length; i++) {
+			float temp = array[offset1 + i];
+			array[offset1 + i] = array[offset2 + i];
+			array[offset2 + i] = temp;
+		}
+	}
+	/**
+	 * Check if the row index is valid
+	 * @param row the row index
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= getRow())
+			throw new NullPointerException("Invalid input!");
+	}
+	/**
+	 * Check if another <code>GenericMatrix</code> has the same size with this
+	 * @param anotherMatrix
+	 */
+	private void checkSameSize(GenericMatrix<Float> anotherMatrix) {
+		if (getRow() != anotherMatrix.getRow() || getColumn() != anotherMatrix.getColumn())
+			throw new RuntimeException("The matrices do not have the same size.");
+	}
+
+}
@@ -1,5 +1,7 @@
 package matrix;
 
+import java.util.function.Supplier;
+
 public abstract class GenericMatrix<E extends Number> {
 	/**
 	 * The matrix of the <code>GenericMatrix</code>
@@ -13,6 +15,18 @@ public abstract class GenericMatrix<E extends Number> {
 	 * The number of columns of the <code>GenericMatrix</code>
 	 */
 	private int column;
+	/**
+	 * The number of modifications of the <code>GenericMatrix</code>
+	 */
+	private long version;
+	/**
+	 * Where the results of the queries are kept
+	 */
+	private CachePolicy cachePolicy = CachePolicy.INSTANCE;
+	/**
+	 * The results of the queries at a version, null if none are kept
+	 */
+	private volatile MatrixCache.Results results;
 	
 	/**
 	 * Construct a new <code>GenericMatrix</code> object with default properties
@@ -29,6 +43,16 @@ public abstract class GenericMatrix<E extends Number> {
 		this.row = matrix.length;
 		this.column = matrix[0].length;
 	}
+	/**
+	 * Construct a new <code>GenericMatrix</code> object with the input row&column whose elements
+	 * are kept by the subclass rather than in an <code>E[][]</code>
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 */
+	protected GenericMatrix(int row, int column) {
+		this.row = row;
+		this.column = column;
+	}
 	/**
 	 * Get the matrix of the current <code>GenericMatrix</code>
 	 * @return the matrix
@@ -55,6 +79,7 @@ public abstract class GenericMatrix<E extends Number> {
 	 * @param matrix
 	 */
 	public void setMatrix(E[][] matrix) {
+		markModified();
 		this.matrix = matrix;
 	}
 	/**
@@ -62,6 +87,7 @@ public abstract class GenericMatrix<E extends Number> {
 	 * @param row the row of matrix
 	 */
 	public void setRow(int row) {
+		markModified();
 		this.row = row;
 	}
 	/**
@@ -69,6 +95,7 @@ public abstract class GenericMatrix<E extends Number> {
 	 * @param column the column of matrix
 	 */
 	public void setColumn(int column) {
+		markModified();
 		this.column = column;
 	}
 	/**
@@ -92,8 +119,68 @@ public abstract class GenericMatrix<E extends Number> {
 	public void setValue(int row, int column, E value) {
 		if (row < 0 || row >= this.row || column < 0 || column >= this.column)
 			throw new NullPointerException("Invalid input!");
-		else
+		else {
+			markModified();
 			this.matrix[row][column] = value;
+		}
+	}
+	/**
+	 * Get the number of modifications of the current <code>GenericMatrix</code>, which changes whenever
+	 * its elements or its size are set. Changes made through the array of <code>getMatrix</code> must be
+	 * followed by <code>setMatrix</code> to be counted
+	 * @return the version of the generic matrix
+	 */
+	public long getVersion() {
+		return version;
+	}
+	/**
+	 * Count a modification of the current <code>GenericMatrix</code>, discarding the results of the
+	 * queries. Subclasses call it whenever they change their elements
+	 */
+	protected void markModified() {
+		version++;
+		results = null;
+	}
+	/**
+	 * Get where the results of the rank, determinant, LU decomposition and inversion queries are kept
+	 * @return the cache policy, <code>CachePolicy.INSTANCE</code> by default
+	 */
+	public CachePolicy getCachePolicy() {
+		return cachePolicy;
+	}
+	/**
+	 * Set where the results of the rank, determinant, LU decomposition and inversion queries are kept
+	 * @param cachePolicy <code>CachePolicy.NONE</code> to compute them on every query
+	 */
+	public void setCachePolicy(CachePolicy cachePolicy) {
+		this.cachePolicy = cachePolicy;
+		results = null;
+	}
+	/**
+	 * Get the result of a query of the current version, computing it if it is not kept
+	 * @param result the query
+	 * @param computation computes the result from the elements
+	 * @return the result
+	 */
+	<T> T cached(MatrixCache.Result result, Supplier<T> computation) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(result.operation, this);
+		try {
+			return cachedResult(result, computation);
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	private <T> T cachedResult(MatrixCache.Result result, Supplier<T> computation) {
+		if (cachePolicy == CachePolicy.NONE)
+			return computation.get();
+
+		long version = getVersion();
+		MatrixCache.Results results = this.results;
+		if (results == null || results.version != version) {
+			results = cachePolicy == CachePolicy.SHARED ? MatrixCache.lookup(this, version) : new MatrixCache.Results(version);
+			this.results = results;
+		}
+		return results.get(result, computation);
 	}
 	/**
 	 * Abstract method for adding two elements of the matrices
@@ -166,6 +253,61 @@ public abstract class GenericMatrix<E extends Number> {
 	 * @return a new <code>GenericMatrix</code> copied from this
 	 */
 	public abstract GenericMatrix<E> getCopy();
+	/**
+	 * Get a copy of the current <code>GenericMatrix</code> in the heap, for the algorithms which work on a copy
+	 * of the elements and drop it. Unlike the copy of <code>getCopy</code>, it never holds a file to be released
+	 * @return a new <code>GenericMatrix</code> copied from this
+	 */
+	GenericMatrix<E> getHeapCopy() {
+		return getCopy();
+	}
+	/**
+	 * Get the relative cost of one element operation, which decides when an operation is worth
+	 * splitting across threads
+	 * @return the cost of one element operation, 1 for primitive elements
+	 */
+	protected int getOperationCost() {
+		return 1;
+	}
+	/**
+	 * Check if the element operations are exact, so that regrouping sums does not change results
+	 * @return true if no rounding happens, false by default
+	 */
+	protected boolean isExact() {
+		return false;
+	}
+	/**
+	 * Check if the determinant, rank, inversion, adjoint and solve queries are answered exactly by
+	 * algorithms of the dense type itself, which sparse matrices and views must then use as well
+	 * @return true if the type has its own exact queries, false by default
+	 */
+	boolean hasExactQueries() {
+		return false;
+	}
+	/**
+	 * Multiply two element arrays into a third one, which is used by the matrix multiplication
+	 * @param a the left matrix
+	 * @param b the right matrix
+	 * @param c the result matrix, whose elements must be zero on entry
+	 */
+	protected void multiply(E[][] a, E[][] b, E[][] c) {
+		BlockMultiplier.multiply(this, a, b, c);
+	}
+	/**
+	 * Calculate the scalar product of a[fromIndex..toIndex) and the column of b over the same rows
+	 * @param a the row
+	 * @param b the matrix holding the column
+	 * @param column the column index in b
+	 * @param fromIndex the first index, inclusive
+	 * @param toIndex the last index, exclusive
+	 * @return the sum of a[k] * b[k][column]
+	 */
+	protected E dotProduct(E[] a, E[][] b, int column, int fromIndex, int toIndex) {
+		E sum = zero();
+		for (int k = fromIndex; k < toIndex; k++)
+			sum = add(sum, multiply(a[k], b[k][column]));
+		return sum;
+	}
 	/**
 	 * Add values in row1 and row2 of the current <code>GenericMatrix</code>
 	 * @param row1 the summand row index
@@ -244,11 +386,17 @@ public abstract class GenericMatrix<E extends Number> {
 			throw new RuntimeException("The matrices do not have the same size.");
 		
 		GenericMatrix<E> result = zeros(row, column);  // Create result matrix
+		E[][] a = getMatrix();
+		E[][] b = anotherMatrix.getMatrix();
+		E[][] sum = result.getMatrix();
 				
 		// Perform addition
-		for (int i = 0; i < row; i++)
-			for (int j = 0; j < column; j++)
-				result.setValue(i, j, add(getValue(i, j), anotherMatrix.getValue(i, j)));
+		MatrixExecutor.forEachRowBlock(row, (long) column * getOperationCost(), (fromRow, toRow) -> {
+			for (int i = fromRow; i < toRow; i++)
+				for (int j = 0; j < column; j++)
+					sum[i][j] = add(a[i][j], b[i][j]);
+		});
+		result.setMatrix(sum);
 		
 		return result;
 	}
@@ -262,10 +410,16 @@ public abstract class GenericMatrix<E extends Number> {
 		if (row != anotherMatrix.getRow() || column != anotherMatrix.getColumn())
 			throw new RuntimeException("The matrices do not have the same size.");
 		
+		E[][] a = getMatrix();
+		E[][] b = anotherMatrix.getMatrix();
+		
 		// Perform addition
-		for (int i = 0; i < row; i++)
-			for (int j = 0; j < anotherMatrix.getColumn(); j++)
-				setValue(i, j, add(getValue(i, j), anotherMatrix.getValue(i, j)));
+		MatrixExecutor.forEachRowBlock(row, (long) column * getOperationCost(), (fromRow, toRow) -> {
+			for (int i = fromRow; i < toRow; i++)
+				for (int j = 0; j < column; j++)
+					a[i][j] = add(a[i][j], b[i][j]);
+		});
+		setMatrix(a);
 		
 		return this;
 	}
@@ -280,11 +434,17 @@ public abstract class GenericMatrix<E extends Number> {
 			throw new RuntimeException("The matrices do not have the same size.");
 		
 		GenericMatrix<E> result = zeros(row, column);  // Create result matrix
+		E[][] a = getMatrix();
+		E[][] b = anotherMatrix.getMatrix();
+		E[][] difference = result.getMatrix();
 				
-		// Perform addition
-		for (int i = 0; i < row; i++)
-			for (int j = 0; j < column; j++)
-				result.setValue(i, j, subtract(getValue(i, j), anotherMatrix.getValue(i, j)));
+		// Perform subtraction
+		MatrixExecutor.forEachRowBlock(row, (long) column * getOperationCost(), (fromRow, toRow) -> {
+			for (int i = fromRow; i < toRow; i++)
+				for (int j = 0; j < column; j++)
+					difference[i][j] = subtract(a[i][j], b[i][j]);
+		});
+		result.setMatrix(difference);
 		
 		return result;
 	}
@@ -297,37 +457,49 @@ public abstract class GenericMatrix<E extends Number> {
 		// Check bounds of the two matrices
 		if (row != anotherMatrix.getRow() || column != anotherMatrix.getColumn())
 			throw new RuntimeException("The matrices do not have the same size.");
+		
+		E[][] a = getMatrix();
+		E[][] b = anotherMatrix.getMatrix();
 				
-		// Perform addition
-		for (int i = 0; i < column; i++)
-			for (int j = 0; j < anotherMatrix.getColumn(); j++)
-				setValue(i, j, subtract(getValue(i, j), anotherMatrix.getValue(i, j)));
+		// Perform subtraction
+		MatrixExecutor.forEachRowBlock(row, (long) column * getOperationCost(), (fromRow, toRow) -> {
+			for (int i = fromRow; i < toRow; i++)
+				for (int j = 0; j < column; j++)
+					a[i][j] = subtract(a[i][j], b[i][j]);
+		});
+		setMatrix(a);
 				
 		return this;
 	}
 	/**
-	 * Multiply another <code>GenericMatrix</code> to the current <code>GenericMatrix</code>
+	 * Multiply another <code>GenericMatrix</code> to the current <code>GenericMatrix</code>,
+	 * choosing the algorithm by the size and the element type
 	 * @param anotherMatrix
 	 * @return a new <code>GenericMatrix</code> which has been multiplied
 	 */
 	public GenericMatrix<E> multiply(GenericMatrix<E> anotherMatrix) {
-		// Check bounds of the two matrices
-		if (getColumn() != anotherMatrix.getRow())
-			throw new RuntimeException("The matrices do not have compatible size.");
+		return multiply(anotherMatrix, MultiplicationAlgorithm.AUTO);
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>GenericMatrix</code> by the input algorithm
+	 * @param anotherMatrix
+	 * @param algorithm the multiplication algorithm
+	 * @return a new <code>GenericMatrix</code> which has been multiplied
+	 */
+	public GenericMatrix<E> multiply(GenericMatrix<E> anotherMatrix, MultiplicationAlgorithm algorithm) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
 		
-		GenericMatrix<E> result = zeros(row, anotherMatrix.getColumn()); // Create result matrix
+			GenericMatrix<E> result = zeros(row, anotherMatrix.getColumn()); // Create result matrix
+			result.setMatrix(product(anotherMatrix, algorithm));
 		
-		// Perform scalar product
-		for (int i = 0; i < row; i++) {
-			for (int j = 0; j < anotherMatrix.getColumn(); j++) {
-				for (int k = 0; k < column; k++) {
-					result.setValue(i, j, add(result.getValue(i, j), multiply(
-							getValue(i, k), anotherMatrix.getValue(k, j))));
-				}
-			}
+			return result;
+		} finally {
+			MatrixMetrics.end(span);
 		}
-		
-		return result;
 	}
 	/**
 	 * Multiply another <code>GenericMatrix</code> to the current <code>GenericMatrix</code>
@@ -335,22 +507,36 @@ public abstract class GenericMatrix<E extends Number> {
 	 * @return this which has been multiplied
 	 */
 	public GenericMatrix<E> multiplyEquals(GenericMatrix<E> anotherMatrix) {
-		// Check bounds of the two matrices
-		if (column != anotherMatrix.getRow())
-			throw new RuntimeException("The matrices do not have compatible size.");
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			// Check bounds of the two matrices
+			if (column != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
 		
-		// Perform scalar product
-		for (int i = 0; i < row; i++) {
-			for (int j = 0; j < anotherMatrix.getColumn(); j++) {
-				setValue(i, j, zero());
-					
-				for (int k = 0; k <column; k++) {
-					setValue(i, j, add(getValue(i, j), multiply(getValue(i, k), anotherMatrix.getValue(k, j))));
-				}
-			}
+			// Multiply into a temporary, since every row of this is read while it is written
+			setMatrix(product(anotherMatrix, MultiplicationAlgorithm.AUTO));
+			column = anotherMatrix.getColumn();
+		
+			return this;
+		} finally {
+			MatrixMetrics.end(span);
 		}
+	}
+	/**
+	 * Multiply the elements of two matrices of compatible size
+	 * @param anotherMatrix the right matrix
+	 * @param algorithm the multiplication algorithm
+	 * @return a new element array of the product
+	 */
+	private E[][] product(GenericMatrix<E> anotherMatrix, MultiplicationAlgorithm algorithm) {
+		int p = anotherMatrix.getColumn();
+		if (StrassenMultiplier.isSelected(this, algorithm, row, column, p))
+			return StrassenMultiplier.multiply(this, getMatrix(), anotherMatrix.getMatrix(), p);
 		
-		return this;
+		// Perform scalar product tile by tile
+		E[][] product = zeros(row, p).getMatrix();
+		multiply(getMatrix(), anotherMatrix.getMatrix(), product);
+		return product;
 	}
 	/**
 	 * Get the complement minor of the current <code>GenericMatrix</code>
@@ -376,36 +562,182 @@ public abstract class GenericMatrix<E extends Number> {
 		return complementMinor;
 	}
 	/**
-	 * Get the adjoint matrix of the current <code>GenericMatrix</code>
+	 * Get the complement minor of the current <code>GenericMatrix</code> as a view, which is not copied
+	 * @param row the row index
+	 * @param column the column index
+	 * @return the view of the complement minor of the matrix
+	 */
+	public GenericMatrix<E> getComplementMinorView(int row, int column) {
+		return MatrixView.complementMinor(this, row, column);
+	}
+	/**
+	 * Get the rows [fromRow, toRow) and columns [fromColumn, toColumn) of the current
+	 * <code>GenericMatrix</code> as a view, which is not copied
+	 * @param fromRow the first row, inclusive
+	 * @param toRow the last row, exclusive
+	 * @param fromColumn the first column, inclusive
+	 * @param toColumn the last column, exclusive
+	 * @return the view of the block
+	 */
+	public GenericMatrix<E> getSubmatrixView(int fromRow, int toRow, int fromColumn, int toColumn) {
+		return MatrixView.submatrix(this, fromRow, toRow, fromColumn, toColumn);
+	}
+	/**
+	 * Get a row of the current <code>GenericMatrix</code> as a 1 x column view
+	 * @param row the row index
+	 * @return the view of the row
+	 */
+	public GenericMatrix<E> getRowView(int row) {
+		return MatrixView.submatrix(this, row, row + 1, 0, column);
+	}
+	/**
+	 * Get a column of the current <code>GenericMatrix</code> as a row x 1 view
+	 * @param column the column index
+	 * @return the view of the column
+	 */
+	public GenericMatrix<E> getColumnView(int column) {
+		return MatrixView.submatrix(this, 0, row, column, column + 1);
+	}
+	/**
+	 * Get the adjoint matrix of the current <code>GenericMatrix</code> from a single Gauss-Jordan
+	 * elimination, in O(n^3) element operations
 	 * @return the adjoint matrix of the current generic matrix
 	 */
 	public GenericMatrix<E> getAdjointMatrix() {
-		GenericMatrix<E> adjointMatrix = zeros(row, column);
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.ADJOINT, this);
+		try {
+			// Check bounds of the matrix
+			if (row != column)
+				throw new RuntimeException("The matrices do not have compatible size.");
 		
-		for (int i = 0; i < row; i++)
-			for (int j = 0; j < column; j++)
-				adjointMatrix.setValue(j, i, getComplementMinor(i, j).getDeterminant());
+			int n = row;
+			E zero = zero();
+			E[][] reduced = getHeapCopy().getMatrix(); // R, the reduced row echelon form of this
+			E[][] transform = eye(n).getMatrix(); // T, which satisfies T * this = R
+			E determinant = powOfMinusOne(0); // (-1)^swaps times the product of the pivots
+			int freeColumn = -1; // The last column without a pivot
+			int r = 0; // The row of the next pivot
 		
-		return adjointMatrix;
+			for (int c = 0; c < n; c++) {
+				int currentRow = r; // The row where the max absolute value is
+				for (int k = r + 1; k < n; k++)
+					if (compare(abs(reduced[k][c]), abs(reduced[currentRow][c])) > 0)
+						currentRow = k;
+				if (compare(reduced[currentRow][c], zero) == 0) {
+					freeColumn = c;
+					continue;
+				}
+				if (currentRow != r) {
+					swapRows(reduced, r, currentRow);
+					swapRows(transform, r, currentRow);
+					determinant = multiply(determinant, powOfMinusOne(1));
+				}
+				MatrixMetrics.pivot(currentRow != r);
+			
+				E pivot = reduced[r][c];
+				determinant = multiply(determinant, pivot);
+				for (int j = 0; j < n; j++) {
+					reduced[r][j] = divide(reduced[r][j], pivot);
+					transform[r][j] = divide(transform[r][j], pivot);
+				}
+				// Turn the other elements of the column to zero
+				for (int k = 0; k < n; k++) {
+					E times = reduced[k][c];
+					if (k == r || compare(times, zero) == 0)
+						continue;
+					for (int j = 0; j < n; j++) {
+						reduced[k][j] = subtract(reduced[k][j], multiply(times, reduced[r][j]));
+						transform[k][j] = subtract(transform[k][j], multiply(times, transform[r][j]));
+					}
+				}
+				r++;
+			}
+		
+			GenericMatrix<E> adjointMatrix = zeros(n, n);
+			E[][] adjoint = adjointMatrix.getMatrix();
+			if (r == n) { // Non-singular: adj(A) = det(A) * A^-1, and T = A^-1
+				for (int i = 0; i < n; i++)
+					for (int j = 0; j < n; j++)
+						adjoint[i][j] = multiply(determinant, transform[i][j]);
+			}
+			else if (r == n - 1) {
+				// adj(A) = alpha * x * y^T, where A * x = 0 and y^T * A = 0.
+				// x is read from R with x[freeColumn] = 1, y^T is the zero row of R's row in T.
+				// By the determinant lemma on A + T^-1 * e_n * e_free^T, alpha = (-1)^(n-1-free) * det
+				E[] x = zeros(1, n).getMatrix()[0];
+				x[freeColumn] = powOfMinusOne(0);
+				for (int k = 0, c = 0; k < n - 1; k++, c++) {
+					if (c == freeColumn)
+						c++;
+					x[c] = subtract(zero, reduced[k][freeColumn]);
+				}
+				E[] y = transform[n - 1];
+				E alpha = multiply(determinant, powOfMinusOne(n - 1 - freeColumn));
+				for (int i = 0; i < n; i++) {
+					E times = multiply(alpha, x[i]);
+					for (int j = 0; j < n; j++)
+						adjoint[i][j] = multiply(times, y[j]);
+				}
+			}
+			// Otherwise every minor of order n - 1 is zero, and so is adj(A)
+			adjointMatrix.setMatrix(adjoint);
+		
+			return adjointMatrix;
+		} finally {
+			MatrixMetrics.end(span);
+		}
 	}
 	/**
-	 * Get the determinant of the current <code>GenericMatrix</code> by tail recursion
+	 * Swap two rows of a matrix by swapping references
+	 * @param matrix
+	 * @param row1
+	 * @param row2
+	 */
+	private static <E> void swapRows(E[][] matrix, int row1, int row2) {
+		E[] temp = matrix[row1];
+		matrix[row1] = matrix[row2];
+		matrix[row2] = temp;
+	}
+	/**
+	 * Get the determinant of the current <code>GenericMatrix</code> by LU decomposition
+	 * with partial pivoting, in O(n^3) element operations
 	 * @return the determinant of the current <code>GenericMatrix</code>
 	 */
 	public E getDeterminant() {
-		E result = zero();
-		
-		if (row > 2)
-			for (int i = 0; i < column; i++)
-				result = add(result, multiply(multiply(
-						getValue(0, i), getComplementMinor(0, i).getDeterminant()), powOfMinusOne(i)));
-		else if (row == 2)
-			result = subtract(multiply(getValue(0, 0),getValue(1, 1)), 
-					multiply(getValue(0, 1), getValue(1, 0)));
-		else
-			result = getValue(0, 0);
+		return cached(MatrixCache.Result.DETERMINANT, () -> getLUDecomposition().getDeterminant());
+	}
+	/**
+	 * Get the determinant of the current <code>GenericMatrix</code> by cofactor expansion along
+	 * the first row. It takes O(n!) element operations and is only meant for very small matrices
+	 * @return the determinant of the current <code>GenericMatrix</code>
+	 */
+	public E getCofactorDeterminant() {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.COFACTOR_DETERMINANT, this);
+		try {
+			E result = zero();
 		
-		return result;
+			if (row > 2)
+				for (int i = 0; i < column; i++)
+					result = add(result, multiply(multiply(
+							getValue(0, i), getComplementMinorView(0, i).getCofactorDeterminant()), powOfMinusOne(i)));
+			else if (row == 2)
+				result = subtract(multiply(getValue(0, 0),getValue(1, 1)), 
+						multiply(getValue(0, 1), getValue(1, 0)));
+			else
+				result = getValue(0, 0);
+		
+			return result;
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Get a lazily evaluated expression of the current <code>GenericMatrix</code>, so that chained
+	 * operations are evaluated in one pass without temporary matrices
+	 * @return the expression of the matrix
+	 */
+	public MatrixExpression<E> lazy() {
+		return MatrixExpression.of(this);
 	}
 	/**
 	 * Transpose the current <code>GenericMatrix</code>
@@ -427,35 +759,46 @@ public abstract class GenericMatrix<E extends Number> {
 		
 		return transpose;
 	}
+	/**
+	 * Get the transposition of the current <code>GenericMatrix</code> as a view, which is not copied
+	 * @return the view of the transposition of the matrix
+	 */
+	public GenericMatrix<E> transposeView() {
+		return MatrixView.transpose(this);
+	}
+	/**
+	 * Get the LU decomposition of the current <code>GenericMatrix</code>, which answers
+	 * determinant, rank, inverse and linear system queries without eliminating again
+	 * @return the LU decomposition of the current generic matrix
+	 * @warn if the <code>GenericMatrix</code> is specified by integer, it may lose precision!
+	 */
+	public LUDecomposition<E> getLUDecomposition() {
+		return cached(MatrixCache.Result.LU_DECOMPOSITION, () -> new LUDecomposition<>(this));
+	}
+	/**
+	 * Get the inversion and the determinant of the current <code>GenericMatrix</code> as an
+	 * <code>UpdatableInverse</code>, which applies later low-rank changes without eliminating again
+	 * @return the updatable inversion of a copy of the current generic matrix
+	 */
+	public UpdatableInverse<E> getUpdatableInverse() {
+		return new UpdatableInverse<>(this);
+	}
 	/**
 	 * Get the upper triangular matrix of the current <code>GenericMatrix</code>
-	 * @return the upper triangular matrix of the current generic matrix
+	 * @return the upper triangular matrix of the current generic matrix, whose nonzero rows
+	 * are divided by their pivots
 	 * @warn if the <code>GenericMatrix</code> is specified by integer, it may lose precision!
 	 */
 	public GenericMatrix<E> getUpperTriangularMatrix() {
-		// Copy this to temporary to keep this from modifying
-		GenericMatrix<E> upperTriangularMatrix = getCopy();
+		GenericMatrix<E> upperTriangularMatrix = getLUDecomposition().getUpperTriangularMatrix();
+		E zero = zero();
 		
 		for (int i = 0; i < row; i++) {
-			E max = getValue(i, i);
-			int currentRow = i; // The row where max is
-			for (int k = 1; k < row - i; k++) {
-				// If absolute value of an element in the same column is greater than what in current row,
-				if (compare(abs(upperTriangularMatrix.getValue(k, i)),abs(max)) > 0) {
-					max = getValue(k, i); // Update max
-					currentRow = k; // Update current row
-				}
-			}
-			upperTriangularMatrix.commuteRow(i, currentRow); // Commute the two rows
-			for (int j = 0; j <= i; j++) {
-				if (j < i) { // Turn elements that are not on the diagonal to zero
-					upperTriangularMatrix.subtractRow(i, j, upperTriangularMatrix.getValue(i, j));
-				}
-				else { // Turn elements on the diagonal to one
-					if (compare(upperTriangularMatrix.getValue(i, i), zero()) != 0)
-						upperTriangularMatrix.divideRow(i, upperTriangularMatrix.getValue(i, i));
-					else
-						return upperTriangularMatrix;
+			// Turn the first nonzero element of the row to one
+			for (int j = i; j < column; j++) {
+				if (compare(upperTriangularMatrix.getValue(i, j), zero) != 0) {
+					upperTriangularMatrix.divideRow(i, upperTriangularMatrix.getValue(i, j));
+					break;
 				}
 			}
 		}
@@ -467,14 +810,7 @@ public abstract class GenericMatrix<E extends Number> {
 	 * @return the rank of the current generic matrix
 	 */
 	public int getRank() {
-		// Copy this to temporary to keep this from modifying
-		GenericMatrix<E> upperTriangularMatrix = getUpperTriangularMatrix();
-		
-		for (int i = 0; i < row; i++) // Find the first row whose element on the diagonal is zero
-			if (compare(upperTriangularMatrix.getValue(i, i), zero()) == 0)
-				return i;
-		
-		return Math.min(row, column);
+		return cached(MatrixCache.Result.RANK, () -> getLUDecomposition().getRank());
 	}
 	/**
 	 * Check if the rank of the current <code>GenericMatrix</code> is full
@@ -492,46 +828,27 @@ public abstract class GenericMatrix<E extends Number> {
 		// Check bounds of the two matrices
 		if (row != column)
 			throw new RuntimeException("The matrices do not have compatible size.");
-		// Check if rank of matrix is full
-		if (!isFullRank())
-			throw new RuntimeException("The matrix is not an non-singular matrix.");
 		
-		GenericMatrix<E> temp = getCopy();
-		GenericMatrix<E> inversion = eye(row); // Create identity matrix
+		// The same decomposition tells if rank of matrix is full
+		return cached(MatrixCache.Result.INVERSE, () -> getLUDecomposition().inverse()).getCopy();
+	}
+	/**
+	 * Solve the linear systems this * X = rhs for X without forming the inversion
+	 * @param rhs the right-hand sides, one per column
+	 * @return a new <code>GenericMatrix</code> X
+	 * @warn if the <code>GenericMatrix</code> is specified by integer, it may lose precision!
+	 */
+	public GenericMatrix<E> solve(GenericMatrix<E> rhs) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.SOLVE, this);
+		try {
+			// Check bounds of the two matrices
+			if (row != column || row != rhs.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
 		
-		//The initial matrix -> upper triangular matrix
-		for (int i = 0; i < row; i++) {
-			E max = temp.getValue(i, i);
-			int currentRow = i; // The row where max is
-			for (int k = 1; k < row - i; k++) {
-				// If element in the same column is greater than what in current row && the element is positive,
-				// commute the two rows
-				if (compare(abs(temp.getValue(k, i)),abs(max)) > 0) {
-					max = temp.getValue(k, i); // Update max
-					currentRow = k; // Update current row
-				}
-			}
-			temp.commuteRow(i, currentRow); 
-			for (int j = 0; j <= i; j++) {
-				if (j < i) {
-					inversion.subtractRow(i, j, temp.getValue(i, j));
-					temp.subtractRow(i, j, temp.getValue(i, j));
-				}
-				else {
-					inversion.divideRow(i, temp.getValue(i, i));
-					temp.divideRow(i, temp.getValue(i, i));
-				}
-			}
-		}
-		// upper triangular matrix -> identity matrix
-		for (int i = row - 2; i >= 0; i--) {
-			for (int j = column - 1; j > i; j--) {
-				inversion.subtractRow(i, j, temp.getValue(i, j));
-				temp.subtractRow(i, j, temp.getValue(i, j));
-			}
+			return getLUDecomposition().solve(rhs);
+		} finally {
+			MatrixMetrics.end(span);
 		}
-						
-		return inversion;
 	}
 	/**
 	 * Print the matrices, the operator, and their operation result
@@ -3,45 +3,166 @@ package matrix;
 import java.math.BigInteger;
 
 public class IntegerMatrix extends GenericMatrix<Integer> {
+	/**
+	 * The elements of the <code>IntegerMatrix</code> stored row by row in one contiguous array
+	 */
+	private int[] data;
+
 	/**
 	 * Construct a new <code>IntegerMatrix</code> object with default properties
 	 */
 	public IntegerMatrix() {
-		
+		this(0, 0);
 	}
 	/**
 	 * Construct a new <code>IntegerMatrix</code> object with the input matrix
 	 * @param matrix
 	 */
 	public IntegerMatrix(Integer[][] matrix) {
-		super(matrix);
+		this(matrix.length, matrix[0].length);
+		setMatrix(matrix);
+	}
+	/**
+	 * Construct a new <code>IntegerMatrix</code> object with the input primitive matrix
+	 * @param matrix
+	 */
+	public IntegerMatrix(int[][] matrix) {
+		this(matrix.length, matrix[0].length);
+		for (int i = 0; i < matrix.length; i++)
+			System.arraycopy(matrix[i], 0, data, i * getColumn(), getColumn());
+	}
+	/**
+	 * Construct a new <code>IntegerMatrix</code> object with the input row&column
+	 * whose elements are all zero
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 */
+	public IntegerMatrix(int row, int column) {
+		this(row, column, new int[row * column]);
+	}
+	/**
+	 * Construct a new <code>IntegerMatrix</code> object over the input row-major array without copying it
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @param data the elements stored row by row
+	 */
+	IntegerMatrix(int row, int column, int[] data) {
+		super(row, column);
+		if (data.length != row * column)
+			throw new RuntimeException("The data does not match the size of the matrix.");
+		this.data = data;
+	}
+	/**
+	 * Get the row-major array backing the current <code>IntegerMatrix</code>
+	 * @return the backing array, not a copy
+	 */
+	int[] getData() {
+		return data;
+	}
+	/**
+	 * Get the matrix of the current <code>IntegerMatrix</code> as boxed values
+	 * @return a new boxed copy of the matrix
+	 */
+	@Override
+	public Integer[][] getMatrix() {
+		Integer[][] matrix = new Integer[getRow()][getColumn()];
+		for (int i = 0; i < getRow(); i++)
+			for (int j = 0; j < getColumn(); j++)
+				matrix[i][j] = data[i * getColumn() + j];
+
+		return matrix;
+	}
+	/**
+	 * Set the value of current matrix to the passed matrix, resizing if needed
+	 * @param matrix
+	 */
+	@Override
+	public void setMatrix(Integer[][] matrix) {
+		markModified();
+		int row = matrix.length;
+		int column = matrix[0].length;
+		if (data == null || data.length != row * column)
+			data = new int[row * column];
+		setRow(row);
+		setColumn(column);
+
+		for (int i = 0; i < row; i++)
+			for (int j = 0; j < column; j++)
+				data[i * column + j] = matrix[i][j];
+	}
+	/**
+	 * Get the value of matrix[row][column]
+	 */
+	@Override
+	public Integer getValue(int row, int column) {
+		return getInt(row, column);
+	}
+	/**
+	 * Set current value to the passed value in the matrix[row][column]
+	 */
+	@Override
+	public void setValue(int row, int column, Integer value) {
+		setInt(row, column, value);
+	}
+	/**
+	 * Get the primitive value of matrix[row][column]
+	 * @param row the row index of the matrix
+	 * @param column the column index of the matrix
+	 * @return the value of matrix[row][column]
+	 */
+	public int getInt(int row, int column) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		else
+			return data[row * getColumn() + column];
+	}
+	/**
+	 * Set current primitive value to the passed value in the matrix[row][column]
+	 * @param row the row index of the matrix
+	 * @param column the column index of the matrix
+	 * @param value the value of matrix[row][column]
+	 */
+	public void setInt(int row, int column, int value) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		else {
+			markModified();
+			data[row * getColumn() + column] = value;
+		}
 	}
 	/**
 	 * Add two specified integers
+	 * @throws ArithmeticException if the result overflows an int
 	 */
 	@Override
 	public Integer add(Integer o1, Integer o2) {
-		return o1 + o2;
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_ADDITIONS, 1);
+		return Math.addExact(o1, o2);
 	}
 	/**
 	 * Subtract o2 from o1
+	 * @throws ArithmeticException if the result overflows an int
 	 */
 	@Override
 	public Integer subtract(Integer o1, Integer o2) {
-		return o1 - o2;
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_SUBTRACTIONS, 1);
+		return Math.subtractExact(o1, o2);
 	}
 	/**
 	 * Multiply two specified integers
+	 * @throws ArithmeticException if the result overflows an int
 	 */
 	@Override
 	public Integer multiply(Integer o1, Integer o2) {
-		return o1 * o2;
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_MULTIPLICATIONS, 1);
+		return Math.multiplyExact(o1, o2);
 	}
 	/**
 	 * Divide o1 by o2
 	 */
 	@Override
 	public Integer divide(Integer o1, Integer o2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_DIVISIONS, 1);
 		return o1 / o2;
 	}
 	/**
@@ -80,45 +201,440 @@ public class IntegerMatrix extends GenericMatrix<Integer> {
 	 */
 	@Override
 	public IntegerMatrix zeros(int row, int column) {
-		Integer[][] zeros = new Integer[row][column];
-		for (int i = 0; i < row; i++)
-			for (int j = 0; j < column; j++)
-				zeros[i][j] = zero();
-		
-		return new IntegerMatrix(zeros);
+		MatrixMetrics.temporary(row, column);
+		return new IntegerMatrix(row, column);
 	}
 	/**
 	 * Construct a new specified identity <code>IntegerMatrix</code> object with the input row
 	 */
 	@Override
 	public IntegerMatrix eye(int row) {
-		Integer[][] eye = new Integer[row][row];
-		for (int i = 0; i < row; i++) {
-			for (int j = 0; j < row; j++) {
-				if (i == j) // Set elements on the diagonal to one
-					eye[i][i] = 1;
-				else // Set elements that are not on the diagonal to zero
-					eye[i][j] = zero();
+		IntegerMatrix eye = new IntegerMatrix(row, row);
+		for (int i = 0; i < row; i++) // Set elements on the diagonal to one
+			eye.data[i * row + i] = 1;
+
+		return eye;
+	}
+	/**
+	 * Add values in row2 multiplied by times to values in row1
+	 * @throws ArithmeticException if a result overflows an int, in which case the row is unchanged
+	 */
+	@Override
+	public IntegerMatrix addRow(int row1, int row2, Integer times) {
+		checkRow(row1);
+		checkRow(row2);
+		axpy(times, row2, row1);
+		return this;
+	}
+	/**
+	 * Subtract values in row2 multiplied by times from values in row1
+	 * @throws ArithmeticException if a result overflows an int, in which case the row is unchanged
+	 */
+	@Override
+	public IntegerMatrix subtractRow(int row1, int row2, Integer times) {
+		checkRow(row1);
+		checkRow(row2);
+		axpy(-(long) times, row2, row1);
+		return this;
+	}
+	/**
+	 * Multiply values in row by multiplicand
+	 * @throws ArithmeticException if a result overflows an int, in which case the row is unchanged
+	 */
+	@Override
+	public IntegerMatrix multiplyRow(int row, Integer multiplicand) {
+		checkRow(row);
+		long m = multiplicand;
+		int offset = row * getColumn();
+		int[] result = new int[getColumn()];
+		for (int i = 0; i < getColumn(); i++)
+			result[i] = Math.toIntExact(data[offset + i] * m);
+		markModified();
+		System.arraycopy(result, 0, data, offset, getColumn());
+		return this;
+	}
+	/**
+	 * Commute two rows
+	 */
+	@Override
+	public IntegerMatrix commuteRow(int row1, int row2) {
+		checkRow(row1);
+		checkRow(row2);
+		if (row1 == row2)
+			return this;
+		markModified();
+
+		int column = getColumn();
+		int[] temp = new int[column];
+		System.arraycopy(data, row1 * column, temp, 0, column);
+		System.arraycopy(data, row2 * column, data, row1 * column, column);
+		System.arraycopy(temp, 0, data, row2 * column, column);
+		return this;
+	}
+	/**
+	 * Add another <code>GenericMatrix</code> to the current <code>IntegerMatrix</code>
+	 * @throws ArithmeticException if an element of the sum overflows an int
+	 */
+	@Override
+	public IntegerMatrix add(GenericMatrix<Integer> anotherMatrix) {
+		return new IntegerMatrix(getRow(), getColumn(), toIntExact(sum(anotherMatrix, 1)));
+	}
+	/**
+	 * Add another <code>GenericMatrix</code> to the current <code>IntegerMatrix</code> in place
+	 * @throws ArithmeticException if an element of the sum overflows an int, in which case this is unchanged
+	 */
+	@Override
+	public IntegerMatrix addEquals(GenericMatrix<Integer> anotherMatrix) {
+		int[] sum = toIntExact(sum(anotherMatrix, 1));
+		markModified();
+		data = sum;
+		return this;
+	}
+	/**
+	 * Subtract another <code>GenericMatrix</code> from the current <code>IntegerMatrix</code>
+	 * @throws ArithmeticException if an element of the difference overflows an int
+	 */
+	@Override
+	public IntegerMatrix subtract(GenericMatrix<Integer> anotherMatrix) {
+		return new IntegerMatrix(getRow(), getColumn(), toIntExact(sum(anotherMatrix, -1)));
+	}
+	/**
+	 * Subtract another <code>GenericMatrix</code> from the current <code>IntegerMatrix</code> in place
+	 * @throws ArithmeticException if an element of the difference overflows an int, in which case this is unchanged
+	 */
+	@Override
+	public IntegerMatrix subtractEquals(GenericMatrix<Integer> anotherMatrix) {
+		int[] difference = toIntExact(sum(anotherMatrix, -1));
+		markModified();
+		data = difference;
+		return this;
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>IntegerMatrix</code>,
+	 * summing the scalar products in <code>long</code>
+	 * @throws ArithmeticException if an element of the product overflows an int
+	 */
+	@Override
+	public IntegerMatrix multiply(GenericMatrix<Integer> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			int[] product = toIntExact(BlockMultiplier.multiplyExact(data, toArray(anotherMatrix),
+					getRow(), getColumn(), anotherMatrix.getColumn()));
+			return new IntegerMatrix(getRow(), anotherMatrix.getColumn(), product);
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>IntegerMatrix</code>, always by the
+	 * classical kernel: the sums of Strassen-Winograd would overflow an int before the product does
+	 * @throws ArithmeticException if an element of the product overflows an int
+	 */
+	@Override
+	public IntegerMatrix multiply(GenericMatrix<Integer> anotherMatrix, MultiplicationAlgorithm algorithm) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			return multiply(anotherMatrix);
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>IntegerMatrix</code> in place,
+	 * summing the scalar products in <code>long</code>
+	 * @throws ArithmeticException if an element of the product overflows an int, in which case this is unchanged
+	 */
+	@Override
+	public IntegerMatrix multiplyEquals(GenericMatrix<Integer> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+			markModified();
+
+			data = toIntExact(BlockMultiplier.multiplyExact(data, toArray(anotherMatrix),
+					getRow(), getColumn(), anotherMatrix.getColumn()));
+			setColumn(anotherMatrix.getColumn());
+
+			return this;
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Add another <code>GenericMatrix</code> to the current <code>IntegerMatrix</code> exactly
+	 * @param anotherMatrix
+	 * @return a new <code>IntegerMatrix</code> if every element of the sum fits in an int,
+	 * a new <code>RationalMatrix</code> of integers otherwise
+	 */
+	public GenericMatrix<?> addExact(GenericMatrix<Integer> anotherMatrix) {
+		return promote(sum(anotherMatrix, 1), getRow(), getColumn());
+	}
+	/**
+	 * Subtract another <code>GenericMatrix</code> from the current <code>IntegerMatrix</code> exactly
+	 * @param anotherMatrix
+	 * @return a new <code>IntegerMatrix</code> if every element of the difference fits in an int,
+	 * a new <code>RationalMatrix</code> of integers otherwise
+	 */
+	public GenericMatrix<?> subtractExact(GenericMatrix<Integer> anotherMatrix) {
+		return promote(sum(anotherMatrix, -1), getRow(), getColumn());
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>IntegerMatrix</code> exactly
+	 * @param anotherMatrix
+	 * @return a new <code>IntegerMatrix</code> if every element of the product fits in an int,
+	 * a new <code>RationalMatrix</code> of integers otherwise
+	 */
+	public GenericMatrix<?> multiplyExact(GenericMatrix<Integer> anotherMatrix) {
+		// Check bounds of the two matrices
+		if (getColumn() != anotherMatrix.getRow())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		try {
+			return promote(BlockMultiplier.multiplyExact(data, toArray(anotherMatrix),
+					getRow(), getColumn(), anotherMatrix.getColumn()), getRow(), anotherMatrix.getColumn());
+		} catch (ArithmeticException ex) { // Overflow of 63 bits, multiply big integers
+			return toRationalMatrix(this).multiply(toRationalMatrix(anotherMatrix));
+		}
+	}
+	/**
+	 * Transpose the current <code>IntegerMatrix</code>
+	 */
+	@Override
+	public IntegerMatrix transpose() {
+		int row = getRow();
+		int column = getColumn();
+		int[] transpose = new int[data.length];
+		for (int i = 0; i < row; i++)
+			for (int j = 0; j < column; j++)
+				transpose[j * row + i] = data[i * column + j];
+
+		return new IntegerMatrix(column, row, transpose);
+	}
+	/**
+	 * Add or subtract another <code>GenericMatrix</code> element by element in <code>long</code>
+	 * @param anotherMatrix
+	 * @param sign 1 to add, -1 to subtract
+	 * @return the row-major sums, which cannot overflow a long
+	 */
+	private long[] sum(GenericMatrix<Integer> anotherMatrix, int sign) {
+		checkSameSize(anotherMatrix);
+
+		int[] other = toArray(anotherMatrix);
+		long[] result = new long[data.length];
+		int column = getColumn();
+		MatrixExecutor.forEachRowBlock(getRow(), column, (fromRow, toRow) -> {
+			for (int i = fromRow * column; i < toRow * column; i++)
+				result[i] = data[i] + (long) sign * other[i];
+		});
+		return result;
+	}
+	/**
+	 * Add values in the source row multiplied by times to the target row
+	 * @param times
+	 * @param source the source row index
+	 * @param target the target row index
+	 * @throws ArithmeticException if a result overflows an int, in which case the target row is unchanged
+	 */
+	private void axpy(long times, int source, int target) {
+		int column = getColumn();
+		int sourceOffset = source * column;
+		int targetOffset = target * column;
+		int[] result = new int[column];
+		for (int i = 0; i < column; i++) // |times * value| < 2^63, so only the narrowing can overflow
+			result[i] = Math.toIntExact(data[targetOffset + i] + times * data[sourceOffset + i]);
+		markModified();
+		System.arraycopy(result, 0, data, targetOffset, column);
+	}
+	/**
+	 * Narrow <code>long</code> elements to <code>int</code>
+	 * @param values
+	 * @return the narrowed elements
+	 * @throws ArithmeticException if any element overflows an int
+	 */
+	private static int[] toIntExact(long[] values) {
+		int[] result = new int[values.length];
+		for (int i = 0; i < values.length; i++)
+			result[i] = Math.toIntExact(values[i]);
+		return result;
+	}
+	/**
+	 * Wrap exact <code>long</code> elements in the narrowest matrix that holds them
+	 * @param values the elements stored row by row
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @return an <code>IntegerMatrix</code> if every element fits in an int, a <code>RationalMatrix</code> otherwise
+	 */
+	private static GenericMatrix<?> promote(long[] values, int row, int column) {
+		try {
+			return new IntegerMatrix(row, column, toIntExact(values));
+		} catch (ArithmeticException ex) {
+			Rational[][] temp = new Rational[row][column];
+			for (int i = 0; i < row; i++)
+				for (int j = 0; j < column; j++)
+					temp[i][j] = Rational.valueOf(values[i * column + j]);
+			return new RationalMatrix(temp);
+		}
+	}
+	/**
+	 * Copy a <code>GenericMatrix</code> to a <code>RationalMatrix</code> of integers
+	 * @param matrix
+	 * @return the exact copy
+	 */
+	private static RationalMatrix toRationalMatrix(GenericMatrix<Integer> matrix) {
+		Rational[][] temp = new Rational[matrix.getRow()][matrix.getColumn()];
+		for (int i = 0; i < matrix.getRow(); i++)
+			for (int j = 0; j < matrix.getColumn(); j++)
+				temp[i][j] = Rational.valueOf(matrix.getValue(i, j));
+		return new RationalMatrix(temp);
+	}
+	/**
+	 * Copy a <code>GenericMatrix</code> to a row-major <code>int</code> array
+	 * @param matrix
+	 * @return the unboxed elements stored row by row, the backing array for an <code>IntegerMatrix</code>
+	 */
+	private static int[] toArray(GenericMatrix<Integer> matrix) {
+		if (matrix instanceof IntegerMatrix)
+			return ((IntegerMatrix) matrix).data;
+
+		Integer[][] elements = matrix.getMatrix();
+		int column = matrix.getColumn();
+		int[] array = new int[matrix.getRow() * column];
+		for (int i = 0; i < matrix.getRow(); i++)
+			for (int j = 0; j < column; j++)
+				array[i * column + j] = elements[i][j];
+
+		return array;
+	}
+	/**
+	 * The queries are answered by elimination modulo several primes, not by the truncating generic one
+	 */
+	@Override
+	boolean hasExactQueries() {
+		return true;
+	}
+	/**
+	 * Get the determinant of the current <code>IntegerMatrix</code> by elimination modulo several primes
+	 */
+	@Override
+	public Integer getDeterminant() {
+		return getDeterminantExact().intValueExact();
+	}
+	/**
+	 * Get the determinant of the current <code>IntegerMatrix</code> exactly by elimination modulo several primes
+	 * @return the determinant, which may not fit in an int
+	 */
+	public BigInteger getDeterminantExact() {
+		return cached(MatrixCache.Result.DETERMINANT, () -> new ModularElimination(toLongMatrix(this)).getDeterminant());
+	}
+	/**
+	 * Get the rank of the current <code>IntegerMatrix</code> by elimination modulo several primes
+	 */
+	@Override
+	public int getRank() {
+		return cached(MatrixCache.Result.RANK, () -> new ModularElimination(toLongMatrix(this)).getRank());
+	}
+	/**
+	 * Solve the linear system by elimination modulo several primes
+	 * @param rhs the right-hand sides, one per column
+	 * @return a new <code>IntegerMatrix</code> which is the solution
+	 * @throws RuntimeException if the solution is not an integer matrix
+	 */
+	@Override
+	public IntegerMatrix solve(GenericMatrix<Integer> rhs) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.SOLVE, this);
+		try {
+			RationalMatrix solution = solveExact(rhs);
+			Integer[][] temp = new Integer[solution.getRow()][solution.getColumn()];
+			for (int i = 0; i < solution.getRow(); i++) {
+				for (int j = 0; j < solution.getColumn(); j++) {
+					Rational q = solution.getValue(i, j);
+					if (!q.getDenominator().equals(BigInteger.ONE))
+						throw new RuntimeException("The solution is not an integer matrix.");
+					temp[i][j] = q.getNumerator().intValueExact();
+				}
 			}
+		
+			return new IntegerMatrix(temp);
+		} finally {
+			MatrixMetrics.end(span);
 		}
+	}
+	/**
+	 * Solve the linear system exactly by elimination modulo several primes
+	 * @param rhs the right-hand sides, one per column
+	 * @return a new <code>RationalMatrix</code> which is the solution
+	 */
+	public RationalMatrix solveExact(GenericMatrix<Integer> rhs) {
+		// Check bounds of the two matrices
+		if (getRow() != getColumn() || getRow() != rhs.getRow())
+			throw new RuntimeException("The matrices do not have compatible size.");
 		
-		return new IntegerMatrix(eye);
+		return new ModularElimination(toLongMatrix(this)).solve(toLongMatrix(rhs));
 	}
 	/**
-	 * Get the rank of the current <code>IntegerMatrix</code>
+	 * Get the inversion of the current <code>IntegerMatrix</code> by elimination modulo several primes
+	 * @throws RuntimeException if the inversion is not an integer matrix
 	 */
 	@Override
-	public int getRank() {
-		// Dividing an integer by another integer may lose precision
-		Rational[][] temp = new Rational[getRow()][getColumn()];
+	public IntegerMatrix inverse() {
+		// Check bounds of the matrix
+		if (getRow() != getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
 		
-		for (int i = 0; i < getRow(); i++) {
-			for (int j = 0; j < getColumn(); j++) {
-				temp[i][j] = new Rational(new BigInteger(getValue(i, j) + ""), BigInteger.ONE);
-			}
+		return cached(MatrixCache.Result.INVERSE, () -> solve(eye(getRow()))).getCopy();
+	}
+	/**
+	 * Get the inversion of the current <code>IntegerMatrix</code> exactly by elimination modulo several primes
+	 * @return a new <code>RationalMatrix</code> which is the inversion
+	 */
+	public RationalMatrix inverseExact() {
+		return solveExact(eye(getRow()));
+	}
+	/**
+	 * Get the adjoint matrix of the current <code>IntegerMatrix</code> by exact rational elimination
+	 */
+	@Override
+	public IntegerMatrix getAdjointMatrix() {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.ADJOINT, this);
+		try {
+			// The elimination divides, so it runs on the elements as rationals
+			Rational[][] temp = new Rational[getRow()][getColumn()];
+			for (int i = 0; i < getRow(); i++)
+				for (int j = 0; j < getColumn(); j++)
+					temp[i][j] = Rational.valueOf(data[i * getColumn() + j]);
+		
+			// Every cofactor of an integer matrix is an integer
+			GenericMatrix<Rational> adjoint = new RationalMatrix(temp).getAdjointMatrix();
+			Integer[][] adjointMatrix = new Integer[getRow()][getColumn()];
+			for (int i = 0; i < getRow(); i++)
+				for (int j = 0; j < getColumn(); j++)
+					adjointMatrix[i][j] = adjoint.getValue(i, j).getNumerator().intValueExact();
+		
+			return new IntegerMatrix(adjointMatrix);
+		} finally {
+			MatrixMetrics.end(span);
 		}
+	}
+	/**
+	 * Copy a <code>GenericMatrix</code> to a <code>long</code> matrix
+	 * @param matrix
+	 * @return the widened matrix
+	 */
+	private static long[][] toLongMatrix(GenericMatrix<Integer> matrix) {
+		long[][] temp = new long[matrix.getRow()][matrix.getColumn()];
+		int[] array = toArray(matrix);
+		
+		for (int i = 0; i < matrix.getRow(); i++)
+			for (int j = 0; j < matrix.getColumn(); j++)
+				temp[i][j] = array[i * matrix.getColumn() + j];
 		
-		return new RationalMatrix(temp).getRank();
+		return temp;
 	}
 
 	/**
@@ -126,12 +642,24 @@ public class IntegerMatrix extends GenericMatrix<Integer> {
 	 */
 	@Override
 	public IntegerMatrix getCopy() {
-		Integer[][] copy = new Integer[getRow()][getColumn()];
-		for (int i = 0; i < getRow(); i++)
-			for (int j = 0; j < getColumn(); j++)
-				copy[i][j] = getValue(i, j);
-		
-		return new IntegerMatrix(copy);
+		MatrixMetrics.temporary(getRow(), getColumn());
+		return new IntegerMatrix(getRow(), getColumn(), data.clone());
+	}
+	/**
+	 * Check if the row index is valid
+	 * @param row the row index
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= getRow())
+			throw new NullPointerException("Invalid input!");
+	}
+	/**
+	 * Check if another <code>GenericMatrix</code> has the same size with this
+	 * @param anotherMatrix
+	 */
+	private void checkSameSize(GenericMatrix<Integer> anotherMatrix) {
+		if (getRow() != anotherMatrix.getRow() || getColumn() != anotherMatrix.getColumn())
+			throw new RuntimeException("The matrices do not have the same size.");
 	}
 
 }
@@ -0,0 +1,225 @@
+package matrix;
+
+public class LUDecomposition<E extends Number> {
+	/**
+	 * The matrix whose element operations are used
+	 */
+	private final GenericMatrix<E> ops;
+	/**
+	 * The packed factors: the multipliers of L below the pivots and U on and above them
+	 */
+	private final E[][] lu;
+	/**
+	 * The number of rows of the decomposed matrix
+	 */
+	private final int row;
+	/**
+	 * The number of columns of the decomposed matrix
+	 */
+	private final int column;
+	/**
+	 * The row permutation, pivot[i] is the original index of the i-th row of L * U
+	 */
+	private final int[] pivot;
+	/**
+	 * The column of the pivot of every nonzero row of U
+	 */
+	private final int[] pivotColumns;
+	/**
+	 * The number of row swaps
+	 */
+	private int swaps;
+	/**
+	 * The rank of the decomposed matrix
+	 */
+	private int rank;
+
+	/**
+	 * Decompose the input <code>GenericMatrix</code> into P * A = L * U by Gaussian elimination
+	 * with partial pivoting. Columns without a pivot are skipped, so any rectangular or singular
+	 * matrix can be decomposed
+	 * @param matrix the matrix, which is not modified
+	 * @warn if the <code>GenericMatrix</code> is specified by integer, it may lose precision!
+	 */
+	public LUDecomposition(GenericMatrix<E> matrix) {
+		this.ops = matrix;
+		this.lu = matrix.getHeapCopy().getMatrix();
+		this.row = matrix.getRow();
+		this.column = matrix.getColumn();
+		this.pivot = new int[row];
+		this.pivotColumns = new int[Math.min(row, column)];
+		for (int i = 0; i < row; i++)
+			pivot[i] = i;
+
+		decompose();
+	}
+	/**
+	 * Eliminate the packed matrix in place
+	 */
+	private void decompose() {
+		E zero = ops.zero();
+		int r = 0; // The row of the next pivot
+
+		for (int c = 0; c < column && r < row; c++) {
+			int currentRow = r; // The row where the max absolute value is
+			for (int k = r + 1; k < row; k++)
+				if (ops.compare(ops.abs(lu[k][c]), ops.abs(lu[currentRow][c])) > 0)
+					currentRow = k;
+			if (ops.compare(lu[currentRow][c], zero) == 0) // No pivot in this column
+				continue;
+			if (currentRow != r) {
+				E[] temp = lu[r];
+				lu[r] = lu[currentRow];
+				lu[currentRow] = temp;
+				int index = pivot[r];
+				pivot[r] = pivot[currentRow];
+				pivot[currentRow] = index;
+				swaps++;
+			}
+			MatrixMetrics.pivot(currentRow != r);
+
+			E[] pivotRow = lu[r];
+			E pivotValue = pivotRow[c];
+			int pivotColumn = c;
+			int nextRow = r + 1;
+			// Store the multipliers of L and update the rows below
+			MatrixExecutor.forEachRowBlock(row - nextRow, (long) (column - c) * ops.getOperationCost(),
+					(fromRow, toRow) -> {
+				for (int k = nextRow + fromRow; k < nextRow + toRow; k++) {
+					E[] currentRowValues = lu[k];
+					if (ops.compare(currentRowValues[pivotColumn], zero) == 0)
+						continue;
+					E times = ops.divide(currentRowValues[pivotColumn], pivotValue);
+					currentRowValues[pivotColumn] = times;
+					for (int j = pivotColumn + 1; j < column; j++)
+						currentRowValues[j] = ops.subtract(currentRowValues[j], ops.multiply(times, pivotRow[j]));
+				}
+			});
+			pivotColumns[r] = c;
+			r++;
+		}
+
+		rank = r;
+	}
+	/**
+	 * Get the rank of the decomposed matrix
+	 * @return the number of nonzero rows of U
+	 */
+	public int getRank() {
+		return rank;
+	}
+	/**
+	 * Check if the rank of the decomposed matrix is full
+	 * @return true if the rank is full, false otherwise
+	 */
+	public boolean isFullRank() {
+		return rank == Math.min(row, column);
+	}
+	/**
+	 * Check if the decomposed matrix is square and non-singular
+	 * @return true if the matrix is invertible, false otherwise
+	 */
+	public boolean isNonsingular() {
+		return row == column && rank == row;
+	}
+	/**
+	 * Get the row permutation of the decomposition
+	 * @return a copy of the permutation, whose i-th entry is the original index of the i-th row of L * U
+	 */
+	public int[] getPivot() {
+		return pivot.clone();
+	}
+	/**
+	 * Get the determinant of the decomposed matrix
+	 * @return the signed product of the diagonal of U
+	 */
+	public E getDeterminant() {
+		// Check bounds of the matrix
+		if (row != column)
+			throw new RuntimeException("The matrices do not have compatible size.");
+		if (rank < row)
+			return ops.zero();
+
+		E determinant = ops.powOfMinusOne(swaps);
+		for (int i = 0; i < row; i++)
+			determinant = ops.multiply(determinant, lu[i][i]);
+		return determinant;
+	}
+	/**
+	 * Get the unit lower triangular factor L
+	 * @return a new row * row <code>GenericMatrix</code>
+	 */
+	public GenericMatrix<E> getLowerTriangularMatrix() {
+		GenericMatrix<E> lower = ops.eye(row);
+		for (int r = 0; r < rank; r++)
+			for (int k = r + 1; k < row; k++)
+				lower.setValue(k, r, lu[k][pivotColumns[r]]);
+		return lower;
+	}
+	/**
+	 * Get the upper triangular (row echelon) factor U
+	 * @return a new row * column <code>GenericMatrix</code>
+	 */
+	public GenericMatrix<E> getUpperTriangularMatrix() {
+		GenericMatrix<E> upper = ops.zeros(row, column);
+		for (int r = 0; r < rank; r++)
+			for (int j = pivotColumns[r]; j < column; j++)
+				upper.setValue(r, j, lu[r][j]);
+		return upper;
+	}
+	/**
+	 * Solve A * X = B for X by forward and back substitution
+	 * @param rhs the right-hand sides B, one per column
+	 * @return a new <code>GenericMatrix</code> X
+	 */
+	public GenericMatrix<E> solve(GenericMatrix<E> rhs) {
+		// Check bounds of the two matrices
+		if (rhs.getRow() != row)
+			throw new RuntimeException("The matrices do not have compatible size.");
+		if (!isNonsingular())
+			throw new RuntimeException("The matrix is not an non-singular matrix.");
+
+		// Permute the rows of B
+		int columns = rhs.getColumn();
+		GenericMatrix<E> solution = ops.zeros(row, columns);
+		E[][] b = rhs.getMatrix();
+		E[][] x = solution.getMatrix();
+		for (int i = 0; i < row; i++)
+			x[i] = b[pivot[i]].clone();
+
+		MatrixExecutor.forEachRowBlock(columns, (long) row * row * ops.getOperationCost(), (fromColumn, toColumn) ->
+				substitute(x, fromColumn, toColumn));
+		solution.setMatrix(x);
+
+		return solution;
+	}
+	/**
+	 * Get the inversion of the decomposed matrix
+	 * @return a new <code>GenericMatrix</code> which is the inversion
+	 */
+	public GenericMatrix<E> inverse() {
+		return solve(ops.eye(row));
+	}
+	/**
+	 * Solve L * Y = X and then U * X = Y in place, for the columns [fromColumn, toColumn) of X
+	 * @param x the permuted right-hand sides, overwritten by the solution
+	 * @param fromColumn
+	 * @param toColumn
+	 */
+	private void substitute(E[][] x, int fromColumn, int toColumn) {
+		// Forward substitution with the unit lower triangular factor
+		for (int i = 1; i < row; i++) {
+			E[] xi = x[i];
+			for (int j = fromColumn; j < toColumn; j++)
+				xi[j] = ops.subtract(xi[j], ops.dotProduct(lu[i], x, j, 0, i));
+		}
+		// Back substitution with the upper triangular factor
+		for (int i = row - 1; i >= 0; i--) {
+			E[] xi = x[i];
+			E diagonal = lu[i][i];
+			for (int j = fromColumn; j < toColumn; j++)
+				xi[j] = ops.divide(ops.subtract(xi[j], ops.dotProduct(lu[i], x, j, i + 1, row)), diagonal);
+		}
+	}
+
+}
@@ -0,0 +1,946 @@
+package matrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.ref.PhantomReference;
+import java.lang.ref.ReferenceQueue;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+public final class MappedDoubleMatrix extends GenericMatrix<Double> implements Closeable {
+	/**
+	 * The default edge length of the square tiles streamed by multiply and transpose
+	 */
+	public static final int DEFAULT_TILE_SIZE = 1024;
+	/**
+	 * log2 of the number of elements in one mapped region, 1 GB of doubles
+	 */
+	private static final int REGION_SHIFT = 27;
+	/**
+	 * The mask of the index of an element inside its region
+	 */
+	private static final long REGION_MASK = (1L << REGION_SHIFT) - 1;
+	/**
+	 * The number of elements a row operation reads at a time
+	 */
+	private static final int CHUNK_SIZE = 1 << 13;
+	/**
+	 * The edge length of the tiles streamed by multiply and transpose
+	 */
+	private static volatile int tileSize = DEFAULT_TILE_SIZE;
+	/**
+	 * The temporary matrices which have not been closed, and the queue of those no longer reachable
+	 */
+	private static final Set<Temporary> temporaries = ConcurrentHashMap.newKeySet();
+	private static final ReferenceQueue<MappedDoubleMatrix> unreachable = new ReferenceQueue<>();
+
+	/**
+	 * The file holding the elements row by row as little-endian doubles
+	 */
+	private final Path file;
+	/**
+	 * Whether the file is deleted when the matrix is closed
+	 */
+	private final boolean temporary;
+	/**
+	 * The channel the regions are mapped from
+	 */
+	private FileChannel channel;
+	/**
+	 * The mapped regions, to be flushed
+	 */
+	private MappedByteBuffer[] buffers;
+	/**
+	 * The mapped regions as doubles, every region but the last one holds 2^REGION_SHIFT elements
+	 */
+	private DoubleBuffer[] regions;
+	/**
+	 * The record which deletes the file once the matrix is no longer reachable, null unless it is temporary
+	 */
+	private Temporary record;
+
+	/**
+	 * Construct a new <code>MappedDoubleMatrix</code> object over the input file
+	 * @param file the file of row * column doubles
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @param temporary whether the file is deleted on close
+	 */
+	private MappedDoubleMatrix(Path file, int row, int column, boolean temporary) throws IOException {
+		super(row, column);
+		this.file = file;
+		this.temporary = temporary;
+		this.channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			map(row, column);
+		} catch (IOException | RuntimeException ex) {
+			channel.close();
+			throw ex;
+		}
+		if (temporary)
+			record = new Temporary(this);
+	}
+	/**
+	 * Create a file of zeros and map it as a new <code>MappedDoubleMatrix</code>, replacing the file if it exists
+	 * @param file the file to create
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @return the matrix over the file
+	 * @throws IOException if the file cannot be created or mapped
+	 */
+	public static MappedDoubleMatrix create(Path file, int row, int column) throws IOException {
+		checkSize(row, column);
+		Files.deleteIfExists(file);
+		Files.createFile(file);
+		return new MappedDoubleMatrix(file, row, column, false);
+	}
+	/**
+	 * Map an existing file of row * column little-endian doubles stored row by row
+	 * @param file the file to map
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @return the matrix over the file
+	 * @throws IOException if the file cannot be mapped
+	 */
+	public static MappedDoubleMatrix open(Path file, int row, int column) throws IOException {
+		checkSize(row, column);
+		if (Files.size(file) != (long) row * column * Double.BYTES)
+			throw new RuntimeException("The file does not match the size of the matrix.");
+		return new MappedDoubleMatrix(file, row, column, false);
+	}
+	/**
+	 * Get the edge length of the tiles streamed by multiply and transpose
+	 * @return the tile size
+	 */
+	public static int getTileSize() {
+		return tileSize;
+	}
+	/**
+	 * Set the edge length of the tiles streamed by multiply and transpose
+	 * @param tileSize the tile size, three tiles of tileSize^2 doubles are held per thread
+	 */
+	public static void setTileSize(int tileSize) {
+		if (tileSize <= 0)
+			throw new RuntimeException("The tile size must be positive.");
+		MappedDoubleMatrix.tileSize = tileSize;
+	}
+	/**
+	 * Get the file backing the current <code>MappedDoubleMatrix</code>
+	 * @return the file
+	 */
+	public Path getFile() {
+		return file;
+	}
+	/**
+	 * Write the changes of the current <code>MappedDoubleMatrix</code> through to the file
+	 */
+	public void flush() {
+		for (MappedByteBuffer buffer : buffers)
+			buffer.force();
+	}
+	/**
+	 * Release the file of the current <code>MappedDoubleMatrix</code>, deleting it if it holds a temporary result.
+	 * The matrix cannot be used afterwards
+	 */
+	@Override
+	public void close() throws IOException {
+		if (channel == null)
+			return;
+		if (!temporary)
+			flush();
+		buffers = null;
+		regions = null;
+		FileChannel closed = channel;
+		channel = null;
+		if (temporary)
+			record.release();
+		else
+			closed.close();
+	}
+	/**
+	 * Delete the files of the temporary results, e.g. of <code>multiply</code>, <code>transpose</code> or
+	 * <code>getUpperTriangularMatrix</code>, which are no longer reachable without having been closed.
+	 * This also happens whenever a new temporary result is created
+	 * @return the number of files deleted
+	 * @throws IOException if a file cannot be deleted
+	 */
+	public static int deleteUnreachableTemporaries() throws IOException {
+		int count = 0;
+		for (Temporary record; (record = (Temporary) unreachable.poll()) != null; count++)
+			record.release();
+		return count;
+	}
+	/**
+	 * Get the number of temporary results whose files have not been deleted yet
+	 * @return the number of temporary files
+	 */
+	public static int getTemporaryCount() {
+		return temporaries.size();
+	}
+	/**
+	 * Get the matrix of the current <code>MappedDoubleMatrix</code> as boxed values
+	 * @return a new boxed copy of the matrix, which must fit in the heap
+	 */
+	@Override
+	public Double[][] getMatrix() {
+		int column = getColumn();
+		double[] row = new double[column];
+		Double[][] matrix = new Double[getRow()][column];
+		for (int i = 0; i < getRow(); i++) {
+			read((long) i * column, row, 0, column);
+			for (int j = 0; j < column; j++)
+				matrix[i][j] = row[j];
+		}
+
+		return matrix;
+	}
+	/**
+	 * Set the value of current matrix to the passed matrix, resizing the file if needed
+	 * @param matrix
+	 */
+	@Override
+	public void setMatrix(Double[][] matrix) {
+		markModified();
+		int row = matrix.length;
+		int column = matrix[0].length;
+		if (row != getRow() || column != getColumn())
+			resize(row, column);
+
+		double[] values = new double[column];
+		for (int i = 0; i < row; i++) {
+			for (int j = 0; j < column; j++)
+				values[j] = matrix[i][j];
+			write((long) i * column, values, 0, column);
+		}
+	}
+	/**
+	 * Get the value of matrix[row][column]
+	 */
+	@Override
+	public Double getValue(int row, int column) {
+		return getDouble(row, column);
+	}
+	/**
+	 * Set current value to the passed value in the matrix[row][column]
+	 */
+	@Override
+	public void setValue(int row, int column, Double value) {
+		setDouble(row, column, value);
+	}
+	/**
+	 * Get the primitive value of matrix[row][column]
+	 * @param row the row index of the matrix
+	 * @param column the column index of the matrix
+	 * @return the value of matrix[row][column]
+	 */
+	public double getDouble(int row, int column) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		else
+			return get((long) row * getColumn() + column);
+	}
+	/**
+	 * Set current primitive value to the passed value in the matrix[row][column]
+	 * @param row the row index of the matrix
+	 * @param column the column index of the matrix
+	 * @param value the value of matrix[row][column]
+	 */
+	public void setDouble(int row, int column, double value) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		else {
+			markModified();
+			put((long) row * getColumn() + column, value);
+		}
+	}
+	/**
+	 * Add two specified doubles
+	 */
+	@Override
+	public Double add(Double d1, Double d2) {
+		return d1 + d2;
+	}
+	/**
+	 * Subtract d2 from d1
+	 */
+	@Override
+	public Double subtract(Double d1, Double d2) {
+		return d1 - d2;
+	}
+	/**
+	 * Multiply two specified doubles
+	 */
+	@Override
+	public Double multiply(Double d1, Double d2) {
+		return d1 * d2;
+	}
+	/**
+	 *  Divide d1 by d2
+	 */
+	@Override
+	public Double divide(Double d1, Double d2) {
+		return d1 / d2;
+	}
+	/**
+	 * Specify zero for a double
+	 */
+	@Override
+	public Double zero() {
+		return 0.0;
+	}
+	/**
+	 * Get the absolute Value of a specified double
+	 */
+	@Override
+	public Double abs(Double d) {
+		return Math.abs(d);
+	}
+	/**
+	 * Calculate the current specified matrix element to the passed integer power
+	 * @param power
+	 * @return a <code>Double</code> which is (-1)^power
+	 */
+	@Override
+	public Double powOfMinusOne(int power) {
+		return Math.pow(-1.0, power);
+	}
+	/**
+	 * Compare two specified matrix elements
+	 */
+	@Override
+	public int compare(Double d1, Double d2) {
+		return d1.compareTo(d2);
+	}
+	/**
+	 * Construct a new <code>DoubleMatrix</code> object in the heap with the input row&column
+	 * whose elements are all zero, used by the operations which are not streamed
+	 */
+	@Override
+	public DoubleMatrix zeros(int row, int column) {
+		MatrixMetrics.temporary(row, column);
+		return new DoubleMatrix(row, column);
+	}
+	/**
+	 * Construct a new identity <code>DoubleMatrix</code> object in the heap with the input row
+	 */
+	@Override
+	public DoubleMatrix eye(int row) {
+		DoubleMatrix eye = new DoubleMatrix(row, row);
+		for (int i = 0; i < row; i++) // Set elements on the diagonal to one
+			eye.setDouble(i, i, 1.0);
+		return eye;
+	}
+	/**
+	 * Copy the current <code>MappedDoubleMatrix</code> into a temporary file next to its file
+	 * @return a new <code>MappedDoubleMatrix</code> whose file is deleted on close
+	 */
+	@Override
+	public MappedDoubleMatrix getCopy() {
+		MatrixMetrics.temporary(getRow(), getColumn());
+		try {
+			Path copy = createTempFile();
+			flush();
+			Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+			return new MappedDoubleMatrix(copy, getRow(), getColumn(), true);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+	/**
+	 * Copy the current <code>MappedDoubleMatrix</code> into the heap, for the algorithms which drop their copy
+	 * @return a new <code>DoubleMatrix</code>, which must fit in the heap
+	 */
+	@Override
+	DoubleMatrix getHeapCopy() {
+		long size = (long) getRow() * getColumn();
+		if (size > Integer.MAX_VALUE)
+			throw new RuntimeException("The matrix does not fit in the heap.");
+
+		MatrixMetrics.temporary(getRow(), getColumn());
+		double[] data = new double[(int) size];
+		read(0, data, 0, data.length);
+		return new DoubleMatrix(getRow(), getColumn(), data);
+	}
+	/**
+	 * Add values in row1 and row2 multiplied by times, streaming both rows in chunks
+	 */
+	@Override
+	public MappedDoubleMatrix addRow(int row1, int row2, Double times) {
+		checkRow(row1);
+		checkRow(row2);
+		markModified();
+		axpy(times, row2, row1);
+		return this;
+	}
+	/**
+	 * Subtract values in row1 by row2 multiplied by times, streaming both rows in chunks
+	 */
+	@Override
+	public MappedDoubleMatrix subtractRow(int row1, int row2, Double times) {
+		checkRow(row1);
+		checkRow(row2);
+		markModified();
+		axpy(-times, row2, row1);
+		return this;
+	}
+	/**
+	 * Multiply values in the row by multiplicand, streaming the row in chunks
+	 */
+	@Override
+	public MappedDoubleMatrix multiplyRow(int row, Double multiplicand) {
+		checkRow(row);
+		markModified();
+		double alpha = multiplicand;
+		long offset = (long) row * getColumn();
+		double[] chunk = new double[Math.min(CHUNK_SIZE, getColumn())];
+		for (int from = 0; from < getColumn(); from += chunk.length) {
+			int length = Math.min(chunk.length, getColumn() - from);
+			read(offset + from, chunk, 0, length);
+			DoubleKernels.get().scale(alpha, chunk, 0, length);
+			write(offset + from, chunk, 0, length);
+		}
+		return this;
+	}
+	/**
+	 * Divide values in the row by dividend, streaming the row in chunks
+	 */
+	@Override
+	public MappedDoubleMatrix divideRow(int row, Double dividend) {
+		checkRow(row);
+		markModified();
+		divideRow(row, 0, dividend);
+		return this;
+	}
+	/**
+	 * Commute values in row1 and row2, streaming both rows in chunks
+	 */
+	@Override
+	public MappedDoubleMatrix commuteRow(int row1, int row2) {
+		checkRow(row1);
+		checkRow(row2);
+		if (row1 == row2)
+			return this;
+		markModified();
+		long offset1 = (long) row1 * getColumn();
+		long offset2 = (long) row2 * getColumn();
+		double[] chunk1 = new double[Math.min(CHUNK_SIZE, getColumn())];
+		double[] chunk2 = new double[chunk1.length];
+		for (int from = 0; from < getColumn(); from += chunk1.length) {
+			int length = Math.min(chunk1.length, getColumn() - from);
+			read(offset1 + from, chunk1, 0, length);
+			read(offset2 + from, chunk2, 0, length);
+			write(offset1 + from, chunk2, 0, length);
+			write(offset2 + from, chunk1, 0, length);
+		}
+		return this;
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>MappedDoubleMatrix</code>
+	 * into a temporary file next to its file
+	 * @return a new <code>MappedDoubleMatrix</code> whose file is deleted on close
+	 */
+	@Override
+	public MappedDoubleMatrix multiply(GenericMatrix<Double> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			MappedDoubleMatrix product = createTemporary(getRow(), anotherMatrix.getColumn());
+			multiply(this, anotherMatrix, product);
+			return product;
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>MappedDoubleMatrix</code>
+	 * tile by tile, the classical kernel is used whatever the algorithm
+	 */
+	@Override
+	public MappedDoubleMatrix multiply(GenericMatrix<Double> anotherMatrix, MultiplicationAlgorithm algorithm) {
+		return multiply(anotherMatrix);
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>MappedDoubleMatrix</code> into a file
+	 * @param anotherMatrix
+	 * @param target the file of the product, replaced if it exists
+	 * @return a new <code>MappedDoubleMatrix</code> over the target file
+	 * @throws IOException if the target cannot be created or mapped
+	 */
+	public MappedDoubleMatrix multiply(GenericMatrix<Double> anotherMatrix, Path target) throws IOException {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			MappedDoubleMatrix product = create(target, getRow(), anotherMatrix.getColumn());
+			multiply(this, anotherMatrix, product);
+			return product;
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>MappedDoubleMatrix</code> in place,
+	 * resizing the file if the number of columns changes
+	 */
+	@Override
+	public MappedDoubleMatrix multiplyEquals(GenericMatrix<Double> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			try (MappedDoubleMatrix product = multiply(anotherMatrix)) {
+				markModified();
+				if (product.getColumn() != getColumn())
+					resize(getRow(), product.getColumn());
+				copy(product, this);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			return this;
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Transpose the current <code>MappedDoubleMatrix</code> tile by tile into a temporary file next to its file
+	 * @return a new <code>MappedDoubleMatrix</code> whose file is deleted on close
+	 */
+	@Override
+	public MappedDoubleMatrix transpose() {
+		MappedDoubleMatrix transpose = createTemporary(getColumn(), getRow());
+		transpose(this, transpose);
+		return transpose;
+	}
+	/**
+	 * Transpose the current <code>MappedDoubleMatrix</code> tile by tile into a file
+	 * @param target the file of the transposition, replaced if it exists
+	 * @return a new <code>MappedDoubleMatrix</code> over the target file
+	 * @throws IOException if the target cannot be created or mapped
+	 */
+	public MappedDoubleMatrix transpose(Path target) throws IOException {
+		MappedDoubleMatrix transpose = create(target, getColumn(), getRow());
+		transpose(this, transpose);
+		return transpose;
+	}
+	/**
+	 * Get the row echelon form of the current <code>MappedDoubleMatrix</code> in a temporary file by Gaussian
+	 * elimination with partial pivoting, with every pivot turned to one
+	 * @return a new <code>MappedDoubleMatrix</code> whose file is deleted on close
+	 */
+	@Override
+	public MappedDoubleMatrix getUpperTriangularMatrix() {
+		MappedDoubleMatrix upper = getCopy();
+		upper.eliminate(null);
+		return upper;
+	}
+	/**
+	 * Get the determinant of the current <code>MappedDoubleMatrix</code> by eliminating a temporary copy
+	 */
+	@Override
+	public Double getDeterminant() {
+		// Check bounds of the matrix
+		if (getRow() != getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		return cached(MatrixCache.Result.DETERMINANT, () -> {
+			double[] determinant = new double[1];
+			try (MappedDoubleMatrix upper = getCopy()) {
+				if (upper.eliminate(determinant) < getRow())
+					return 0.0;
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+			return determinant[0];
+		});
+	}
+	/**
+	 * Get the inversion of the current <code>MappedDoubleMatrix</code> by eliminating a copy in the heap,
+	 * where the inversion is anyway
+	 */
+	@Override
+	public DoubleMatrix inverse() {
+		// Check bounds of the matrix
+		if (getRow() != getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		return cached(MatrixCache.Result.INVERSE, () -> getHeapCopy().inverse()).getCopy();
+	}
+	/**
+	 * Solve this * X = rhs for X by eliminating a copy in the heap, where X is anyway
+	 */
+	@Override
+	public DoubleMatrix solve(GenericMatrix<Double> rhs) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.SOLVE, this);
+		try {
+			// Check bounds of the two matrices
+			if (getRow() != getColumn() || getRow() != rhs.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			return getHeapCopy().solve(rhs);
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Get the rank of the current <code>MappedDoubleMatrix</code> by eliminating a temporary copy
+	 */
+	@Override
+	public int getRank() {
+		return cached(MatrixCache.Result.RANK, () -> {
+			try (MappedDoubleMatrix upper = getCopy()) {
+				return upper.eliminate(null);
+			} catch (IOException ex) {
+				throw new UncheckedIOException(ex);
+			}
+		});
+	}
+	/**
+	 * Reduce the current <code>MappedDoubleMatrix</code> to row echelon form in place, streaming the rows
+	 * below the pivot once per pivot
+	 * @param determinant holds the product of the pivots with the sign of the row swaps on return, or null
+	 * @return the rank
+	 */
+	private int eliminate(double[] determinant) {
+		int row = getRow();
+		int column = getColumn();
+		double product = 1.0;
+		int r = 0; // The row of the next pivot
+
+		for (int c = 0; c < column && r < row; c++) {
+			int currentRow = r; // The row where the max absolute value is
+			double max = Math.abs(get((long) r * column + c));
+			for (int k = r + 1; k < row; k++) {
+				double value = Math.abs(get((long) k * column + c));
+				if (value > max) {
+					max = value;
+					currentRow = k;
+				}
+			}
+			if (max == 0.0) // No pivot in this column
+				continue;
+			if (currentRow != r) {
+				commuteRow(r, currentRow);
+				product = -product;
+			}
+			MatrixMetrics.pivot(currentRow != r);
+
+			int pivotRow = r;
+			int pivotColumn = c;
+			double pivot = get((long) r * column + c);
+			product *= pivot;
+			divideRow(r, c, pivot);
+			double[] source = new double[column - c - 1];
+			read((long) r * column + c + 1, source, 0, source.length);
+			MatrixExecutor.forEachRowBlock(row - r - 1, column - c, (fromRow, toRow) -> {
+				double[] target = new double[source.length];
+				for (int k = pivotRow + 1 + fromRow; k < pivotRow + 1 + toRow; k++) {
+					long offset = (long) k * column + pivotColumn;
+					double times = get(offset);
+					if (times == 0.0)
+						continue;
+					put(offset, 0.0);
+					read(offset + 1, target, 0, target.length);
+					DoubleKernels.get().axpy(-times, source, 0, target, 0, target.length);
+					write(offset + 1, target, 0, target.length);
+				}
+			});
+			r++;
+		}
+
+		if (determinant != null)
+			determinant[0] = product;
+		return r;
+	}
+	/**
+	 * Multiply two matrices into a third one, streaming tiles of a row panel of a and a column panel of b
+	 * @param a the left matrix
+	 * @param b the right matrix
+	 * @param c the result matrix, whose elements must be zero on entry
+	 */
+	private static void multiply(GenericMatrix<Double> a, GenericMatrix<Double> b, MappedDoubleMatrix c) {
+		int ts = tileSize;
+		int n = a.getRow();
+		int m = a.getColumn();
+		int p = b.getColumn();
+		int tileRows = (n + ts - 1) / ts;
+
+		MatrixExecutor.forEachRowBlock(tileRows, (long) ts * m * p, (fromTile, toTile) -> {
+			double[] aTile = new double[ts * ts];
+			double[] bTile = new double[ts * ts];
+			double[] cTile = new double[ts * ts];
+			DoubleKernels kernels = DoubleKernels.get();
+			for (int ii = fromTile * ts; ii < Math.min(toTile * ts, n); ii += ts) {
+				int rows = Math.min(ts, n - ii);
+				for (int jj = 0; jj < p; jj += ts) {
+					int columns = Math.min(ts, p - jj);
+					Arrays.fill(cTile, 0.0);
+					for (int kk = 0; kk < m; kk += ts) {
+						int inner = Math.min(ts, m - kk);
+						readTile(a, ii, kk, rows, inner, aTile);
+						readTile(b, kk, jj, inner, columns, bTile);
+						// i-k-j order inside the tiles, as in BlockMultiplier
+						for (int i = 0; i < rows; i++)
+							for (int k = 0; k < inner; k++)
+								kernels.axpy(aTile[i * inner + k], bTile, k * columns, cTile, i * columns, columns);
+					}
+					c.writeTile(ii, jj, rows, columns, cTile);
+				}
+			}
+		});
+	}
+	/**
+	 * Transpose a matrix into another one tile by tile, so that both files are read and written in runs
+	 * @param a the matrix to transpose
+	 * @param t the transposition, of the transposed size
+	 */
+	private static void transpose(MappedDoubleMatrix a, MappedDoubleMatrix t) {
+		int ts = tileSize;
+		int n = a.getRow();
+		int m = a.getColumn();
+		int tileRows = (n + ts - 1) / ts;
+
+		MatrixExecutor.forEachRowBlock(tileRows, (long) ts * m, (fromTile, toTile) -> {
+			double[] tile = new double[ts * ts];
+			double[] transposed = new double[ts * ts];
+			for (int ii = fromTile * ts; ii < Math.min(toTile * ts, n); ii += ts) {
+				int rows = Math.min(ts, n - ii);
+				for (int jj = 0; jj < m; jj += ts) {
+					int columns = Math.min(ts, m - jj);
+					a.readTile(ii, jj, rows, columns, tile);
+					for (int i = 0; i < rows; i++)
+						for (int j = 0; j < columns; j++)
+							transposed[j * rows + i] = tile[i * columns + j];
+					t.writeTile(jj, ii, columns, rows, transposed);
+				}
+			}
+		});
+	}
+	/**
+	 * Copy the elements of a matrix into another one of the same size
+	 */
+	private static void copy(MappedDoubleMatrix source, MappedDoubleMatrix target) {
+		long size = (long) source.getRow() * source.getColumn();
+		double[] chunk = new double[CHUNK_SIZE];
+		for (long from = 0; from < size; from += CHUNK_SIZE) {
+			int length = (int) Math.min(CHUNK_SIZE, size - from);
+			source.read(from, chunk, 0, length);
+			target.write(from, chunk, 0, length);
+		}
+	}
+	/**
+	 * Read a tile of any <code>GenericMatrix</code> of doubles into a row-major array
+	 */
+	private static void readTile(GenericMatrix<Double> matrix, int row, int column, int rows, int columns, double[] tile) {
+		if (matrix instanceof MappedDoubleMatrix) {
+			((MappedDoubleMatrix) matrix).readTile(row, column, rows, columns, tile);
+		} else if (matrix instanceof DoubleMatrix) {
+			double[] data = ((DoubleMatrix) matrix).getData();
+			for (int i = 0; i < rows; i++)
+				System.arraycopy(data, (row + i) * matrix.getColumn() + column, tile, i * columns, columns);
+		} else {
+			for (int i = 0; i < rows; i++)
+				for (int j = 0; j < columns; j++)
+					tile[i * columns + j] = matrix.getValue(row + i, column + j);
+		}
+	}
+	/**
+	 * Read a tile of the current <code>MappedDoubleMatrix</code> into a row-major array
+	 */
+	private void readTile(int row, int column, int rows, int columns, double[] tile) {
+		for (int i = 0; i < rows; i++)
+			read((long) (row + i) * getColumn() + column, tile, i * columns, columns);
+	}
+	/**
+	 * Write a row-major array into a tile of the current <code>MappedDoubleMatrix</code>
+	 */
+	private void writeTile(int row, int column, int rows, int columns, double[] tile) {
+		for (int i = 0; i < rows; i++)
+			write((long) (row + i) * getColumn() + column, tile, i * columns, columns);
+	}
+	/**
+	 * Add values in the source row multiplied by times to the target row
+	 * @param times
+	 * @param source the source row index
+	 * @param target the target row index
+	 */
+	private void axpy(double times, int source, int target) {
+		long sourceOffset = (long) source * getColumn();
+		long targetOffset = (long) target * getColumn();
+		double[] x = new double[Math.min(CHUNK_SIZE, getColumn())];
+		double[] y = new double[x.length];
+		for (int from = 0; from < getColumn(); from += x.length) {
+			int length = Math.min(x.length, getColumn() - from);
+			read(sourceOffset + from, x, 0, length);
+			read(targetOffset + from, y, 0, length);
+			DoubleKernels.get().axpy(times, x, 0, y, 0, length);
+			write(targetOffset + from, y, 0, length);
+		}
+	}
+	/**
+	 * Divide the values in the row from the input column by dividend
+	 */
+	private void divideRow(int row, int fromColumn, double dividend) {
+		long offset = (long) row * getColumn();
+		double[] chunk = new double[Math.min(CHUNK_SIZE, getColumn())];
+		for (int from = fromColumn; from < getColumn(); from += chunk.length) {
+			int length = Math.min(chunk.length, getColumn() - from);
+			read(offset + from, chunk, 0, length);
+			DoubleKernels.get().divide(dividend, chunk, 0, length);
+			write(offset + from, chunk, 0, length);
+		}
+	}
+	/**
+	 * Get the element at the input row-major index
+	 */
+	private double get(long index) {
+		return regions[(int) (index >>> REGION_SHIFT)].get((int) (index & REGION_MASK));
+	}
+	/**
+	 * Set the element at the input row-major index
+	 */
+	private void put(long index, double value) {
+		regions[(int) (index >>> REGION_SHIFT)].put((int) (index & REGION_MASK), value);
+	}
+	/**
+	 * Read length elements from the input row-major index, across regions if needed
+	 */
+	void read(long index, double[] destination, int offset, int length) {
+		while (length > 0) {
+			// Duplicates keep the shared regions free of positions, so that threads can read concurrently
+			DoubleBuffer region = regions[(int) (index >>> REGION_SHIFT)].duplicate();
+			int position = (int) (index & REGION_MASK);
+			int count = Math.min(length, region.limit() - position);
+			region.position(position);
+			region.get(destination, offset, count);
+			index += count;
+			offset += count;
+			length -= count;
+		}
+	}
+	/**
+	 * Write length elements at the input row-major index, across regions if needed
+	 */
+	private void write(long index, double[] source, int offset, int length) {
+		while (length > 0) {
+			DoubleBuffer region = regions[(int) (index >>> REGION_SHIFT)].duplicate();
+			int position = (int) (index & REGION_MASK);
+			int count = Math.min(length, region.limit() - position);
+			region.position(position);
+			region.put(source, offset, count);
+			index += count;
+			offset += count;
+			length -= count;
+		}
+	}
+	/**
+	 * Set the length of the file and map it in regions of at most 2^REGION_SHIFT elements
+	 */
+	private void map(int row, int column) throws IOException {
+		long size = (long) row * column;
+		long bytes = size * Double.BYTES;
+		if (channel.size() > bytes)
+			channel.truncate(bytes);
+		else if (channel.size() < bytes)
+			channel.write(ByteBuffer.allocate(1), bytes - 1); // Extend the file with zeros
+
+		int count = (int) ((size + REGION_MASK) >>> REGION_SHIFT);
+		buffers = new MappedByteBuffer[count];
+		regions = new DoubleBuffer[count];
+		for (int r = 0; r < count; r++) {
+			long from = (long) r << REGION_SHIFT;
+			long length = Math.min(1L << REGION_SHIFT, size - from);
+			buffers[r] = channel.map(FileChannel.MapMode.READ_WRITE, from * Double.BYTES, length * Double.BYTES);
+			regions[r] = buffers[r].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+		}
+	}
+	/**
+	 * Change the size of the current <code>MappedDoubleMatrix</code>, the elements are kept row-major
+	 * but their values are not defined afterwards
+	 */
+	private void resize(int row, int column) {
+		checkSize(row, column);
+		flush();
+		try {
+			map(row, column);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+		setRow(row);
+		setColumn(column);
+	}
+	/**
+	 * Create a temporary <code>MappedDoubleMatrix</code> of zeros next to the file of the current one
+	 */
+	private MappedDoubleMatrix createTemporary(int row, int column) {
+		checkSize(row, column);
+		try {
+			return new MappedDoubleMatrix(createTempFile(), row, column, true);
+		} catch (IOException ex) {
+			throw new UncheckedIOException(ex);
+		}
+	}
+	/**
+	 * Create an empty file in the directory of the file of the current <code>MappedDoubleMatrix</code>,
+	 * since the default temporary directory is often too small for its results
+	 */
+	private Path createTempFile() throws IOException {
+		deleteUnreachableTemporaries();
+		Path directory = file.toAbsolutePath().getParent();
+		return Files.createTempFile(directory, "matrix", ".tmp");
+	}
+	/**
+	 * Check if the row&column can be mapped
+	 */
+	private static void checkSize(int row, int column) {
+		if (row <= 0 || column <= 0)
+			throw new NullPointerException("Invalid input!");
+	}
+	/**
+	 * Check if the row index is valid
+	 * @param row the row index
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= getRow())
+			throw new NullPointerException("Invalid input!");
+	}
+
+	/**
+	 * Deletes the file of a temporary matrix when it is closed, or once it is no longer reachable
+	 */
+	private static final class Temporary extends PhantomReference<MappedDoubleMatrix> {
+		private final Path file;
+		private final FileChannel channel;
+
+		Temporary(MappedDoubleMatrix matrix) {
+			super(matrix, unreachable);
+			this.file = matrix.file;
+			this.channel = matrix.channel;
+			temporaries.add(this);
+		}
+		void release() throws IOException {
+			if (!temporaries.remove(this))
+				return;
+			clear();
+			try {
+				channel.close();
+			} finally {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+}
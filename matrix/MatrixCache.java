@@ -0,0 +1,238 @@
+package matrix;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * The results of the rank, determinant, LU decomposition and inversion queries of matrices. Every
+ * matrix keeps the results it has computed together with the version they were computed at, and
+ * computes them again once it has been modified. The matrices with the policy
+ * <code>CachePolicy.SHARED</code> keep their results in a bounded table shared by all threads instead,
+ * keyed on a copy of their elements, so that a matrix which is built again for every request finds
+ * the results of the previous ones. The least recently used entries are evicted first.
+ */
+public final class MatrixCache {
+	/**
+	 * The default number of matrices in the shared table
+	 */
+	public static final int DEFAULT_CAPACITY = 64;
+	/**
+	 * The default number of elements of all the matrices in the shared table
+	 */
+	public static final long DEFAULT_MAXIMUM_ELEMENTS = 1L << 24;
+
+	/**
+	 * The queries whose results are kept
+	 */
+	enum Result {
+		RANK(MatrixMetrics.Operation.RANK),
+		DETERMINANT(MatrixMetrics.Operation.DETERMINANT),
+		LU_DECOMPOSITION(MatrixMetrics.Operation.LU_DECOMPOSITION),
+		INVERSE(MatrixMetrics.Operation.INVERSE);
+
+		/**
+		 * The operation the computation of the result is timed as
+		 */
+		final MatrixMetrics.Operation operation;
+
+		Result(MatrixMetrics.Operation operation) {
+			this.operation = operation;
+		}
+	}
+
+	private static int capacity = DEFAULT_CAPACITY;
+	private static long maximumElements = DEFAULT_MAXIMUM_ELEMENTS;
+	/**
+	 * The number of elements of the matrices in the table
+	 */
+	private static long elements;
+	private static final LinkedHashMap<Key, Results> table = new LinkedHashMap<>(16, 0.75f, true);
+
+	private MatrixCache() {
+
+	}
+	/**
+	 * Get the maximum number of matrices in the shared table
+	 * @return the capacity
+	 */
+	public static synchronized int getCapacity() {
+		return capacity;
+	}
+	/**
+	 * Set the maximum number of matrices in the shared table, evicting the least recently used
+	 * @param capacity the capacity, 0 to keep none
+	 */
+	public static synchronized void setCapacity(int capacity) {
+		if (capacity < 0)
+			throw new IllegalArgumentException("The capacity must not be negative.");
+		MatrixCache.capacity = capacity;
+		evict();
+	}
+	/**
+	 * Get the maximum number of elements of all the matrices in the shared table
+	 * @return the maximum number of elements
+	 */
+	public static synchronized long getMaximumElements() {
+		return maximumElements;
+	}
+	/**
+	 * Set the maximum number of elements of all the matrices in the shared table, which bounds its
+	 * memory, evicting the least recently used
+	 * @param maximumElements the maximum number of elements
+	 */
+	public static synchronized void setMaximumElements(long maximumElements) {
+		if (maximumElements < 0)
+			throw new IllegalArgumentException("The maximum number of elements must not be negative.");
+		MatrixCache.maximumElements = maximumElements;
+		evict();
+	}
+	/**
+	 * Get the number of matrices in the shared table
+	 * @return the size of the table
+	 */
+	public static synchronized int size() {
+		return table.size();
+	}
+	/**
+	 * Remove every matrix from the shared table
+	 */
+	public static synchronized void clear() {
+		table.clear();
+		elements = 0;
+	}
+	/**
+	 * Get the results of the matrices with the elements of a matrix, adding them to the shared table
+	 * @param matrix the matrix
+	 * @param version the version of the matrix
+	 * @return the results, which are kept by the matrix until it is modified
+	 */
+	static Results lookup(GenericMatrix<?> matrix, long version) {
+		if ((long) matrix.getRow() * matrix.getColumn() > getMaximumElements()) // Never kept
+			return new Results(version);
+
+		Key key = new Key(matrix);
+		synchronized (MatrixCache.class) {
+			Results results = table.get(key);
+			if (results == null) {
+				results = new Results(version, new EnumMap<>(Result.class));
+				table.put(key, results);
+				elements += key.getElements();
+				evict();
+			}
+			return new Results(version, results.values);
+		}
+	}
+	/**
+	 * Remove the least recently used matrices while the table is too large
+	 */
+	private static void evict() {
+		Iterator<Key> iterator = table.keySet().iterator();
+		while (iterator.hasNext() && (table.size() > capacity || elements > maximumElements)) {
+			elements -= iterator.next().getElements();
+			iterator.remove();
+		}
+	}
+
+	/**
+	 * The results of a matrix at a version
+	 */
+	static final class Results {
+		final long version;
+		private final Map<Result, Object> values;
+
+		Results(long version) {
+			this(version, new EnumMap<>(Result.class));
+		}
+		private Results(long version, Map<Result, Object> values) {
+			this.version = version;
+			this.values = values;
+		}
+		/**
+		 * Get a result, computing it if it is not known yet
+		 */
+		@SuppressWarnings("unchecked")
+		<T> T get(Result result, Supplier<T> computation) {
+			synchronized (values) {
+				Object value = values.get(result);
+				if (value != null) {
+					MatrixMetrics.count(MatrixMetrics.Counter.CACHE_HITS, 1);
+					return (T) value;
+				}
+			}
+			// Computed outside the lock, another thread may compute the same result meanwhile
+			MatrixMetrics.count(MatrixMetrics.Counter.CACHE_MISSES, 1);
+			T value = computation.get();
+			synchronized (values) {
+				values.putIfAbsent(result, value);
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * A copy of the type, the size and the elements of a matrix
+	 */
+	private static final class Key {
+		private final Class<?> type;
+		private final int row;
+		private final int column;
+		/**
+		 * The elements row by row, a double[], a float[], an int[] or an Object[]
+		 */
+		private final Object elements;
+		private final int hash;
+
+		Key(GenericMatrix<?> matrix) {
+			this.type = matrix.getClass();
+			this.row = matrix.getRow();
+			this.column = matrix.getColumn();
+			if (matrix instanceof DoubleMatrix) {
+				double[] data = ((DoubleMatrix) matrix).getData().clone();
+				this.elements = data;
+				this.hash = Arrays.hashCode(data);
+			} else if (matrix instanceof FloatMatrix) {
+				float[] data = ((FloatMatrix) matrix).getData().clone();
+				this.elements = data;
+				this.hash = Arrays.hashCode(data);
+			} else if (matrix instanceof IntegerMatrix) {
+				int[] data = ((IntegerMatrix) matrix).getData().clone();
+				this.elements = data;
+				this.hash = Arrays.hashCode(data);
+			} else {
+				Object[] data = new Object[row * column];
+				for (int i = 0; i < row; i++)
+					for (int j = 0; j < column; j++)
+						data[i * column + j] = matrix.getValue(i, j);
+				this.elements = data;
+				this.hash = Arrays.hashCode(data);
+			}
+		}
+		long getElements() {
+			return (long) row * column;
+		}
+		@Override
+		public int hashCode() {
+			return 31 * (31 * (31 * type.hashCode() + row) + column) + hash;
+		}
+		@Override
+		public boolean equals(Object object) {
+			if (!(object instanceof Key))
+				return false;
+			Key key = (Key) object;
+			if (type != key.type || row != key.row || column != key.column || hash != key.hash)
+				return false;
+			if (elements instanceof double[])
+				return Arrays.equals((double[]) elements, (double[]) key.elements);
+			if (elements instanceof float[])
+				return Arrays.equals((float[]) elements, (float[]) key.elements);
+			if (elements instanceof int[])
+				return Arrays.equals((int[]) elements, (int[]) key.elements);
+			return Arrays.equals((Object[]) elements, (Object[]) key.elements);
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+package matrix;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public final class MatrixExecutor {
+	/**
+	 * The default number of element operations below which an operation runs on the calling thread
+	 */
+	public static final long DEFAULT_THRESHOLD = 1 << 16;
+	/**
+	 * The pool the row blocks are run in
+	 */
+	private static volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+	/**
+	 * The number of element operations below which a block is not split any further
+	 */
+	private static volatile long threshold = DEFAULT_THRESHOLD;
+	/**
+	 * Whether operations may be split across the threads of the pool
+	 */
+	private static volatile boolean parallel = true;
+
+	private MatrixExecutor() {
+
+	}
+	/**
+	 * A computation over the rows [fromRow, toRow) of a result
+	 */
+	public interface RowBlock {
+		void compute(int fromRow, int toRow);
+	}
+	/**
+	 * Get the pool the row blocks are run in
+	 * @return the pool
+	 */
+	public static ForkJoinPool getPool() {
+		return pool;
+	}
+	/**
+	 * Set the pool the row blocks are run in
+	 * @param pool
+	 */
+	public static void setPool(ForkJoinPool pool) {
+		if (pool == null)
+			throw new NullPointerException("Invalid input!");
+		MatrixExecutor.pool = pool;
+	}
+	/**
+	 * Get the number of element operations below which a block runs sequentially
+	 * @return the sequential threshold
+	 */
+	public static long getThreshold() {
+		return threshold;
+	}
+	/**
+	 * Set the number of element operations below which a block runs sequentially
+	 * @param threshold the sequential threshold
+	 */
+	public static void setThreshold(long threshold) {
+		if (threshold <= 0)
+			throw new RuntimeException("The threshold must be positive.");
+		MatrixExecutor.threshold = threshold;
+	}
+	/**
+	 * Check if operations may be split across the threads of the pool
+	 * @return true if the parallel mode is on, false otherwise
+	 */
+	public static boolean isParallel() {
+		return parallel;
+	}
+	/**
+	 * Turn the parallel mode on or off
+	 * @param parallel
+	 */
+	public static void setParallel(boolean parallel) {
+		MatrixExecutor.parallel = parallel;
+	}
+	/**
+	 * Run the block over all rows, splitting the rows recursively across the pool
+	 * while a block costs more than the threshold
+	 * @param rows the number of rows of the result
+	 * @param costPerRow the number of element operations needed for one row
+	 * @param block the computation
+	 */
+	public static void forEachRowBlock(int rows, long costPerRow, RowBlock block) {
+		if (!parallel || rows < 2 || rows * costPerRow <= threshold)
+			block.compute(0, rows);
+		else
+			pool.invoke(new RowBlockTask(block, 0, rows, costPerRow, threshold));
+	}
+
+	private static class RowBlockTask extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final RowBlock block;
+		private final int fromRow;
+		private final int toRow;
+		private final long costPerRow;
+		private final long threshold;
+
+		RowBlockTask(RowBlock block, int fromRow, int toRow, long costPerRow, long threshold) {
+			this.block = block;
+			this.fromRow = fromRow;
+			this.toRow = toRow;
+			this.costPerRow = costPerRow;
+			this.threshold = threshold;
+		}
+
+		@Override
+		protected void compute() {
+			int rows = toRow - fromRow;
+			if (rows < 2 || rows * costPerRow <= threshold) {
+				block.compute(fromRow, toRow);
+				return;
+			}
+			// Split the rows in halves
+			int middle = fromRow + rows / 2;
+			invokeAll(new RowBlockTask(block, fromRow, middle, costPerRow, threshold),
+					new RowBlockTask(block, middle, toRow, costPerRow, threshold));
+		}
+	}
+
+}
@@ -0,0 +1,459 @@
+package matrix;
+
+/**
+ * A lazily evaluated combination of matrices. Sums, differences, multiples and transposes are only
+ * recorded, and evaluated together in one pass over the result, without a temporary matrix per operation.
+ * Products are computed by the matrices when the expression is evaluated, and their results are fused
+ * into the element-wise operations around them. Transposes are pushed down to the matrices, so that
+ * (a + b)^T reads a and b transposed and (a * b)^T is b^T * a^T.
+ * <pre>
+ *   GenericMatrix&lt;Double&gt; e = a.lazy().add(b).subtract(c).multiply(d).evaluate();
+ * </pre>
+ */
+public abstract class MatrixExpression<E extends Number> {
+	/**
+	 * The matrix whose element operations are used
+	 */
+	final GenericMatrix<E> ops;
+	/**
+	 * The number of rows of the result
+	 */
+	final int row;
+	/**
+	 * The number of columns of the result
+	 */
+	final int column;
+
+	MatrixExpression(GenericMatrix<E> ops, int row, int column) {
+		this.ops = ops;
+		this.row = row;
+		this.column = column;
+	}
+	/**
+	 * Construct a new <code>MatrixExpression</code> object of a matrix, which is read when the expression
+	 * is evaluated rather than copied
+	 * @param matrix
+	 * @return the expression
+	 */
+	public static <E extends Number> MatrixExpression<E> of(GenericMatrix<E> matrix) {
+		return new Leaf<>(matrix, false);
+	}
+	/**
+	 * Get the number of rows of the result
+	 * @return the row of the expression
+	 */
+	public int getRow() {
+		return row;
+	}
+	/**
+	 * Get the number of columns of the result
+	 * @return the column of the expression
+	 */
+	public int getColumn() {
+		return column;
+	}
+	/**
+	 * Add another expression to the current <code>MatrixExpression</code>
+	 * @param anotherExpression
+	 * @return the expression this + anotherExpression
+	 */
+	public MatrixExpression<E> add(MatrixExpression<E> anotherExpression) {
+		checkSameSize(anotherExpression);
+		return new Sum<>(this, anotherExpression, false);
+	}
+	/**
+	 * Add a matrix to the current <code>MatrixExpression</code>
+	 * @param anotherMatrix
+	 * @return the expression this + anotherMatrix
+	 */
+	public MatrixExpression<E> add(GenericMatrix<E> anotherMatrix) {
+		return add(of(anotherMatrix));
+	}
+	/**
+	 * Subtract another expression from the current <code>MatrixExpression</code>
+	 * @param anotherExpression
+	 * @return the expression this - anotherExpression
+	 */
+	public MatrixExpression<E> subtract(MatrixExpression<E> anotherExpression) {
+		checkSameSize(anotherExpression);
+		return new Sum<>(this, anotherExpression, true);
+	}
+	/**
+	 * Subtract a matrix from the current <code>MatrixExpression</code>
+	 * @param anotherMatrix
+	 * @return the expression this - anotherMatrix
+	 */
+	public MatrixExpression<E> subtract(GenericMatrix<E> anotherMatrix) {
+		return subtract(of(anotherMatrix));
+	}
+	/**
+	 * Multiply every element of the current <code>MatrixExpression</code> by multiplicand
+	 * @param multiplicand
+	 * @return the expression multiplicand * this
+	 */
+	public MatrixExpression<E> multiply(E multiplicand) {
+		return new Scale<>(this, multiplicand);
+	}
+	/**
+	 * Multiply another expression to the current <code>MatrixExpression</code>
+	 * @param anotherExpression
+	 * @return the expression this * anotherExpression
+	 */
+	public MatrixExpression<E> multiply(MatrixExpression<E> anotherExpression) {
+		// Check bounds of the two matrices
+		if (column != anotherExpression.row)
+			throw new RuntimeException("The matrices do not have compatible size.");
+		return new Product<>(this, anotherExpression);
+	}
+	/**
+	 * Multiply a matrix to the current <code>MatrixExpression</code>
+	 * @param anotherMatrix
+	 * @return the expression this * anotherMatrix
+	 */
+	public MatrixExpression<E> multiply(GenericMatrix<E> anotherMatrix) {
+		return multiply(of(anotherMatrix));
+	}
+	/**
+	 * Transpose the current <code>MatrixExpression</code>
+	 * @return the expression this^T
+	 */
+	public abstract MatrixExpression<E> transpose();
+	/**
+	 * Evaluate the current <code>MatrixExpression</code> into a new matrix of the type of its first matrix
+	 * @return the result
+	 */
+	public GenericMatrix<E> evaluate() {
+		GenericMatrix<E> result = ops.zeros(row, column);
+		write(result);
+		return result;
+	}
+	/**
+	 * Evaluate the current <code>MatrixExpression</code> into an existing matrix of the same size,
+	 * which may also be read by the expression
+	 * @param destination
+	 * @return the destination
+	 */
+	public GenericMatrix<E> evaluate(GenericMatrix<E> destination) {
+		// Check bounds of the two matrices
+		if (destination.getRow() != row || destination.getColumn() != column)
+			throw new RuntimeException("The matrices do not have the same size.");
+
+		if (reads(destination)) // The rows would be overwritten before they are read
+			destination.setMatrix(evaluate().getMatrix());
+		else
+			write(destination);
+		return destination;
+	}
+	/**
+	 * Evaluate into a destination which is not read by the expression, computing the products first
+	 * and then every element of the result in one pass
+	 */
+	private void write(GenericMatrix<E> destination) {
+		MatrixExpression<E> resolved = resolve();
+		long cost = (long) column * resolved.getNodes() * ops.getOperationCost();
+
+		if (destination instanceof DoubleMatrix && resolved.isPrimitive()) {
+			double[] out = ((DoubleMatrix) destination).getData();
+			destination.markModified();
+			MatrixExecutor.forEachRowBlock(row, cost, (fromRow, toRow) -> {
+				Scratch scratch = new Scratch(column);
+				for (int i = fromRow; i < toRow; i++)
+					resolved.row(i, out, i * column, scratch);
+			});
+			return;
+		}
+
+		resolved.bind();
+		E[][] out = destination.getMatrix();
+		MatrixExecutor.forEachRowBlock(row, cost, (fromRow, toRow) -> {
+			for (int i = fromRow; i < toRow; i++)
+				for (int j = 0; j < column; j++)
+					out[i][j] = resolved.value(i, j);
+		});
+		destination.setMatrix(out);
+	}
+	/**
+	 * Get the matrix of the current <code>MatrixExpression</code>, which is not copied if it is one
+	 */
+	GenericMatrix<E> materialize() {
+		return evaluate();
+	}
+	/**
+	 * Get a copy of the expression whose products are replaced by their results
+	 */
+	abstract MatrixExpression<E> resolve();
+	/**
+	 * Fetch the elements of the matrices of a resolved expression for <code>value</code>
+	 */
+	abstract void bind();
+	/**
+	 * Get the element [i][j] of a resolved and bound expression
+	 */
+	abstract E value(int i, int j);
+	/**
+	 * Check if every matrix of a resolved expression is a <code>DoubleMatrix</code>
+	 */
+	abstract boolean isPrimitive();
+	/**
+	 * Compute the row i of a resolved expression of doubles into out[offset..offset+column)
+	 */
+	abstract void row(int i, double[] out, int offset, Scratch scratch);
+	/**
+	 * Check if the expression reads a matrix
+	 */
+	abstract boolean reads(GenericMatrix<?> matrix);
+	/**
+	 * Get the number of operations and matrices in the expression
+	 */
+	abstract int getNodes();
+
+	private void checkSameSize(MatrixExpression<E> anotherExpression) {
+		if (row != anotherExpression.row || column != anotherExpression.column)
+			throw new RuntimeException("The matrices do not have the same size.");
+	}
+
+	/**
+	 * A matrix, possibly read transposed
+	 */
+	private static final class Leaf<E extends Number> extends MatrixExpression<E> {
+		private final GenericMatrix<E> matrix;
+		private final boolean transposed;
+		private E[][] values;
+		private double[] data;
+
+		Leaf(GenericMatrix<E> matrix, boolean transposed) {
+			super(matrix, transposed ? matrix.getColumn() : matrix.getRow(),
+					transposed ? matrix.getRow() : matrix.getColumn());
+			this.matrix = matrix;
+			this.transposed = transposed;
+		}
+		@Override
+		public MatrixExpression<E> transpose() {
+			return new Leaf<>(matrix, !transposed);
+		}
+		@Override
+		public GenericMatrix<E> evaluate() {
+			return transposed ? super.evaluate() : matrix.getCopy();
+		}
+		@Override
+		GenericMatrix<E> materialize() {
+			return transposed ? super.evaluate() : matrix;
+		}
+		@Override
+		MatrixExpression<E> resolve() {
+			Leaf<E> leaf = new Leaf<>(matrix, transposed);
+			if (matrix instanceof DoubleMatrix)
+				leaf.data = ((DoubleMatrix) matrix).getData();
+			return leaf;
+		}
+		@Override
+		void bind() {
+			values = matrix.getMatrix();
+		}
+		@Override
+		E value(int i, int j) {
+			return transposed ? values[j][i] : values[i][j];
+		}
+		@Override
+		boolean isPrimitive() {
+			return data != null;
+		}
+		@Override
+		void row(int i, double[] out, int offset, Scratch scratch) {
+			if (!transposed) {
+				System.arraycopy(data, i * column, out, offset, column);
+				return;
+			}
+			for (int j = 0; j < column; j++) // The column i of the matrix, which has row columns
+				out[offset + j] = data[j * row + i];
+		}
+		@Override
+		boolean reads(GenericMatrix<?> matrix) {
+			return this.matrix == matrix;
+		}
+		@Override
+		int getNodes() {
+			return 1;
+		}
+	}
+
+	/**
+	 * left + right, or left - right
+	 */
+	private static final class Sum<E extends Number> extends MatrixExpression<E> {
+		private final MatrixExpression<E> left;
+		private final MatrixExpression<E> right;
+		private final boolean subtract;
+
+		Sum(MatrixExpression<E> left, MatrixExpression<E> right, boolean subtract) {
+			super(left.ops, left.row, left.column);
+			this.left = left;
+			this.right = right;
+			this.subtract = subtract;
+		}
+		@Override
+		public MatrixExpression<E> transpose() {
+			return new Sum<>(left.transpose(), right.transpose(), subtract);
+		}
+		@Override
+		MatrixExpression<E> resolve() {
+			return new Sum<>(left.resolve(), right.resolve(), subtract);
+		}
+		@Override
+		void bind() {
+			left.bind();
+			right.bind();
+		}
+		@Override
+		E value(int i, int j) {
+			return subtract ? ops.subtract(left.value(i, j), right.value(i, j)) : ops.add(left.value(i, j), right.value(i, j));
+		}
+		@Override
+		boolean isPrimitive() {
+			return left.isPrimitive() && right.isPrimitive();
+		}
+		@Override
+		void row(int i, double[] out, int offset, Scratch scratch) {
+			left.row(i, out, offset, scratch);
+			double[] temp = scratch.push();
+			right.row(i, temp, 0, scratch);
+			// 1.0 * x and -1.0 * x are exact, so this is the sum or the difference
+			DoubleKernels.get().axpy(subtract ? -1.0 : 1.0, temp, 0, out, offset, column);
+			scratch.pop();
+		}
+		@Override
+		boolean reads(GenericMatrix<?> matrix) {
+			return left.reads(matrix) || right.reads(matrix);
+		}
+		@Override
+		int getNodes() {
+			return 1 + left.getNodes() + right.getNodes();
+		}
+	}
+
+	/**
+	 * multiplicand * operand
+	 */
+	private static final class Scale<E extends Number> extends MatrixExpression<E> {
+		private final MatrixExpression<E> operand;
+		private final E multiplicand;
+
+		Scale(MatrixExpression<E> operand, E multiplicand) {
+			super(operand.ops, operand.row, operand.column);
+			this.operand = operand;
+			this.multiplicand = multiplicand;
+		}
+		@Override
+		public MatrixExpression<E> transpose() {
+			return new Scale<>(operand.transpose(), multiplicand);
+		}
+		@Override
+		MatrixExpression<E> resolve() {
+			return new Scale<>(operand.resolve(), multiplicand);
+		}
+		@Override
+		void bind() {
+			operand.bind();
+		}
+		@Override
+		E value(int i, int j) {
+			return ops.multiply(operand.value(i, j), multiplicand);
+		}
+		@Override
+		boolean isPrimitive() {
+			return operand.isPrimitive();
+		}
+		@Override
+		void row(int i, double[] out, int offset, Scratch scratch) {
+			operand.row(i, out, offset, scratch);
+			DoubleKernels.get().scale(multiplicand.doubleValue(), out, offset, column);
+		}
+		@Override
+		boolean reads(GenericMatrix<?> matrix) {
+			return operand.reads(matrix);
+		}
+		@Override
+		int getNodes() {
+			return 1 + operand.getNodes();
+		}
+	}
+
+	/**
+	 * left * right, computed by the multiplication of the matrices when the expression is evaluated
+	 */
+	private static final class Product<E extends Number> extends MatrixExpression<E> {
+		private final MatrixExpression<E> left;
+		private final MatrixExpression<E> right;
+
+		Product(MatrixExpression<E> left, MatrixExpression<E> right) {
+			super(left.ops, left.row, right.column);
+			this.left = left;
+			this.right = right;
+		}
+		@Override
+		public MatrixExpression<E> transpose() {
+			return new Product<>(right.transpose(), left.transpose());
+		}
+		@Override
+		public GenericMatrix<E> evaluate() {
+			return left.materialize().multiply(right.materialize());
+		}
+		@Override
+		GenericMatrix<E> materialize() {
+			return evaluate();
+		}
+		@Override
+		MatrixExpression<E> resolve() {
+			return new Leaf<>(evaluate(), false).resolve();
+		}
+		@Override
+		void bind() {
+			throw new IllegalStateException(); // Replaced by a leaf when resolved
+		}
+		@Override
+		E value(int i, int j) {
+			throw new IllegalStateException();
+		}
+		@Override
+		boolean isPrimitive() {
+			throw new IllegalStateException();
+		}
+		@Override
+		void row(int i, double[] out, int offset, Scratch scratch) {
+			throw new IllegalStateException();
+		}
+		@Override
+		boolean reads(GenericMatrix<?> matrix) {
+			// The product is a new matrix, only its factors read the matrices
+			return false;
+		}
+		@Override
+		int getNodes() {
+			return 1;
+		}
+	}
+
+	/**
+	 * A stack of rows for the right operands of the sums, reused for every row of a block
+	 */
+	static final class Scratch {
+		private final int length;
+		private double[][] rows = new double[4][];
+		private int top;
+
+		Scratch(int length) {
+			this.length = length;
+		}
+		double[] push() {
+			if (top == rows.length)
+				rows = java.util.Arrays.copyOf(rows, 2 * top);
+			if (rows[top] == null)
+				rows[top] = new double[length];
+			return rows[top++];
+		}
+		void pop() {
+			top--;
+		}
+	}
+
+}
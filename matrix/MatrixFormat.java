@@ -0,0 +1,587 @@
+package matrix;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The binary format of the matrices. A 16-byte header
+ * <pre>
+ *   0  magic "MTRX"
+ *   4  version, 1
+ *   5  element type, 1 int, 2 double, 3 rational, 4 float
+ *   6  layout, 0 dense row-major, 1 compressed sparse rows
+ *   7  reserved, 0
+ *   8  rows, int
+ *  12  columns, int
+ * </pre>
+ * is followed by the elements row by row, or for the sparse layout by the rows + 1 row pointers,
+ * the column indices and the values of the non-zeros. All numbers are little-endian; an int or a float
+ * takes 4 bytes, a double 8, a rational its numerator and then its denominator, each as a varint byte count
+ * followed by that many bytes of two's complement, most significant first.
+ */
+public final class MatrixFormat {
+	/**
+	 * The version written by this class
+	 */
+	public static final int VERSION = 1;
+	/**
+	 * The length of the header in bytes
+	 */
+	public static final int HEADER_SIZE = 16;
+	/**
+	 * "MTRX" as a little-endian int
+	 */
+	private static final int MAGIC = 'M' | 'T' << 8 | 'R' << 16 | 'X' << 24;
+	private static final int INTEGER = 1;
+	private static final int DOUBLE = 2;
+	private static final int RATIONAL = 3;
+	private static final int FLOAT = 4;
+	private static final int DENSE = 0;
+	private static final int SPARSE = 1;
+	/**
+	 * The size of the buffer between a channel and the elements
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private MatrixFormat() {
+
+	}
+	/**
+	 * Write a matrix to a channel
+	 * @param matrix an <code>IntegerMatrix</code>, a <code>DoubleMatrix</code>, a <code>MappedDoubleMatrix</code>,
+	 * a <code>FloatMatrix</code>, a <code>RationalMatrix</code> or a <code>SparseMatrix</code> of one of their
+	 * element types
+	 * @param channel the channel, which is left open
+	 * @throws IOException if the channel cannot be written
+	 */
+	public static void write(GenericMatrix<?> matrix, WritableByteChannel channel) throws IOException {
+		Output out = new Output(ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN), channel);
+		write(matrix, out);
+		out.flush();
+	}
+	/**
+	 * Write a matrix to the remaining bytes of a buffer, whose position is advanced past it
+	 * @param matrix
+	 * @param buffer the buffer, with at least <code>getEncodedSize(matrix)</code> bytes remaining
+	 * @throws BufferOverflowException if the buffer is too small, in which case its position is unchanged
+	 */
+	public static void write(GenericMatrix<?> matrix, ByteBuffer buffer) {
+		ByteBuffer slice = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		try {
+			write(matrix, new Output(slice, null));
+		} catch (IOException ex) {
+			throw new AssertionError(ex); // A buffer without a channel does not throw
+		}
+		buffer.position(buffer.position() + slice.position());
+	}
+	/**
+	 * Write a matrix to a file, replacing it if it exists
+	 * @param matrix
+	 * @param file
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(GenericMatrix<?> matrix, Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			write(matrix, channel);
+		}
+	}
+	/**
+	 * Read a matrix from a channel
+	 * @param channel the channel, which is left open. A seekable channel is positioned right after the
+	 * matrix, other channels may have been read ahead
+	 * @return an <code>IntegerMatrix</code>, a <code>DoubleMatrix</code>, a <code>FloatMatrix</code>,
+	 * a <code>RationalMatrix</code> or a <code>SparseMatrix</code> of one of their element types
+	 * @throws IOException if the channel cannot be read or ends within the matrix
+	 */
+	public static GenericMatrix<?> read(ReadableByteChannel channel) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.limit(0);
+		GenericMatrix<?> matrix = read(new Input(buffer, channel));
+		// Give back the bytes read ahead, so that the channel may hold more data after the matrix
+		if (channel instanceof SeekableByteChannel && buffer.hasRemaining()) {
+			SeekableByteChannel seekable = (SeekableByteChannel) channel;
+			seekable.position(seekable.position() - buffer.remaining());
+		}
+		return matrix;
+	}
+	/**
+	 * Read a matrix from the remaining bytes of a buffer, whose position is advanced past it
+	 * @param buffer
+	 * @return the matrix
+	 * @throws BufferUnderflowException if the buffer ends within the matrix
+	 */
+	public static GenericMatrix<?> read(ByteBuffer buffer) {
+		ByteBuffer slice = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+		GenericMatrix<?> matrix;
+		try {
+			matrix = read(new Input(slice, null));
+		} catch (IOException ex) {
+			throw new AssertionError(ex); // A buffer without a channel does not throw
+		}
+		buffer.position(buffer.position() + slice.position());
+		return matrix;
+	}
+	/**
+	 * Read a matrix from a file
+	 * @param file
+	 * @return the matrix
+	 * @throws IOException if the file cannot be read
+	 */
+	public static GenericMatrix<?> read(Path file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			return read(channel);
+		}
+	}
+	/**
+	 * Get the number of bytes a matrix is written in
+	 * @param matrix
+	 * @return the size of the header and the elements
+	 */
+	public static long getEncodedSize(GenericMatrix<?> matrix) {
+		int type = typeOf(matrix);
+		long size = HEADER_SIZE;
+		if (matrix instanceof SparseMatrix) {
+			SparseMatrix<?> sparse = (SparseMatrix<?>) matrix;
+			size += 4L * (matrix.getRow() + 1) + 4L * sparse.getNonZeros();
+			if (type != RATIONAL)
+				return size + (long) sparse.getNonZeros() * (type == DOUBLE ? 8 : 4);
+			Number[] values = sparse.getValues();
+			for (int p = 0; p < sparse.getNonZeros(); p++)
+				size += sizeOf((Rational) values[p]);
+			return size;
+		}
+		if (type != RATIONAL)
+			return size + (long) matrix.getRow() * matrix.getColumn() * (type == DOUBLE ? 8 : 4);
+		for (int i = 0; i < matrix.getRow(); i++)
+			for (int j = 0; j < matrix.getColumn(); j++)
+				size += sizeOf((Rational) matrix.getValue(i, j));
+		return size;
+	}
+	/**
+	 * Write the header and the elements of a matrix
+	 */
+	private static void write(GenericMatrix<?> matrix, Output out) throws IOException {
+		int type = typeOf(matrix);
+		int row = matrix.getRow();
+		int column = matrix.getColumn();
+		boolean sparse = matrix instanceof SparseMatrix;
+		ByteBuffer buffer = out.require(HEADER_SIZE);
+		buffer.putInt(MAGIC).put((byte) VERSION).put((byte) type).put((byte) (sparse ? SPARSE : DENSE)).put((byte) 0);
+		buffer.putInt(row).putInt(column);
+
+		if (sparse) {
+			SparseMatrix<?> csr = (SparseMatrix<?>) matrix;
+			int nonZeros = csr.getNonZeros();
+			out.putInts(csr.getRowPointers(), 0, row + 1);
+			out.putInts(csr.getColumnIndices(), 0, nonZeros);
+			Number[] values = csr.getValues();
+			for (int p = 0; p < nonZeros; p++)
+				putValue(out, type, values[p]);
+		} else if (matrix instanceof DoubleMatrix) {
+			out.putDoubles(((DoubleMatrix) matrix).getData(), 0, row * column);
+		} else if (matrix instanceof IntegerMatrix) {
+			out.putInts(((IntegerMatrix) matrix).getData(), 0, row * column);
+		} else if (matrix instanceof FloatMatrix) {
+			out.putFloats(((FloatMatrix) matrix).getData(), 0, row * column);
+		} else if (matrix instanceof MappedDoubleMatrix) {
+			MappedDoubleMatrix mapped = (MappedDoubleMatrix) matrix;
+			double[] values = new double[column];
+			for (int i = 0; i < row; i++) {
+				mapped.read((long) i * column, values, 0, column);
+				out.putDoubles(values, 0, column);
+			}
+		} else {
+			for (int i = 0; i < row; i++)
+				for (int j = 0; j < column; j++)
+					putValue(out, type, matrix.getValue(i, j));
+		}
+	}
+	/**
+	 * Read the header and the elements of a matrix
+	 */
+	private static GenericMatrix<?> read(Input in) throws IOException {
+		ByteBuffer buffer = in.require(HEADER_SIZE);
+		int magic = buffer.getInt();
+		int version = buffer.get();
+		int type = buffer.get();
+		int layout = buffer.get();
+		buffer.get();
+		int row = buffer.getInt();
+		int column = buffer.getInt();
+		if (magic != MAGIC)
+			throw new RuntimeException("The data is not a matrix.");
+		if (version != VERSION || type < INTEGER || type > FLOAT || (layout != DENSE && layout != SPARSE))
+			throw new RuntimeException("The matrix format is not supported.");
+		if (row < 0 || column < 0)
+			throw new RuntimeException("The matrix does not have a valid size.");
+
+		if (layout == SPARSE) {
+			int[] rowPointers = new int[row + 1];
+			in.getInts(rowPointers, 0, row + 1);
+			int nonZeros = rowPointers[row];
+			int[] columnIndices = new int[nonZeros];
+			in.getInts(columnIndices, 0, nonZeros);
+			return readSparse(in, type, row, column, rowPointers, columnIndices);
+		}
+
+		switch (type) {
+		case DOUBLE:
+			double[] doubles = new double[Math.multiplyExact(row, column)];
+			in.getDoubles(doubles, 0, doubles.length);
+			return new DoubleMatrix(row, column, doubles);
+		case INTEGER:
+			int[] ints = new int[Math.multiplyExact(row, column)];
+			in.getInts(ints, 0, ints.length);
+			return new IntegerMatrix(row, column, ints);
+		case FLOAT:
+			float[] floats = new float[Math.multiplyExact(row, column)];
+			in.getFloats(floats, 0, floats.length);
+			return new FloatMatrix(row, column, floats);
+		default:
+			if (row == 0 || column == 0)
+				return new RationalMatrix().zeros(row, column);
+			Rational[][] rationals = new Rational[row][column];
+			for (int i = 0; i < row; i++)
+				for (int j = 0; j < column; j++)
+					rationals[i][j] = getRational(in);
+			return new RationalMatrix(rationals);
+		}
+	}
+	/**
+	 * Read the values of a sparse matrix after its indices
+	 */
+	private static GenericMatrix<?> readSparse(Input in, int type, int row, int column,
+			int[] rowPointers, int[] columnIndices) throws IOException {
+		int nonZeros = columnIndices.length;
+		switch (type) {
+		case DOUBLE:
+			double[] doubles = new double[nonZeros];
+			in.getDoubles(doubles, 0, nonZeros);
+			Double[] boxedDoubles = new Double[nonZeros];
+			for (int p = 0; p < nonZeros; p++)
+				boxedDoubles[p] = doubles[p];
+			return new SparseMatrix<>(new DoubleMatrix(), row, column, rowPointers, columnIndices, boxedDoubles);
+		case INTEGER:
+			int[] ints = new int[nonZeros];
+			in.getInts(ints, 0, nonZeros);
+			Integer[] boxedInts = new Integer[nonZeros];
+			for (int p = 0; p < nonZeros; p++)
+				boxedInts[p] = ints[p];
+			return new SparseMatrix<>(new IntegerMatrix(), row, column, rowPointers, columnIndices, boxedInts);
+		case FLOAT:
+			float[] floats = new float[nonZeros];
+			in.getFloats(floats, 0, nonZeros);
+			Float[] boxedFloats = new Float[nonZeros];
+			for (int p = 0; p < nonZeros; p++)
+				boxedFloats[p] = floats[p];
+			return new SparseMatrix<>(new FloatMatrix(), row, column, rowPointers, columnIndices, boxedFloats);
+		default:
+			Rational[] rationals = new Rational[nonZeros];
+			for (int p = 0; p < nonZeros; p++)
+				rationals[p] = getRational(in);
+			return new SparseMatrix<>(new RationalMatrix(), row, column, rowPointers, columnIndices, rationals);
+		}
+	}
+	/**
+	 * Get the element type of a matrix
+	 */
+	private static int typeOf(GenericMatrix<?> matrix) {
+		if (matrix instanceof DoubleMatrix || matrix instanceof MappedDoubleMatrix)
+			return DOUBLE;
+		if (matrix instanceof IntegerMatrix)
+			return INTEGER;
+		if (matrix instanceof RationalMatrix)
+			return RATIONAL;
+		if (matrix instanceof FloatMatrix)
+			return FLOAT;
+
+		Number zero = matrix.zero(); // e.g. of a SparseMatrix
+		if (zero instanceof Double)
+			return DOUBLE;
+		if (zero instanceof Integer)
+			return INTEGER;
+		if (zero instanceof Rational)
+			return RATIONAL;
+		if (zero instanceof Float)
+			return FLOAT;
+		throw new RuntimeException("The element type is not supported.");
+	}
+	/**
+	 * Write one element of the input type
+	 */
+	private static void putValue(Output out, int type, Number value) throws IOException {
+		switch (type) {
+		case DOUBLE:
+			out.require(8).putDouble(value.doubleValue());
+			break;
+		case INTEGER:
+			out.require(4).putInt(value.intValue());
+			break;
+		case FLOAT:
+			out.require(4).putFloat(value.floatValue());
+			break;
+		default:
+			Rational q = (Rational) value;
+			if (q.isSmall()) {
+				putLong(out, q.getLongNumerator());
+				putLong(out, q.getLongDenominator());
+			} else {
+				putBigInteger(out, q.getNumerator());
+				putBigInteger(out, q.getDenominator());
+			}
+		}
+	}
+	/**
+	 * Write a <code>long</code> as a byte count and its shortest two's complement, without a <code>BigInteger</code>
+	 */
+	private static void putLong(Output out, long value) throws IOException {
+		int length = byteCount(value);
+		ByteBuffer buffer = out.require(1 + length);
+		buffer.put((byte) length);
+		for (int shift = 8 * (length - 1); shift >= 0; shift -= 8)
+			buffer.put((byte) (value >> shift));
+	}
+	/**
+	 * Write a <code>BigInteger</code> as a varint byte count and its two's complement
+	 */
+	private static void putBigInteger(Output out, BigInteger value) throws IOException {
+		byte[] bytes = value.toByteArray();
+		putVarint(out, bytes.length);
+		out.putBytes(bytes);
+	}
+	/**
+	 * Write an unsigned varint, seven bits per byte with the high bit set on all but the last byte
+	 */
+	private static void putVarint(Output out, int value) throws IOException {
+		ByteBuffer buffer = out.require(varintLength(value)); // Exactly, so that getEncodedSize bytes are enough
+		while ((value & ~0x7F) != 0) {
+			buffer.put((byte) (value & 0x7F | 0x80));
+			value >>>= 7;
+		}
+		buffer.put((byte) value);
+	}
+	/**
+	 * Read a rational number, keeping it in <code>long</code>s when both parts fit
+	 */
+	private static Rational getRational(Input in) throws IOException {
+		int numeratorLength = getVarint(in);
+		if (numeratorLength <= 8) {
+			long numerator = getLong(in, numeratorLength);
+			int denominatorLength = getVarint(in);
+			if (denominatorLength <= 8)
+				return Rational.valueOf(numerator, getLong(in, denominatorLength));
+			return new Rational(BigInteger.valueOf(numerator), getBigInteger(in, denominatorLength));
+		}
+		BigInteger numerator = getBigInteger(in, numeratorLength);
+		return new Rational(numerator, getBigInteger(in, getVarint(in)));
+	}
+	/**
+	 * Read length bytes of two's complement into a <code>long</code>
+	 */
+	private static long getLong(Input in, int length) throws IOException {
+		if (length == 0)
+			throw new RuntimeException("The matrix format is not supported.");
+		ByteBuffer buffer = in.require(length);
+		long value = buffer.get(); // Sign-extended
+		for (int i = 1; i < length; i++)
+			value = value << 8 | (buffer.get() & 0xFF);
+		return value;
+	}
+	/**
+	 * Read length bytes of two's complement into a <code>BigInteger</code>
+	 */
+	private static BigInteger getBigInteger(Input in, int length) throws IOException {
+		byte[] bytes = new byte[length];
+		in.getBytes(bytes);
+		return new BigInteger(bytes);
+	}
+	/**
+	 * Read an unsigned varint
+	 */
+	private static int getVarint(Input in) throws IOException {
+		int value = 0;
+		for (int shift = 0; shift < 35; shift += 7) {
+			int b = in.require(1).get();
+			value |= (b & 0x7F) << shift;
+			if (b >= 0)
+				return value;
+		}
+		throw new RuntimeException("The matrix format is not supported.");
+	}
+	/**
+	 * Get the number of bytes a rational number is written in
+	 */
+	private static long sizeOf(Rational q) {
+		if (q.isSmall())
+			return 2 + byteCount(q.getLongNumerator()) + byteCount(q.getLongDenominator());
+		return sizeOf(q.getNumerator()) + sizeOf(q.getDenominator());
+	}
+	/**
+	 * Get the number of bytes a <code>BigInteger</code> is written in
+	 */
+	private static long sizeOf(BigInteger value) {
+		int length = value.bitLength() / 8 + 1; // The length of toByteArray()
+		return varintLength(length) + length;
+	}
+	/**
+	 * Get the number of bytes an unsigned varint is written in
+	 */
+	private static int varintLength(int value) {
+		int length = 1;
+		for (int rest = value >>> 7; rest != 0; rest >>>= 7)
+			length++;
+		return length;
+	}
+	/**
+	 * Get the length of the shortest two's complement of a <code>long</code>
+	 */
+	private static int byteCount(long value) {
+		int bits = 65 - Long.numberOfLeadingZeros(value ^ (value >> 63));
+		return (bits + 7) / 8;
+	}
+
+	/**
+	 * A buffer which is drained to a channel when it is full, or which fails without a channel
+	 */
+	private static final class Output {
+		private final ByteBuffer buffer;
+		private final WritableByteChannel channel;
+
+		Output(ByteBuffer buffer, WritableByteChannel channel) {
+			this.buffer = buffer;
+			this.channel = channel;
+		}
+		/**
+		 * Make room for length bytes, which must not exceed the capacity
+		 * @return the buffer to put them in
+		 */
+		ByteBuffer require(int length) throws IOException {
+			if (buffer.remaining() < length) {
+				if (channel == null)
+					throw new BufferOverflowException();
+				flush();
+			}
+			return buffer;
+		}
+		/**
+		 * Write the buffered bytes to the channel
+		 */
+		void flush() throws IOException {
+			if (channel == null)
+				return;
+			buffer.flip();
+			while (buffer.hasRemaining())
+				channel.write(buffer);
+			buffer.clear();
+		}
+		void putInts(int[] values, int offset, int length) throws IOException {
+			while (length > 0) {
+				int count = Math.min(length, require(4).remaining() / 4);
+				buffer.asIntBuffer().put(values, offset, count);
+				buffer.position(buffer.position() + 4 * count);
+				offset += count;
+				length -= count;
+			}
+		}
+		void putDoubles(double[] values, int offset, int length) throws IOException {
+			while (length > 0) {
+				int count = Math.min(length, require(8).remaining() / 8);
+				buffer.asDoubleBuffer().put(values, offset, count);
+				buffer.position(buffer.position() + 8 * count);
+				offset += count;
+				length -= count;
+			}
+		}
+		void putFloats(float[] values, int offset, int length) throws IOException {
+			while (length > 0) {
+				int count = Math.min(length, require(4).remaining() / 4);
+				buffer.asFloatBuffer().put(values, offset, count);
+				buffer.position(buffer.position() + 4 * count);
+				offset += count;
+				length -= count;
+			}
+		}
+		void putBytes(byte[] values) throws IOException {
+			for (int offset = 0; offset < values.length; ) {
+				int count = Math.min(values.length - offset, require(1).remaining());
+				buffer.put(values, offset, count);
+				offset += count;
+			}
+		}
+	}
+
+	/**
+	 * A buffer which is refilled from a channel when it runs out, or which fails without a channel
+	 */
+	private static final class Input {
+		private final ByteBuffer buffer;
+		private final ReadableByteChannel channel;
+
+		Input(ByteBuffer buffer, ReadableByteChannel channel) {
+			this.buffer = buffer;
+			this.channel = channel;
+		}
+		/**
+		 * Make length bytes available, which must not exceed the capacity
+		 * @return the buffer to get them from
+		 */
+		ByteBuffer require(int length) throws IOException {
+			if (buffer.remaining() >= length)
+				return buffer;
+			if (channel == null)
+				throw new BufferUnderflowException();
+			buffer.compact();
+			while (buffer.position() < length)
+				if (channel.read(buffer) < 0)
+					throw new IOException("The channel ends within the matrix.");
+			buffer.flip();
+			return buffer;
+		}
+		void getInts(int[] values, int offset, int length) throws IOException {
+			while (length > 0) {
+				int count = Math.min(length, require(4).remaining() / 4);
+				buffer.asIntBuffer().get(values, offset, count);
+				buffer.position(buffer.position() + 4 * count);
+				offset += count;
+				length -= count;
+			}
+		}
+		void getDoubles(double[] values, int offset, int length) throws IOException {
+			while (length > 0) {
+				int count = Math.min(length, require(8).remaining() / 8);
+				buffer.asDoubleBuffer().get(values, offset, count);
+				buffer.position(buffer.position() + 8 * count);
+				offset += count;
+				length -= count;
+			}
+		}
+		void getFloats(float[] values, int offset, int length) throws IOException {
+			while (length > 0) {
+				int count = Math.min(length, require(4).remaining() / 4);
+				buffer.asFloatBuffer().get(values, offset, count);
+				buffer.position(buffer.position() + 4 * count);
+				offset += count;
+				length -= count;
+			}
+		}
+		void getBytes(byte[] values) throws IOException {
+			for (int offset = 0; offset < values.length; ) {
+				int count = Math.min(values.length - offset, require(1).remaining());
+				buffer.get(values, offset, count);
+				offset += count;
+			}
+		}
+	}
+
+}
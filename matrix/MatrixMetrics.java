@@ -0,0 +1,310 @@
+package matrix;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.ObjectName;
+
+/**
+ * Counters and timers of the matrix operations, to tell where the time of a slow computation went.
+ * They are compiled in only when the JVM runs with the system property matrix.metrics=true, otherwise
+ * every call site is a test of a constant which the JIT removes. When they are compiled in, they are
+ * published as the MXBean matrix:type=MatrixMetrics and can be switched off and on at runtime.
+ * <p>
+ * The counters count the element operations of the generic algorithms (the primitive kernels do not
+ * call them), the temporary matrices created by <code>zeros</code> and <code>getCopy</code>, the pivots
+ * and row swaps of the eliminations and the hits and misses of the result cache. The timers measure
+ * the wall time of the outermost call of every operation on a thread, and pass it to the
+ * <code>MatrixTracer</code>, which records a JFR event per operation when the jfr module is on the class path.
+ */
+public final class MatrixMetrics {
+	/**
+	 * Whether the metrics are compiled in, read once from the system property matrix.metrics
+	 */
+	private static final boolean AVAILABLE = Boolean.getBoolean("matrix.metrics");
+	/**
+	 * The class of the tracer recording JFR events, found on the class path when the jfr module is built
+	 */
+	private static final String JFR_TRACER = "matrix.jfr.JfrMatrixTracer";
+	/**
+	 * The name of the MXBean
+	 */
+	public static final String OBJECT_NAME = "matrix:type=MatrixMetrics";
+
+	public enum Counter {
+		ELEMENT_ADDITIONS, ELEMENT_SUBTRACTIONS, ELEMENT_MULTIPLICATIONS, ELEMENT_DIVISIONS,
+		TEMPORARIES, TEMPORARY_ELEMENTS, PIVOTS, ROW_SWAPS, CACHE_HITS, CACHE_MISSES
+	}
+
+	public enum Operation {
+		MULTIPLY, SOLVE, RANK, DETERMINANT, LU_DECOMPOSITION, INVERSE, ADJOINT, COFACTOR_DETERMINANT
+	}
+
+	private static volatile boolean enabled = AVAILABLE;
+	private static volatile MatrixTracer tracer;
+	private static final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+	private static final Map<Operation, LongAdder> calls = new EnumMap<>(Operation.class);
+	private static final Map<Operation, LongAdder> nanos = new EnumMap<>(Operation.class);
+	/**
+	 * The innermost operation timed on the thread
+	 */
+	private static final ThreadLocal<Span> current = new ThreadLocal<>();
+
+	static {
+		for (Counter counter : Counter.values())
+			counters.put(counter, new LongAdder());
+		for (Operation operation : Operation.values()) {
+			calls.put(operation, new LongAdder());
+			nanos.put(operation, new LongAdder());
+		}
+		if (AVAILABLE) {
+			tracer = loadTracer();
+			register();
+		}
+	}
+
+	private MatrixMetrics() {
+
+	}
+	/**
+	 * Check if the metrics are compiled in
+	 * @return true if the JVM runs with matrix.metrics=true
+	 */
+	public static boolean isAvailable() {
+		return AVAILABLE;
+	}
+	/**
+	 * Check if the metrics are being collected
+	 * @return true if they are available and enabled
+	 */
+	public static boolean isEnabled() {
+		return AVAILABLE && enabled;
+	}
+	/**
+	 * Start or stop collecting the metrics, which has no effect unless they are available
+	 * @param enabled
+	 */
+	public static void setEnabled(boolean enabled) {
+		MatrixMetrics.enabled = enabled;
+	}
+	/**
+	 * Get the tracer the timed operations are passed to
+	 * @return the tracer, null if there is none
+	 */
+	public static MatrixTracer getTracer() {
+		return tracer;
+	}
+	/**
+	 * Set the tracer the timed operations are passed to
+	 * @param tracer the tracer, null for none
+	 */
+	public static void setTracer(MatrixTracer tracer) {
+		MatrixMetrics.tracer = tracer;
+	}
+	/**
+	 * Get the value of a counter
+	 * @param counter
+	 * @return the sum of the counts since the last reset
+	 */
+	public static long get(Counter counter) {
+		return counters.get(counter).sum();
+	}
+	/**
+	 * Get the number of timed calls of an operation
+	 * @param operation
+	 * @return the number of outermost calls since the last reset
+	 */
+	public static long getCalls(Operation operation) {
+		return calls.get(operation).sum();
+	}
+	/**
+	 * Get the wall time of an operation
+	 * @param operation
+	 * @return the nanoseconds spent in the outermost calls since the last reset
+	 */
+	public static long getNanos(Operation operation) {
+		return nanos.get(operation).sum();
+	}
+	/**
+	 * Reset every counter and timer to zero
+	 */
+	public static void reset() {
+		for (LongAdder adder : counters.values())
+			adder.reset();
+		for (LongAdder adder : calls.values())
+			adder.reset();
+		for (LongAdder adder : nanos.values())
+			adder.reset();
+	}
+	/**
+	 * Add to a counter
+	 * @param counter
+	 * @param count
+	 */
+	static void count(Counter counter, long count) {
+		if (AVAILABLE && enabled)
+			counters.get(counter).add(count);
+	}
+	/**
+	 * Count a pivot of an elimination
+	 * @param swapped true if rows were swapped to bring the pivot up
+	 */
+	static void pivot(boolean swapped) {
+		if (AVAILABLE && enabled) {
+			counters.get(Counter.PIVOTS).increment();
+			if (swapped)
+				counters.get(Counter.ROW_SWAPS).increment();
+		}
+	}
+	/**
+	 * Count a temporary matrix
+	 * @param row
+	 * @param column
+	 */
+	static void temporary(int row, int column) {
+		if (AVAILABLE && enabled) {
+			counters.get(Counter.TEMPORARIES).increment();
+			counters.get(Counter.TEMPORARY_ELEMENTS).add((long) row * column);
+		}
+	}
+	/**
+	 * Start timing an operation of a matrix. Calls of an operation made while it is timed on the same
+	 * thread, by an override calling super or a recursion, are not timed again
+	 * @param operation
+	 * @param matrix
+	 * @return the span to pass to <code>end</code>, null if it is not timed
+	 */
+	static Span begin(Operation operation, GenericMatrix<?> matrix) {
+		if (!AVAILABLE || !enabled)
+			return null;
+
+		Span parent = current.get();
+		for (Span span = parent; span != null; span = span.parent)
+			if (span.operation == operation)
+				return null;
+		MatrixTracer tracer = MatrixMetrics.tracer;
+		Span span = new Span(operation, parent, tracer);
+		if (tracer != null)
+			span.token = tracer.begin(operation.name(), matrix.getRow(), matrix.getColumn());
+		current.set(span);
+		span.start = System.nanoTime();
+		return span;
+	}
+	/**
+	 * Stop timing an operation
+	 * @param span the span returned by <code>begin</code>, or null
+	 */
+	static void end(Span span) {
+		if (span == null)
+			return;
+
+		long elapsed = System.nanoTime() - span.start;
+		calls.get(span.operation).increment();
+		nanos.get(span.operation).add(elapsed);
+		if (span.tracer != null)
+			span.tracer.end(span.token);
+		if (span.parent == null)
+			current.remove();
+		else
+			current.set(span.parent);
+	}
+	/**
+	 * Load the JFR tracer if it is on the class path and the JVM has JFR
+	 */
+	private static MatrixTracer loadTracer() {
+		try {
+			return (MatrixTracer) Class.forName(JFR_TRACER).getDeclaredConstructor().newInstance();
+		} catch (ReflectiveOperationException | LinkageError | SecurityException ex) {
+			return null;
+		}
+	}
+	/**
+	 * Publish the metrics as an MXBean, unless a class loader has published them already
+	 */
+	private static void register() {
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name))
+				ManagementFactory.getPlatformMBeanServer().registerMBean(new Bean(), name);
+		} catch (Exception | LinkageError ex) {
+			// The metrics can still be read from this class
+		}
+	}
+
+	/**
+	 * A timed call of an operation
+	 */
+	static final class Span {
+		private final Operation operation;
+		private final Span parent;
+		private final MatrixTracer tracer;
+		private Object token;
+		private long start;
+
+		Span(Operation operation, Span parent, MatrixTracer tracer) {
+			this.operation = operation;
+			this.parent = parent;
+			this.tracer = tracer;
+		}
+	}
+
+	/**
+	 * The management interface of the metrics
+	 */
+	public interface MatrixMetricsMXBean {
+		boolean isEnabled();
+		void setEnabled(boolean enabled);
+		/**
+		 * @return the value of every counter by its name
+		 */
+		Map<String, Long> getCounters();
+		/**
+		 * @return the number of timed calls of every operation by its name
+		 */
+		Map<String, Long> getCalls();
+		/**
+		 * @return the milliseconds spent in every operation by its name
+		 */
+		Map<String, Double> getMillis();
+		void reset();
+	}
+
+	private static final class Bean implements MatrixMetricsMXBean {
+		@Override
+		public boolean isEnabled() {
+			return MatrixMetrics.isEnabled();
+		}
+		@Override
+		public void setEnabled(boolean enabled) {
+			MatrixMetrics.setEnabled(enabled);
+		}
+		@Override
+		public Map<String, Long> getCounters() {
+			Map<String, Long> values = new LinkedHashMap<>();
+			for (Counter counter : Counter.values())
+				values.put(counter.name(), get(counter));
+			return values;
+		}
+		@Override
+		public Map<String, Long> getCalls() {
+			Map<String, Long> values = new LinkedHashMap<>();
+			for (Operation operation : Operation.values())
+				values.put(operation.name(), MatrixMetrics.getCalls(operation));
+			return values;
+		}
+		@Override
+		public Map<String, Double> getMillis() {
+			Map<String, Double> values = new LinkedHashMap<>();
+			for (Operation operation : Operation.values())
+				values.put(operation.name(), getNanos(operation) / 1e6);
+			return values;
+		}
+		@Override
+		public void reset() {
+			MatrixMetrics.reset();
+		}
+	}
+
+}
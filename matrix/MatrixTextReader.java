@@ -0,0 +1,709 @@
+package matrix;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Reads matrices from CSV, TSV and Matrix Market text. Numbers are parsed straight from a window of
+ * characters, without regular expressions or a <code>String</code> per element, so only the window and
+ * the matrix itself are held in memory. The elements of a row may be separated by commas, tabs or
+ * spaces; blank lines and lines starting with # or % are skipped. Matrix Market input is recognized by
+ * its %%MatrixMarket header.
+ */
+public final class MatrixTextReader implements Closeable {
+	/**
+	 * The initial size of the window, which only grows for tokens longer than it
+	 */
+	private static final int BUFFER_SIZE = 1 << 16;
+	/**
+	 * The powers of ten which are exact doubles
+	 */
+	private static final double[] POWERS_OF_TEN = {
+			1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	private static final String MATRIX_MARKET = "%%MatrixMarket";
+
+	/**
+	 * The source of the characters, or null when they are decoded from bytes
+	 */
+	private final Reader reader;
+	/**
+	 * The source of the bytes, or null when they are all in the bytes buffer
+	 */
+	private final ReadableByteChannel channel;
+	/**
+	 * The bytes not decoded yet, one character per byte
+	 */
+	private final ByteBuffer bytes;
+	/**
+	 * The window of characters, chars[position..limit) are not consumed yet
+	 */
+	private char[] chars = new char[BUFFER_SIZE];
+	private int position;
+	private int limit;
+	/**
+	 * Whether the source is exhausted
+	 */
+	private boolean end;
+
+	/**
+	 * Construct a new <code>MatrixTextReader</code> object over a character stream, which needs no buffering
+	 * @param reader
+	 */
+	public MatrixTextReader(Reader reader) {
+		this.reader = reader;
+		this.channel = null;
+		this.bytes = null;
+	}
+	/**
+	 * Construct a new <code>MatrixTextReader</code> object over a channel of ASCII or UTF-8 text
+	 * @param channel
+	 */
+	public MatrixTextReader(ReadableByteChannel channel) {
+		this.reader = null;
+		this.channel = channel;
+		this.bytes = ByteBuffer.allocate(BUFFER_SIZE);
+		this.bytes.limit(0);
+	}
+	/**
+	 * Construct a new <code>MatrixTextReader</code> object over the remaining bytes of a buffer of ASCII or
+	 * UTF-8 text, e.g. a mapped file, whose position is advanced as it is read
+	 * @param buffer
+	 */
+	public MatrixTextReader(ByteBuffer buffer) {
+		this.reader = null;
+		this.channel = null;
+		this.bytes = buffer;
+	}
+	/**
+	 * Read the next matrix of doubles
+	 * @return a <code>SparseMatrix</code> for Matrix Market coordinate input, a <code>DoubleMatrix</code> otherwise
+	 * @throws IOException if the source cannot be read
+	 */
+	public GenericMatrix<Double> readDoubleMatrix() throws IOException {
+		return read(new DoubleList());
+	}
+	/**
+	 * Read the next matrix of ints
+	 * @return a <code>SparseMatrix</code> for Matrix Market coordinate input, an <code>IntegerMatrix</code> otherwise
+	 * @throws IOException if the source cannot be read
+	 */
+	public GenericMatrix<Integer> readIntegerMatrix() throws IOException {
+		return read(new IntegerList());
+	}
+	/**
+	 * Read the next matrix of rational numbers, written as x/y, integers or decimals
+	 * @return a <code>SparseMatrix</code> for Matrix Market coordinate input, a <code>RationalMatrix</code> otherwise
+	 * @throws IOException if the source cannot be read
+	 */
+	public GenericMatrix<Rational> readRationalMatrix() throws IOException {
+		return read(new RationalList());
+	}
+	/**
+	 * Read the next row of CSV or TSV input, so that a matrix can be processed a row at a time
+	 * @param row the array the elements are put in
+	 * @return the number of elements in the row, or -1 at the end of the input
+	 * @throws IOException if the source cannot be read
+	 */
+	public int readRow(double[] row) throws IOException {
+		if (!startRow())
+			return -1;
+		int count = 0;
+		while (nextToken()) {
+			if (count == row.length)
+				throw new RuntimeException("The row is longer than the array.");
+			int end = tokenEnd();
+			row[count++] = parseDouble(chars, position, end);
+			position = end;
+		}
+		return count;
+	}
+	/**
+	 * Read the next row of CSV or TSV input, so that a matrix can be processed a row at a time
+	 * @param row the array the elements are put in
+	 * @return the number of elements in the row, or -1 at the end of the input
+	 * @throws IOException if the source cannot be read
+	 */
+	public int readRow(Rational[] row) throws IOException {
+		if (!startRow())
+			return -1;
+		int count = 0;
+		while (nextToken()) {
+			if (count == row.length)
+				throw new RuntimeException("The row is longer than the array.");
+			int end = tokenEnd();
+			row[count++] = parseRational(chars, position, end);
+			position = end;
+		}
+		return count;
+	}
+	/**
+	 * Close the source
+	 */
+	@Override
+	public void close() throws IOException {
+		if (reader != null)
+			reader.close();
+		if (channel != null)
+			channel.close();
+	}
+	/**
+	 * Read a matrix in whichever format the input is in
+	 */
+	private <E extends Number> GenericMatrix<E> read(ValueList<E> values) throws IOException {
+		if (startsWith(MATRIX_MARKET))
+			return readMatrixMarket(values);
+
+		int row = 0;
+		int column = -1;
+		while (startRow()) {
+			int count = 0;
+			while (nextToken()) {
+				int end = tokenEnd();
+				values.ensureCapacity(values.size + 1);
+				values.set(values.size++, chars, position, end);
+				position = end;
+				count++;
+			}
+			if (column < 0)
+				column = count;
+			else if (count != column)
+				throw new RuntimeException("The rows do not have the same length.");
+			row++;
+		}
+		if (row == 0)
+			throw new RuntimeException("The data is not a matrix.");
+		return values.toMatrix(row, column);
+	}
+	/**
+	 * Read a matrix in the Matrix Market exchange format, whose header line is next
+	 */
+	private <E extends Number> GenericMatrix<E> readMatrixMarket(ValueList<E> values) throws IOException {
+		// The header is the only text which is turned into strings
+		String[] header = new String[5]; // %%MatrixMarket object format field symmetry
+		for (int k = 0; k < header.length; k++)
+			if ((header[k] = nextWord()) == null)
+				throw new RuntimeException("The matrix format is not supported.");
+		skipLine();
+		String format = header[2];
+		String field = header[3];
+		String symmetry = header[4];
+		if (!header[1].equalsIgnoreCase("matrix")
+				|| !(field.equalsIgnoreCase("real") || field.equalsIgnoreCase("double")
+						|| field.equalsIgnoreCase("integer") || field.equalsIgnoreCase("rational")))
+			throw new RuntimeException("The matrix format is not supported.");
+		boolean symmetric = symmetry.equalsIgnoreCase("symmetric");
+		if (!symmetric && !symmetry.equalsIgnoreCase("general"))
+			throw new RuntimeException("The matrix format is not supported.");
+
+		if (!startRow())
+			throw new RuntimeException("The data is not a matrix.");
+		int row = nextIndex();
+		int column = nextIndex();
+
+		if (format.equalsIgnoreCase("coordinate")) {
+			int nonZeros = nextIndex();
+			skipLine();
+			SparseMatrix.Builder<E> builder = new SparseMatrix.Builder<>(values.ops(), row, column);
+			for (int k = 0; k < nonZeros; k++) {
+				if (!startRow())
+					throw new RuntimeException("The data is not a matrix.");
+				int i = nextIndex() - 1;
+				int j = nextIndex() - 1;
+				int end = nextValue();
+				E value = values.parse(chars, position, end);
+				position = end;
+				builder.add(i, j, value);
+				if (symmetric && i != j)
+					builder.add(j, i, value);
+				skipLine();
+			}
+			return builder.build();
+		}
+		if (!format.equalsIgnoreCase("array") || (symmetric && row != column))
+			throw new RuntimeException("The matrix format is not supported.");
+		skipLine();
+
+		// The elements come column by column, only the lower triangle of a symmetric matrix
+		values.ensureCapacity(Math.multiplyExact(row, column));
+		for (int j = 0; j < column; j++) {
+			for (int i = symmetric ? j : 0; i < row; i++) {
+				if (!startRow())
+					throw new RuntimeException("The data is not a matrix.");
+				int end = nextValue();
+				values.set(i * column + j, chars, position, end);
+				position = end;
+				if (symmetric)
+					values.copy(i * column + j, j * column + i);
+				skipLine();
+			}
+		}
+		return values.toMatrix(row, column);
+	}
+	/**
+	 * Find the end of the next token on the line, which must be there
+	 */
+	private int nextValue() throws IOException {
+		if (!nextToken())
+			throw new RuntimeException("The data is not a matrix.");
+		return tokenEnd();
+	}
+	/**
+	 * Parse the next token on the line as a non-negative int
+	 */
+	private int nextIndex() throws IOException {
+		int end = nextValue();
+		int index = parseInt(chars, position, end);
+		position = end;
+		if (index < 0)
+			throw new RuntimeException("The data is not a matrix.");
+		return index;
+	}
+	/**
+	 * Get the next token on the line as a <code>String</code>
+	 * @return the token, or null at the end of the line
+	 */
+	private String nextWord() throws IOException {
+		if (!nextToken())
+			return null;
+		int end = tokenEnd();
+		String word = new String(chars, position, end - position);
+		position = end;
+		return word;
+	}
+	/**
+	 * Check if the input continues with the prefix, without consuming it
+	 */
+	private boolean startsWith(String prefix) throws IOException {
+		while (limit - position < prefix.length())
+			if (!fill())
+				return false;
+		for (int i = 0; i < prefix.length(); i++)
+			if (chars[position + i] != prefix.charAt(i))
+				return false;
+		return true;
+	}
+	/**
+	 * Skip the blank and comment lines
+	 * @return true if a row starts at the position, false at the end of the input
+	 */
+	private boolean startRow() throws IOException {
+		while (true) {
+			int c = peek();
+			if (c < 0)
+				return false;
+			if (c == '\n' || isSeparator(c))
+				position++;
+			else if (c == '#' || c == '%')
+				skipLine();
+			else
+				return true;
+		}
+	}
+	/**
+	 * Skip the separators before the next token of the line
+	 * @return true if a token starts at the position, false at the end of the line, which is consumed
+	 */
+	private boolean nextToken() throws IOException {
+		while (true) {
+			int c = peek();
+			if (c < 0)
+				return false;
+			if (c == '\n') {
+				position++;
+				return false;
+			}
+			if (!isSeparator(c))
+				return true;
+			position++;
+		}
+	}
+	/**
+	 * Find the end of the token at the position, refilling the window until all of it is in
+	 * @return the index after the last character of the token
+	 */
+	private int tokenEnd() throws IOException {
+		int i = position;
+		while (true) {
+			for (; i < limit; i++)
+				if (chars[i] == '\n' || isSeparator(chars[i]))
+					return i;
+			int offset = i - position;
+			if (!fill())
+				return limit;
+			i = position + offset;
+		}
+	}
+	/**
+	 * Skip the rest of the line and its line break
+	 */
+	private void skipLine() throws IOException {
+		while (true) {
+			for (; position < limit; position++)
+				if (chars[position] == '\n') {
+					position++;
+					return;
+				}
+			if (!fill())
+				return;
+		}
+	}
+	/**
+	 * Get the next character without consuming it
+	 * @return the character, or -1 at the end of the input
+	 */
+	private int peek() throws IOException {
+		if (position == limit && !fill())
+			return -1;
+		return chars[position];
+	}
+	/**
+	 * Move the unconsumed characters to the start of the window and read more after them
+	 * @return false if the source is exhausted
+	 */
+	private boolean fill() throws IOException {
+		if (end)
+			return false;
+		if (position > 0) {
+			System.arraycopy(chars, position, chars, 0, limit - position);
+			limit -= position;
+			position = 0;
+		}
+		if (limit == chars.length) // A token longer than the window
+			chars = Arrays.copyOf(chars, 2 * chars.length);
+
+		int count = reader != null ? reader.read(chars, limit, chars.length - limit) : decode();
+		if (count <= 0) {
+			end = true;
+			return false;
+		}
+		limit += count;
+		return true;
+	}
+	/**
+	 * Copy the next bytes into the window, one character per byte. Numbers and separators are ASCII,
+	 * other UTF-8 characters may only be in comments, where they do not matter
+	 * @return the number of characters, or -1 at the end of the bytes
+	 */
+	private int decode() throws IOException {
+		if (!bytes.hasRemaining()) {
+			if (channel == null)
+				return -1;
+			bytes.clear();
+			int count = channel.read(bytes);
+			bytes.flip();
+			if (count < 0)
+				return -1;
+		}
+		int count = Math.min(bytes.remaining(), chars.length - limit);
+		for (int i = 0; i < count; i++)
+			chars[limit + i] = (char) (bytes.get() & 0xFF);
+		return count;
+	}
+	private static boolean isSeparator(int c) {
+		return c == ',' || c == ' ' || c == '\t' || c == '\r';
+	}
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+	/**
+	 * Parse chars[from..to) as a double. Up to 18 significant digits times a power of ten up to 22 is
+	 * computed exactly, which covers most input; other numbers fall back to <code>Double.parseDouble</code>
+	 * so that every result is correctly rounded
+	 */
+	static double parseDouble(char[] s, int from, int to) {
+		int i = from;
+		boolean negative = false;
+		if (i < to && (s[i] == '-' || s[i] == '+'))
+			negative = s[i++] == '-';
+
+		long significand = 0;
+		int exponent = 0;
+		int digits = 0; // The significant digits in the significand
+		int count = 0; // All the digits of the mantissa
+		boolean exact = true;
+		for (; i < to && isDigit(s[i]); i++, count++) {
+			if (digits < 18) {
+				significand = significand * 10 + (s[i] - '0');
+				if (significand != 0)
+					digits++;
+			} else {
+				exponent++;
+				exact &= s[i] == '0';
+			}
+		}
+		if (i < to && s[i] == '.') {
+			for (i++; i < to && isDigit(s[i]); i++, count++) {
+				if (digits < 18) {
+					significand = significand * 10 + (s[i] - '0');
+					exponent--;
+					if (significand != 0)
+						digits++;
+				} else
+					exact &= s[i] == '0';
+			}
+		}
+		if (count == 0) // e.g. NaN or Infinity
+			return Double.parseDouble(new String(s, from, to - from));
+		if (i < to && (s[i] == 'e' || s[i] == 'E')) {
+			i++;
+			boolean negativeExponent = false;
+			if (i < to && (s[i] == '-' || s[i] == '+'))
+				negativeExponent = s[i++] == '-';
+			int start = i;
+			int e = 0;
+			for (; i < to && isDigit(s[i]); i++)
+				if (e < 100000)
+					e = e * 10 + (s[i] - '0');
+			if (i == start)
+				throw numberFormat(s, from, to);
+			exponent += negativeExponent ? -e : e;
+		}
+
+		if (i == to && exact && significand < 1L << 53 && exponent >= -22 && exponent <= 22) {
+			// Both operands are exact, so the one rounding gives the correctly rounded result
+			double value = exponent < 0 ? significand / POWERS_OF_TEN[-exponent] : significand * POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+		return Double.parseDouble(new String(s, from, to - from));
+	}
+	/**
+	 * Parse chars[from..to) as a rational number x/y, where x may be a decimal and y an integer.
+	 * Numbers which fit in <code>long</code>s are parsed without any allocation
+	 */
+	static Rational parseRational(char[] s, int from, int to) {
+		int slash = -1;
+		for (int i = from; i < to; i++)
+			if (s[i] == '/') {
+				slash = i;
+				break;
+			}
+		int numeratorEnd = slash < 0 ? to : slash;
+
+		int i = from;
+		boolean negative = false;
+		if (i < numeratorEnd && (s[i] == '-' || s[i] == '+'))
+			negative = s[i++] == '-';
+		long numerator = 0;
+		long scale = 1;
+		int count = 0;
+		boolean fraction = false;
+		for (; i < numeratorEnd; i++) {
+			char c = s[i];
+			if (c == '.' && !fraction) {
+				fraction = true;
+				continue;
+			}
+			if (!isDigit(c))
+				throw numberFormat(s, from, to);
+			if (numerator > (Long.MAX_VALUE - 9) / 10 || scale > Long.MAX_VALUE / 10)
+				return parseBigRational(s, from, to, slash);
+			numerator = numerator * 10 + (c - '0');
+			if (fraction)
+				scale *= 10;
+			count++;
+		}
+		if (count == 0)
+			throw numberFormat(s, from, to);
+
+		long denominator = 1;
+		if (slash >= 0) {
+			try {
+				denominator = parseLong(s, slash + 1, to);
+				denominator = Math.multiplyExact(denominator, scale);
+			} catch (ArithmeticException | NumberFormatException ex) {
+				return parseBigRational(s, from, to, slash);
+			}
+		} else
+			denominator = scale;
+		return Rational.valueOf(negative ? -numerator : numerator, denominator);
+	}
+	/**
+	 * Parse chars[from..to) as a rational number whose parts do not fit in <code>long</code>s
+	 */
+	private static Rational parseBigRational(char[] s, int from, int to, int slash) {
+		String numerator = new String(s, from, (slash < 0 ? to : slash) - from);
+		BigInteger scale = BigInteger.ONE;
+		int point = numerator.indexOf('.');
+		if (point >= 0) {
+			scale = BigInteger.TEN.pow(numerator.length() - point - 1);
+			numerator = numerator.substring(0, point) + numerator.substring(point + 1);
+		}
+		BigInteger denominator = slash < 0 ? BigInteger.ONE : new BigInteger(new String(s, slash + 1, to - slash - 1));
+		return new Rational(new BigInteger(numerator), denominator.multiply(scale));
+	}
+	/**
+	 * Parse chars[from..to) as an int
+	 */
+	static int parseInt(char[] s, int from, int to) {
+		long value = parseLong(s, from, to);
+		if (value != (int) value)
+			throw numberFormat(s, from, to);
+		return (int) value;
+	}
+	/**
+	 * Parse chars[from..to) as a long
+	 */
+	static long parseLong(char[] s, int from, int to) {
+		int i = from;
+		boolean negative = false;
+		if (i < to && (s[i] == '-' || s[i] == '+'))
+			negative = s[i++] == '-';
+		if (i == to)
+			throw numberFormat(s, from, to);
+
+		long value = 0; // Accumulated negatively, so that Long.MIN_VALUE fits
+		for (; i < to; i++) {
+			int digit = s[i] - '0';
+			if (digit < 0 || digit > 9 || value < Long.MIN_VALUE / 10)
+				throw numberFormat(s, from, to);
+			value *= 10;
+			if (value < Long.MIN_VALUE + digit)
+				throw numberFormat(s, from, to);
+			value -= digit;
+		}
+		if (!negative && value == Long.MIN_VALUE)
+			throw numberFormat(s, from, to);
+		return negative ? value : -value;
+	}
+	private static NumberFormatException numberFormat(char[] s, int from, int to) {
+		return new NumberFormatException("For input string: \"" + new String(s, from, to - from) + "\"");
+	}
+
+	/**
+	 * The elements of a matrix being read, in a flat array of the element type
+	 */
+	private abstract static class ValueList<E extends Number> {
+		int size;
+
+		/**
+		 * Get a dense matrix of the element type whose element operations are used
+		 */
+		abstract GenericMatrix<E> ops();
+		/**
+		 * Parse chars[from..to) as an element
+		 */
+		abstract E parse(char[] s, int from, int to);
+		/**
+		 * Parse chars[from..to) into the element at the index
+		 */
+		abstract void set(int index, char[] s, int from, int to);
+		/**
+		 * Copy the element at the source index to the target index
+		 */
+		abstract void copy(int source, int target);
+		/**
+		 * Make room for at least capacity elements
+		 */
+		abstract void ensureCapacity(int capacity);
+		/**
+		 * Construct a new dense matrix over the first row * column elements
+		 */
+		abstract GenericMatrix<E> toMatrix(int row, int column);
+
+		static int grow(int length, int capacity) {
+			return Math.max(capacity, (int) Math.min(Integer.MAX_VALUE - 8, length * 3L / 2 + 16));
+		}
+	}
+
+	private static final class DoubleList extends ValueList<Double> {
+		private double[] data = new double[0];
+
+		@Override
+		GenericMatrix<Double> ops() {
+			return new DoubleMatrix();
+		}
+		@Override
+		Double parse(char[] s, int from, int to) {
+			return parseDouble(s, from, to);
+		}
+		@Override
+		void set(int index, char[] s, int from, int to) {
+			data[index] = parseDouble(s, from, to);
+		}
+		@Override
+		void copy(int source, int target) {
+			data[target] = data[source];
+		}
+		@Override
+		void ensureCapacity(int capacity) {
+			if (capacity > data.length)
+				data = Arrays.copyOf(data, grow(data.length, capacity));
+		}
+		@Override
+		GenericMatrix<Double> toMatrix(int row, int column) {
+			int length = row * column;
+			return new DoubleMatrix(row, column, data.length == length ? data : Arrays.copyOf(data, length));
+		}
+	}
+
+	private static final class IntegerList extends ValueList<Integer> {
+		private int[] data = new int[0];
+
+		@Override
+		GenericMatrix<Integer> ops() {
+			return new IntegerMatrix();
+		}
+		@Override
+		Integer parse(char[] s, int from, int to) {
+			return parseInt(s, from, to);
+		}
+		@Override
+		void set(int index, char[] s, int from, int to) {
+			data[index] = parseInt(s, from, to);
+		}
+		@Override
+		void copy(int source, int target) {
+			data[target] = data[source];
+		}
+		@Override
+		void ensureCapacity(int capacity) {
+			if (capacity > data.length)
+				data = Arrays.copyOf(data, grow(data.length, capacity));
+		}
+		@Override
+		GenericMatrix<Integer> toMatrix(int row, int column) {
+			int length = row * column;
+			return new IntegerMatrix(row, column, data.length == length ? data : Arrays.copyOf(data, length));
+		}
+	}
+
+	private static final class RationalList extends ValueList<Rational> {
+		private Rational[] data = new Rational[0];
+
+		@Override
+		GenericMatrix<Rational> ops() {
+			return new RationalMatrix();
+		}
+		@Override
+		Rational parse(char[] s, int from, int to) {
+			return parseRational(s, from, to);
+		}
+		@Override
+		void set(int index, char[] s, int from, int to) {
+			data[index] = parseRational(s, from, to);
+		}
+		@Override
+		void copy(int source, int target) {
+			data[target] = data[source];
+		}
+		@Override
+		void ensureCapacity(int capacity) {
+			if (capacity > data.length)
+				data = Arrays.copyOf(data, grow(data.length, capacity));
+		}
+		@Override
+		GenericMatrix<Rational> toMatrix(int row, int column) {
+			Rational[][] matrix = new Rational[row][column];
+			for (int i = 0; i < row; i++)
+				System.arraycopy(data, i * column, matrix[i], 0, column);
+			return new RationalMatrix(matrix);
+		}
+	}
+
+}
@@ -0,0 +1,275 @@
+package matrix;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes matrices as CSV, TSV or Matrix Market text. The characters are collected in a buffer which
+ * is handed to the writer a block at a time, so the writer needs no buffering of its own, and ints,
+ * integral doubles and rationals in <code>long</code>s are formatted without a <code>String</code> per element.
+ * Doubles are written as by <code>Double.toString</code>, so that they are read back exactly.
+ */
+public final class MatrixTextWriter implements Closeable, Flushable {
+	private static final int BUFFER_SIZE = 1 << 16;
+	/**
+	 * The longest long, "-9223372036854775808"
+	 */
+	private static final int MAX_LONG_LENGTH = 20;
+
+	private final Writer writer;
+	private final TextFormat format;
+	/**
+	 * The characters not handed to the writer yet
+	 */
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int size;
+
+	/**
+	 * Construct a new <code>MatrixTextWriter</code> object
+	 * @param writer the destination of the text
+	 * @param format the format the matrices are written in
+	 */
+	public MatrixTextWriter(Writer writer, TextFormat format) {
+		this.writer = writer;
+		this.format = format;
+	}
+	/**
+	 * Write a matrix of ints, doubles or rational numbers
+	 * @param matrix
+	 * @throws IOException if the writer fails
+	 */
+	public void write(GenericMatrix<?> matrix) throws IOException {
+		if (format == TextFormat.MATRIX_MARKET) {
+			writeMatrixMarket(matrix);
+			return;
+		}
+
+		char separator = format == TextFormat.CSV ? ',' : '\t';
+		int row = matrix.getRow();
+		int column = matrix.getColumn();
+		if (matrix instanceof DoubleMatrix) {
+			double[] data = ((DoubleMatrix) matrix).getData();
+			for (int i = 0; i < row; i++) {
+				for (int j = 0; j < column; j++) {
+					if (j > 0)
+						append(separator);
+					appendDouble(data[i * column + j]);
+				}
+				append('\n');
+			}
+		} else if (matrix instanceof IntegerMatrix) {
+			int[] data = ((IntegerMatrix) matrix).getData();
+			for (int i = 0; i < row; i++) {
+				for (int j = 0; j < column; j++) {
+					if (j > 0)
+						append(separator);
+					appendLong(data[i * column + j]);
+				}
+				append('\n');
+			}
+		} else if (matrix instanceof MappedDoubleMatrix) {
+			double[] values = new double[column];
+			for (int i = 0; i < row; i++) {
+				((MappedDoubleMatrix) matrix).read((long) i * column, values, 0, column);
+				writeRow(values);
+			}
+		} else {
+			for (int i = 0; i < row; i++) {
+				for (int j = 0; j < column; j++) {
+					if (j > 0)
+						append(separator);
+					appendValue(matrix.getValue(i, j));
+				}
+				append('\n');
+			}
+		}
+	}
+	/**
+	 * Write a row of CSV or TSV output, so that a matrix can be written a row at a time
+	 * @param row the elements of the row
+	 * @throws IOException if the writer fails
+	 */
+	public void writeRow(double[] row) throws IOException {
+		char separator = getSeparator();
+		for (int j = 0; j < row.length; j++) {
+			if (j > 0)
+				append(separator);
+			appendDouble(row[j]);
+		}
+		append('\n');
+	}
+	/**
+	 * Write a row of CSV or TSV output, so that a matrix can be written a row at a time
+	 * @param row the elements of the row
+	 * @throws IOException if the writer fails
+	 */
+	public void writeRow(Rational[] row) throws IOException {
+		char separator = getSeparator();
+		for (int j = 0; j < row.length; j++) {
+			if (j > 0)
+				append(separator);
+			appendRational(row[j]);
+		}
+		append('\n');
+	}
+	/**
+	 * Hand the buffered text to the writer and flush it
+	 */
+	@Override
+	public void flush() throws IOException {
+		drain();
+		writer.flush();
+	}
+	/**
+	 * Hand the buffered text to the writer and close it
+	 */
+	@Override
+	public void close() throws IOException {
+		drain();
+		writer.close();
+	}
+	/**
+	 * Write a matrix in the Matrix Market exchange format, as coordinates if it is sparse and column
+	 * by column otherwise
+	 */
+	private void writeMatrixMarket(GenericMatrix<?> matrix) throws IOException {
+		Number zero = matrix.zero();
+		String field = zero instanceof Double || zero instanceof Float ? "real"
+				: zero instanceof Integer ? "integer" : "rational";
+		int row = matrix.getRow();
+		int column = matrix.getColumn();
+
+		if (matrix instanceof SparseMatrix) {
+			SparseMatrix<?> sparse = (SparseMatrix<?>) matrix;
+			int[] rowPointers = sparse.getRowPointers();
+			int[] columnIndices = sparse.getColumnIndices();
+			Number[] values = sparse.getValues();
+			append("%%MatrixMarket matrix coordinate " + field + " general\n");
+			appendLong(row);
+			append(' ');
+			appendLong(column);
+			append(' ');
+			appendLong(sparse.getNonZeros());
+			append('\n');
+			for (int i = 0; i < row; i++) {
+				for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+					appendLong(i + 1);
+					append(' ');
+					appendLong(columnIndices[p] + 1);
+					append(' ');
+					appendValue(values[p]);
+					append('\n');
+				}
+			}
+			return;
+		}
+
+		append("%%MatrixMarket matrix array " + field + " general\n");
+		appendLong(row);
+		append(' ');
+		appendLong(column);
+		append('\n');
+		double[] data = matrix instanceof DoubleMatrix ? ((DoubleMatrix) matrix).getData() : null;
+		for (int j = 0; j < column; j++) {
+			for (int i = 0; i < row; i++) {
+				if (data != null)
+					appendDouble(data[i * column + j]);
+				else
+					appendValue(matrix.getValue(i, j));
+				append('\n');
+			}
+		}
+	}
+	/**
+	 * Get the separator of the elements of a row
+	 */
+	private char getSeparator() {
+		if (format == TextFormat.MATRIX_MARKET)
+			throw new RuntimeException("Matrix Market is written a matrix at a time.");
+		return format == TextFormat.CSV ? ',' : '\t';
+	}
+	private void appendValue(Number value) throws IOException {
+		if (value instanceof Double)
+			appendDouble((Double) value);
+		else if (value instanceof Integer)
+			appendLong((Integer) value);
+		else if (value instanceof Rational)
+			appendRational((Rational) value);
+		else
+			append(value.toString());
+	}
+	/**
+	 * Append a rational number as x/y, or x if its denominator is one
+	 */
+	private void appendRational(Rational q) throws IOException {
+		if (!q.isSmall()) {
+			append(q.toString());
+			return;
+		}
+		appendLong(q.getLongNumerator());
+		if (q.getLongDenominator() != 1) {
+			append('/');
+			appendLong(q.getLongDenominator());
+		}
+	}
+	/**
+	 * Append a double as <code>Double.toString</code> does, formatting the integral ones which it writes
+	 * without an exponent digit by digit
+	 */
+	private void appendDouble(double value) throws IOException {
+		if (value == Math.rint(value) && Math.abs(value) < 1e7 && (value != 0.0 || 1 / value > 0)) {
+			appendLong((long) value);
+			append(".0");
+		} else
+			append(Double.toString(value));
+	}
+	/**
+	 * Append the decimal digits of a long
+	 */
+	private void appendLong(long value) throws IOException {
+		if (value == Long.MIN_VALUE) { // Its negation overflows
+			append(Long.toString(value));
+			return;
+		}
+		if (BUFFER_SIZE - size < MAX_LONG_LENGTH)
+			drain();
+		if (value < 0) {
+			buffer[size++] = '-';
+			value = -value;
+		}
+		int length = 1;
+		for (long rest = value / 10; rest != 0; rest /= 10)
+			length++;
+		for (int i = size + length - 1; i >= size; i--) {
+			buffer[i] = (char) ('0' + value % 10);
+			value /= 10;
+		}
+		size += length;
+	}
+	private void append(char c) throws IOException {
+		if (size == BUFFER_SIZE)
+			drain();
+		buffer[size++] = c;
+	}
+	private void append(String s) throws IOException {
+		if (BUFFER_SIZE - size < s.length()) {
+			drain();
+			if (s.length() > BUFFER_SIZE) { // e.g. a huge BigInteger
+				writer.write(s);
+				return;
+			}
+		}
+		s.getChars(0, s.length(), buffer, size);
+		size += s.length();
+	}
+	/**
+	 * Hand the buffered text to the writer
+	 */
+	private void drain() throws IOException {
+		writer.write(buffer, 0, size);
+		size = 0;
+	}
+
+}
@@ -0,0 +1,25 @@
+package matrix;
+
+/**
+ * Receives the operations timed by <code>MatrixMetrics</code>, e.g. to record them as JFR events or
+ * as spans of a distributed trace. The calls are made on the thread running the operation and nest
+ * like the operations
+ */
+public abstract class MatrixTracer {
+	protected MatrixTracer() {
+
+	}
+	/**
+	 * An operation starts
+	 * @param operation the name of the operation
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @return an object passed to <code>end</code>, e.g. the event, or null
+	 */
+	public abstract Object begin(String operation, int row, int column);
+	/**
+	 * The operation started by <code>begin</code> ends
+	 * @param token the object returned by <code>begin</code>
+	 */
+	public abstract void end(Object token);
+}
@@ -0,0 +1,342 @@
+package matrix;
+
+/**
+ * A view of a part of another matrix: its transposition, a block of rows and columns, or the matrix
+ * without a row and a column. A view is created in O(1) and reads the elements of its parent through
+ * an index mapping, so it shows later changes of the parent. Writing to a view copies its elements
+ * first, and from then on the view is an ordinary matrix which does not change the parent.
+ * <p>
+ * Every <code>GenericMatrix</code> operation accepts a view. The operations which work on the element
+ * arrays get a copy of the elements from <code>getMatrix</code>, and their results have the type of the parent.
+ */
+public final class MatrixView<E extends Number> extends GenericMatrix<E> {
+	/**
+	 * The matrix the view reads, which is never an unwritten view
+	 */
+	private final GenericMatrix<E> parent;
+	/**
+	 * The rows and the columns of the parent the view reads
+	 */
+	private final IndexMap rows;
+	private final IndexMap columns;
+	/**
+	 * True if the rows of the view are the columns of the parent
+	 */
+	private final boolean transposed;
+	/**
+	 * True once the view has been written to, when the elements are kept by <code>GenericMatrix</code>
+	 */
+	private boolean copied;
+
+	private MatrixView(GenericMatrix<E> parent, int row, int column, IndexMap rows, IndexMap columns, boolean transposed) {
+		super(row, column);
+		this.parent = parent;
+		this.rows = rows;
+		this.columns = columns;
+		this.transposed = transposed;
+	}
+	/**
+	 * Create a view of a matrix. A view of an unwritten view reads the parent of that view directly,
+	 * so that the elements of views of views are found in one step
+	 * @param matrix the matrix
+	 * @param rows the rows of the matrix the view reads
+	 * @param columns the columns of the matrix the view reads
+	 * @param transposed true if the rows of the view are the columns read
+	 */
+	private static <E extends Number> MatrixView<E> create(GenericMatrix<E> matrix, int row, int column,
+			IndexMap rows, IndexMap columns, boolean transposed) {
+		if (!(matrix instanceof MatrixView) || ((MatrixView<E>) matrix).copied)
+			return new MatrixView<>(matrix, row, column, rows, columns, transposed);
+
+		MatrixView<E> view = (MatrixView<E>) matrix;
+		int rowLength = transposed ? column : row;
+		int columnLength = transposed ? row : column;
+		if (view.transposed) // The rows read are columns of the parent
+			return new MatrixView<>(view.parent, row, column, columns.then(view.rows, columnLength),
+					rows.then(view.columns, rowLength), !transposed);
+		return new MatrixView<>(view.parent, row, column, rows.then(view.rows, rowLength),
+				columns.then(view.columns, columnLength), transposed);
+	}
+	/**
+	 * Get the transposition of a matrix as a view
+	 * @param matrix
+	 * @return the view of matrix^T
+	 */
+	public static <E extends Number> MatrixView<E> transpose(GenericMatrix<E> matrix) {
+		return create(matrix, matrix.getColumn(), matrix.getRow(), IndexMap.IDENTITY, IndexMap.IDENTITY, true);
+	}
+	/**
+	 * Get the rows [fromRow, toRow) and columns [fromColumn, toColumn) of a matrix as a view
+	 * @param matrix
+	 * @param fromRow the first row, inclusive
+	 * @param toRow the last row, exclusive
+	 * @param fromColumn the first column, inclusive
+	 * @param toColumn the last column, exclusive
+	 * @return the view of the block
+	 */
+	public static <E extends Number> MatrixView<E> submatrix(GenericMatrix<E> matrix,
+			int fromRow, int toRow, int fromColumn, int toColumn) {
+		if (fromRow < 0 || toRow > matrix.getRow() || fromRow >= toRow
+				|| fromColumn < 0 || toColumn > matrix.getColumn() || fromColumn >= toColumn)
+			throw new NullPointerException("Invalid input!");
+		return create(matrix, toRow - fromRow, toColumn - fromColumn,
+				new IndexMap(fromRow, -1), new IndexMap(fromColumn, -1), false);
+	}
+	/**
+	 * Get a matrix without a row and a column as a view
+	 * @param matrix
+	 * @param row the row index left out
+	 * @param column the column index left out
+	 * @return the view of the complement minor
+	 */
+	public static <E extends Number> MatrixView<E> complementMinor(GenericMatrix<E> matrix, int row, int column) {
+		if (row < 0 || row >= matrix.getRow() || column < 0 || column >= matrix.getColumn()
+				|| matrix.getRow() < 2 || matrix.getColumn() < 2)
+			throw new NullPointerException("Invalid input!");
+		return create(matrix, matrix.getRow() - 1, matrix.getColumn() - 1,
+				new IndexMap(0, row), new IndexMap(0, column), false);
+	}
+	/**
+	 * Get the matrix the view reads
+	 * @return the parent
+	 */
+	public GenericMatrix<E> getParent() {
+		return parent;
+	}
+	/**
+	 * Check if the view has been written to and no longer reads its parent
+	 * @return true if the elements have been copied
+	 */
+	public boolean isCopied() {
+		return copied;
+	}
+	/**
+	 * Get the version of the parent until the view is written to, so that the results of the queries
+	 * of the view are computed again when the parent changes
+	 */
+	@Override
+	public long getVersion() {
+		return copied ? super.getVersion() : parent.getVersion();
+	}
+	/**
+	 * Get the elements of the view, which are a new array until it is written to
+	 */
+	@Override
+	public E[][] getMatrix() {
+		if (copied)
+			return super.getMatrix();
+
+		E[][] matrix = parent.zeros(getRow(), getColumn()).getMatrix();
+		for (int i = 0; i < getRow(); i++)
+			for (int j = 0; j < getColumn(); j++)
+				matrix[i][j] = get(i, j);
+		return matrix;
+	}
+	/**
+	 * Set the elements of the view, which stops reading the parent
+	 */
+	@Override
+	public void setMatrix(E[][] matrix) {
+		super.setMatrix(matrix);
+		setRow(matrix.length);
+		setColumn(matrix[0].length);
+		copied = true;
+	}
+	@Override
+	public E getValue(int row, int column) {
+		if (copied)
+			return super.getValue(row, column);
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		return get(row, column);
+	}
+	/**
+	 * Set the value of matrix[row][column], copying the elements of the view first
+	 */
+	@Override
+	public void setValue(int row, int column, E value) {
+		if (!copied) {
+			if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+				throw new NullPointerException("Invalid input!");
+			setMatrix(getMatrix());
+		}
+		super.setValue(row, column, value);
+	}
+	/**
+	 * Read the element [i][j] from the parent
+	 */
+	private E get(int i, int j) {
+		if (transposed)
+			return parent.getValue(rows.get(j), columns.get(i));
+		return parent.getValue(rows.get(i), columns.get(j));
+	}
+	@Override
+	public E add(E o1, E o2) {
+		return parent.add(o1, o2);
+	}
+	@Override
+	public E subtract(E o1, E o2) {
+		return parent.subtract(o1, o2);
+	}
+	@Override
+	public E multiply(E o1, E o2) {
+		return parent.multiply(o1, o2);
+	}
+	@Override
+	public E divide(E o1, E o2) {
+		return parent.divide(o1, o2);
+	}
+	@Override
+	public E zero() {
+		return parent.zero();
+	}
+	@Override
+	public E abs(E o) {
+		return parent.abs(o);
+	}
+	@Override
+	public E powOfMinusOne(int power) {
+		return parent.powOfMinusOne(power);
+	}
+	@Override
+	public int compare(E o1, E o2) {
+		return parent.compare(o1, o2);
+	}
+	@Override
+	public GenericMatrix<E> zeros(int row, int column) {
+		return parent.zeros(row, column);
+	}
+	@Override
+	public GenericMatrix<E> eye(int row) {
+		return parent.eye(row);
+	}
+	/**
+	 * Get a copy of the view as a matrix of the type of the parent
+	 */
+	@Override
+	public GenericMatrix<E> getCopy() {
+		GenericMatrix<E> copy = parent.zeros(getRow(), getColumn());
+		E[][] matrix = copy.getMatrix();
+		for (int i = 0; i < getRow(); i++)
+			for (int j = 0; j < getColumn(); j++)
+				matrix[i][j] = getValue(i, j);
+		copy.setMatrix(matrix);
+		return copy;
+	}
+	@Override
+	protected int getOperationCost() {
+		return parent.getOperationCost();
+	}
+	@Override
+	protected boolean isExact() {
+		return parent.isExact();
+	}
+	@Override
+	boolean hasExactQueries() {
+		return parent.hasExactQueries();
+	}
+	/**
+	 * Get the determinant of the view, by the type of the parent if it has exact queries
+	 */
+	@Override
+	public E getDeterminant() {
+		if (!hasExactQueries())
+			return super.getDeterminant();
+		return cached(MatrixCache.Result.DETERMINANT, () -> getCopy().getDeterminant());
+	}
+	/**
+	 * Get the rank of the view, by the type of the parent if it has exact queries
+	 */
+	@Override
+	public int getRank() {
+		if (!hasExactQueries())
+			return super.getRank();
+		return cached(MatrixCache.Result.RANK, () -> getCopy().getRank());
+	}
+	/**
+	 * Get the inversion of the view, by the type of the parent if it has exact queries
+	 */
+	@Override
+	public GenericMatrix<E> inverse() {
+		if (!hasExactQueries())
+			return super.inverse();
+		// Check bounds of the matrix
+		if (getRow() != getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		return cached(MatrixCache.Result.INVERSE, () -> getCopy().inverse()).getCopy();
+	}
+	/**
+	 * Solve this * X = rhs, by the type of the parent if it has exact queries
+	 */
+	@Override
+	public GenericMatrix<E> solve(GenericMatrix<E> rhs) {
+		if (!hasExactQueries())
+			return super.solve(rhs);
+		return getCopy().solve(rhs);
+	}
+	/**
+	 * Get the adjoint matrix of the view, by the type of the parent if it has exact queries
+	 */
+	@Override
+	public GenericMatrix<E> getAdjointMatrix() {
+		if (!hasExactQueries())
+			return super.getAdjointMatrix();
+		return getCopy().getAdjointMatrix();
+	}
+	@Override
+	protected void multiply(E[][] a, E[][] b, E[][] c) {
+		parent.multiply(a, b, c);
+	}
+	@Override
+	protected E dotProduct(E[] a, E[][] b, int column, int fromIndex, int toIndex) {
+		return parent.dotProduct(a, b, column, fromIndex, toIndex);
+	}
+
+	/**
+	 * Maps the indices of a view to the rows or the columns of its parent. A shift, possibly leaving
+	 * out one index, takes O(1) space; only the composition of those which leave out indices is a table
+	 */
+	private static final class IndexMap {
+		static final IndexMap IDENTITY = new IndexMap(0, -1);
+
+		private final int offset;
+		/**
+		 * The index left out, -1 for none
+		 */
+		private final int skipped;
+		private final int[] indices;
+
+		IndexMap(int offset, int skipped) {
+			this.offset = offset;
+			this.skipped = skipped;
+			this.indices = null;
+		}
+		private IndexMap(int[] indices) {
+			this.offset = 0;
+			this.skipped = -1;
+			this.indices = indices;
+		}
+		int get(int index) {
+			if (indices != null)
+				return indices[index];
+			index += offset;
+			return skipped >= 0 && index >= skipped ? index + 1 : index;
+		}
+		/**
+		 * Get the map of next.get(get(index)) for index in [0, length)
+		 */
+		IndexMap then(IndexMap next, int length) {
+			if (this == IDENTITY)
+				return next;
+			if (indices == null && skipped < 0 && next.indices == null && next.skipped < 0)
+				return new IndexMap(offset + next.offset, -1);
+
+			int[] composed = new int[length];
+			for (int i = 0; i < length; i++)
+				composed[i] = next.get(get(i));
+			return new IndexMap(composed);
+		}
+	}
+
+}
@@ -0,0 +1,294 @@
+package matrix;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+public final class ModularElimination {
+	/**
+	 * The primes below 2^31 found so far, in descending order. Volatile, since it is read without the
+	 * lock by the parallel eliminations and a grown array must be seen with its elements written
+	 */
+	private static volatile int[] primes = new int[0];
+	/**
+	 * The number of bits every prime contributes at least
+	 */
+	private static final int PRIME_BITS = 30;
+	/**
+	 * The integer matrix
+	 */
+	private final long[][] matrix;
+	/**
+	 * The number of rows of the matrix
+	 */
+	private final int row;
+	/**
+	 * The number of columns of the matrix
+	 */
+	private final int column;
+	/**
+	 * The rank of the matrix
+	 */
+	private int rank;
+	/**
+	 * The determinant of the matrix, or null if it is not square
+	 */
+	private BigInteger determinant;
+
+	/**
+	 * Find the rank and determinant of the input integer matrix by elimination modulo as many
+	 * word-size primes as the Hadamard bound requires, combined by the Chinese remainder theorem
+	 * @param matrix the matrix, which is not modified
+	 */
+	public ModularElimination(long[][] matrix) {
+		this.row = matrix.length;
+		this.column = row == 0 ? 0 : matrix[0].length;
+		this.matrix = new long[row][];
+		for (int i = 0; i < row; i++)
+			this.matrix[i] = matrix[i].clone();
+
+		// Any minor, and so the determinant, is bounded by the product of the row norms and by that of the column norms
+		int count = primeCount(Math.min(logNorms(this.matrix, true), logNorms(this.matrix, false)));
+		ModularMatrix[] images = reduce(count);
+
+		rank = 0;
+		for (ModularMatrix image : images) // A nonzero minor vanishes modulo some but not all of the primes
+			rank = Math.max(rank, image.getRank());
+		if (row == column) {
+			long[] residues = new long[count];
+			for (int i = 0; i < count; i++)
+				residues[i] = images[i].getDeterminant();
+			determinant = reconstruct(residues, primesOf(images));
+		}
+	}
+	/**
+	 * Get the rank of the matrix
+	 * @return the rank
+	 */
+	public int getRank() {
+		return rank;
+	}
+	/**
+	 * Check if the rank of the matrix is full
+	 * @return true if the rank is full, false otherwise
+	 */
+	public boolean isFullRank() {
+		return rank == Math.min(row, column);
+	}
+	/**
+	 * Get the determinant of the matrix
+	 * @return the exact determinant
+	 */
+	public BigInteger getDeterminant() {
+		if (row != column)
+			throw new RuntimeException("The matrices do not have compatible size.");
+		return determinant;
+	}
+	/**
+	 * Solve A * X = B exactly. Every prime yields det(A) * X modulo itself, whose elements are
+	 * bounded by Cramer's rule; primes dividing det(A) are skipped
+	 * @param rhs the integer right-hand sides B, one per column
+	 * @return a new <code>RationalMatrix</code> X
+	 */
+	public RationalMatrix solve(long[][] rhs) {
+		// Check bounds of the two matrices
+		if (row != column || rhs.length != row)
+			throw new RuntimeException("The matrices do not have compatible size.");
+		if (determinant.signum() == 0)
+			throw new RuntimeException("The matrix is not an non-singular matrix.");
+
+		// |det(A) * x(i, j)| is a determinant with column i of A replaced by column j of B
+		int m = row == 0 ? 0 : rhs[0].length;
+		int count = primeCount(logNorms(matrix, false) + maxLogNorm(rhs));
+
+		int[] used = new int[0];
+		long[][][] residues = new long[0][][];
+		int next = 0;
+		while (used.length < count) {
+			// Solve modulo every remaining prime at once
+			int batch = count - used.length;
+			int[] candidates = new int[batch];
+			for (int i = 0; i < batch; i++)
+				candidates[i] = getPrime(next++);
+			long[][][] solutions = new long[batch][][];
+			MatrixExecutor.forEachRowBlock(batch, (long) row * row * (row + m), (fromPrime, toPrime) -> {
+				for (int p = fromPrime; p < toPrime; p++) {
+					ModularMatrix image = new ModularMatrix(matrix, candidates[p]);
+					long det = image.getDeterminant();
+					if (det == 0) // The prime divides det(A)
+						continue;
+					ModularMatrix x = image.solve(new ModularMatrix(rhs, candidates[p]));
+					long[][] scaled = new long[row][m];
+					for (int i = 0; i < row; i++)
+						for (int j = 0; j < m; j++)
+							scaled[i][j] = x.getValue(i, j) * det % candidates[p];
+					solutions[p] = scaled;
+				}
+			});
+			for (int p = 0; p < batch; p++) {
+				if (solutions[p] == null)
+					continue;
+				used = Arrays.copyOf(used, used.length + 1);
+				used[used.length - 1] = candidates[p];
+				residues = Arrays.copyOf(residues, residues.length + 1);
+				residues[residues.length - 1] = solutions[p];
+			}
+		}
+
+		Rational[][] solution = new Rational[row][m];
+		long[] values = new long[count];
+		for (int i = 0; i < row; i++) {
+			for (int j = 0; j < m; j++) {
+				for (int p = 0; p < count; p++)
+					values[p] = residues[p][i][j];
+				solution[i][j] = new Rational(reconstruct(values, used), determinant);
+			}
+		}
+		return new RationalMatrix(solution);
+	}
+	/**
+	 * Reduce the matrix modulo the next primes, eliminating them in parallel
+	 * @param count the number of primes
+	 * @return the decomposed images
+	 */
+	private ModularMatrix[] reduce(int count) {
+		ModularMatrix[] images = new ModularMatrix[count];
+		MatrixExecutor.forEachRowBlock(count, (long) row * column * Math.min(row, column), (fromPrime, toPrime) -> {
+			for (int p = fromPrime; p < toPrime; p++) {
+				images[p] = new ModularMatrix(matrix, getPrime(p));
+				images[p].getRank(); // Decompose on this thread
+			}
+		});
+		return images;
+	}
+	/**
+	 * Get the number of primes whose product exceeds twice the input bound
+	 * @param bits the base 2 logarithm of the bound
+	 * @return the number of primes
+	 */
+	private static int primeCount(double bits) {
+		// One bit for the sign and one against rounding of the logarithms
+		return Math.max(1, (int) Math.ceil((bits + 2) / PRIME_BITS));
+	}
+	/**
+	 * Get the base 2 logarithm of the product of the Euclidean norms of the rows or the columns,
+	 * where a zero norm counts as 1
+	 */
+	private static double logNorms(long[][] a, boolean rows) {
+		int n = a.length;
+		int m = n == 0 ? 0 : a[0].length;
+		double[] squares = new double[rows ? n : m];
+		for (int i = 0; i < n; i++)
+			for (int j = 0; j < m; j++)
+				squares[rows ? i : j] += (double) a[i][j] * a[i][j];
+
+		double bits = 0;
+		for (double square : squares)
+			bits += square > 1 ? Math.log(square) / Math.log(2) / 2 : 0;
+		return bits;
+	}
+	/**
+	 * Get the base 2 logarithm of the largest Euclidean norm of the columns, at least 0
+	 */
+	private static double maxLogNorm(long[][] a) {
+		int m = a.length == 0 ? 0 : a[0].length;
+		double max = 0;
+		for (int j = 0; j < m; j++) {
+			double square = 0;
+			for (long[] values : a)
+				square += (double) values[j] * values[j];
+			max = Math.max(max, square > 1 ? Math.log(square) / Math.log(2) / 2 : 0);
+		}
+		return max;
+	}
+	/**
+	 * Combine residues by Garner's form of the Chinese remainder theorem
+	 * @param residues the residue modulo each prime
+	 * @param moduli the primes
+	 * @return the integer of least absolute value with the input residues
+	 */
+	private static BigInteger reconstruct(long[] residues, int[] moduli) {
+		BigInteger value = BigInteger.ZERO;
+		BigInteger modulus = BigInteger.ONE;
+		for (int i = 0; i < moduli.length; i++) {
+			long p = moduli[i];
+			long difference = Math.floorMod(residues[i] - value.mod(BigInteger.valueOf(p)).longValue(), p);
+			long t = difference * modulus.mod(BigInteger.valueOf(p)).modInverse(BigInteger.valueOf(p)).longValue() % p;
+			value = value.add(modulus.multiply(BigInteger.valueOf(t)));
+			modulus = modulus.multiply(BigInteger.valueOf(p));
+		}
+		// Map [0, modulus) to the symmetric range
+		return value.shiftLeft(1).compareTo(modulus) > 0 ? value.subtract(modulus) : value;
+	}
+
+	private static int[] primesOf(ModularMatrix[] images) {
+		int[] moduli = new int[images.length];
+		for (int i = 0; i < images.length; i++)
+			moduli[i] = images[i].getPrime();
+		return moduli;
+	}
+	/**
+	 * Get the index-th largest prime below 2^31
+	 * @param index
+	 * @return the prime
+	 */
+	static int getPrime(int index) {
+		int[] found = primes;
+		if (index < found.length)
+			return found[index];
+
+		synchronized (ModularElimination.class) {
+			found = primes;
+			if (index >= found.length) {
+				int[] grown = Arrays.copyOf(found, Math.max(index + 1, found.length * 2));
+				int candidate = found.length == 0 ? Integer.MAX_VALUE : found[found.length - 1] - 2;
+				for (int i = found.length; i < grown.length; i++) {
+					while (!isPrime(candidate))
+						candidate -= 2;
+					grown[i] = candidate;
+					candidate -= 2;
+				}
+				primes = grown;
+				found = grown;
+			}
+			return found[index];
+		}
+	}
+	/**
+	 * Check if an odd <code>int</code> is prime by the Miller-Rabin test with bases 2, 7 and 61,
+	 * which is deterministic below 4759123141
+	 */
+	private static boolean isPrime(int n) {
+		for (long base : new long[] {2, 7, 61}) {
+			if (base % n == 0)
+				continue;
+			long d = n - 1;
+			int s = Long.numberOfTrailingZeros(d);
+			d >>= s;
+			long x = power(base, d, n);
+			if (x == 1 || x == n - 1)
+				continue;
+			boolean composite = true;
+			for (int i = 1; i < s && composite; i++) {
+				x = x * x % n;
+				if (x == n - 1)
+					composite = false;
+			}
+			if (composite)
+				return false;
+		}
+		return true;
+	}
+
+	private static long power(long base, long exponent, long modulus) {
+		long result = 1;
+		base %= modulus;
+		while (exponent > 0) {
+			if ((exponent & 1) != 0)
+				result = result * base % modulus;
+			base = base * base % modulus;
+			exponent >>= 1;
+		}
+		return result;
+	}
+
+}
@@ -0,0 +1,278 @@
+package matrix;
+
+public final class ModularMatrix {
+	/**
+	 * The mask of the low 32 bits, R = 2^32 being the Montgomery radix
+	 */
+	private static final long MASK = 0xFFFFFFFFL;
+	/**
+	 * The odd prime modulus, below 2^31 so that a product of two residues fits in a <code>long</code>
+	 */
+	private final int prime;
+	/**
+	 * -prime^-1 mod 2^32
+	 */
+	private final long negativeInverse;
+	/**
+	 * R^2 mod prime, which converts a residue to Montgomery form
+	 */
+	private final long radixSquare;
+	/**
+	 * The number of rows of the matrix
+	 */
+	private final int row;
+	/**
+	 * The number of columns of the matrix
+	 */
+	private final int column;
+	/**
+	 * The elements in Montgomery form (x * R mod prime), stored row by row
+	 */
+	private final int[] data;
+	/**
+	 * The packed L * U factors of P * A in Montgomery form, computed on first use
+	 */
+	private int[] lu;
+	/**
+	 * The row permutation of the decomposition
+	 */
+	private int[] pivot;
+	/**
+	 * The rank of the matrix modulo the prime
+	 */
+	private int rank;
+	/**
+	 * The determinant of the matrix modulo the prime, in Montgomery form
+	 */
+	private long determinant;
+
+	/**
+	 * Construct a new <code>ModularMatrix</code> object by reducing an integer matrix modulo a prime
+	 * @param matrix
+	 * @param prime an odd prime below 2^31
+	 */
+	public ModularMatrix(long[][] matrix, int prime) {
+		this(prime, matrix.length, matrix.length == 0 ? 0 : matrix[0].length);
+		for (int i = 0; i < row; i++) {
+			if (matrix[i].length != column)
+				throw new RuntimeException("The matrices do not have compatible size.");
+			for (int j = 0; j < column; j++)
+				data[i * column + j] = (int) toMontgomery(Math.floorMod(matrix[i][j], (long) prime));
+		}
+	}
+	/**
+	 * Construct a new zero <code>ModularMatrix</code> object
+	 */
+	private ModularMatrix(int prime, int row, int column) {
+		if (prime < 3 || prime % 2 == 0)
+			throw new RuntimeException("The modulus must be an odd prime.");
+		this.prime = prime;
+		this.row = row;
+		this.column = column;
+		this.data = new int[row * column];
+
+		long inverse = prime; // Newton's iteration doubles the correct low bits of prime^-1 mod 2^32
+		for (int i = 0; i < 5; i++)
+			inverse = inverse * (2 - prime * inverse) & MASK;
+		this.negativeInverse = -inverse & MASK;
+		long radix = (1L << 32) % prime;
+		this.radixSquare = radix * radix % prime;
+	}
+	/**
+	 * Get the prime modulus
+	 * @return the prime
+	 */
+	public int getPrime() {
+		return prime;
+	}
+	/**
+	 * Get the number of rows
+	 * @return the number of rows
+	 */
+	public int getRow() {
+		return row;
+	}
+	/**
+	 * Get the number of columns
+	 * @return the number of columns
+	 */
+	public int getColumn() {
+		return column;
+	}
+	/**
+	 * Get the residue at the input row&column
+	 * @param row
+	 * @param column
+	 * @return the residue in [0, prime)
+	 */
+	public long getValue(int row, int column) {
+		if (row < 0 || row >= this.row || column < 0 || column >= this.column)
+			throw new NullPointerException("Invalid input!");
+		return reduce(data[row * this.column + column]);
+	}
+	/**
+	 * Get the rank of the matrix modulo the prime
+	 * @return the rank
+	 */
+	public int getRank() {
+		decompose();
+		return rank;
+	}
+	/**
+	 * Get the determinant of the matrix modulo the prime
+	 * @return the residue of the determinant in [0, prime)
+	 */
+	public long getDeterminant() {
+		if (row != column)
+			throw new RuntimeException("The matrices do not have compatible size.");
+		decompose();
+		return reduce(determinant);
+	}
+	/**
+	 * Solve A * X = B modulo the prime
+	 * @param rhs the right-hand sides B, one per column
+	 * @return a new <code>ModularMatrix</code> X
+	 */
+	public ModularMatrix solve(ModularMatrix rhs) {
+		// Check bounds of the two matrices
+		if (row != column || rhs.row != row)
+			throw new RuntimeException("The matrices do not have compatible size.");
+		if (rhs.prime != prime)
+			throw new RuntimeException("The matrices do not have the same modulus.");
+		decompose();
+		if (rank < row)
+			throw new RuntimeException("The matrix is not an non-singular matrix.");
+
+		int n = row;
+		int m = rhs.column;
+		ModularMatrix solution = new ModularMatrix(prime, n, m);
+		int[] x = solution.data;
+		for (int i = 0; i < n; i++)
+			System.arraycopy(rhs.data, pivot[i] * m, x, i * m, m);
+
+		// Forward substitution with the unit lower triangular factor
+		for (int i = 1; i < n; i++)
+			for (int k = 0; k < i; k++)
+				subtractRow(x, i * m, k * m, m, lu[i * n + k]);
+		// Back substitution with the upper triangular factor
+		for (int i = n - 1; i >= 0; i--) {
+			for (int k = i + 1; k < n; k++)
+				subtractRow(x, i * m, k * m, m, lu[i * n + k]);
+			long inverse = inverse(lu[i * n + i]);
+			for (int j = i * m; j < (i + 1) * m; j++)
+				x[j] = (int) multiply(x[j], inverse);
+		}
+
+		return solution;
+	}
+	/**
+	 * Factor P * A = L * U modulo the prime, skipping the columns without a pivot
+	 */
+	private void decompose() {
+		if (lu != null)
+			return;
+
+		int[] a = data.clone();
+		int[] permutation = new int[row];
+		for (int i = 0; i < row; i++)
+			permutation[i] = i;
+		long sign = 1;
+		int r = 0; // The row of the next pivot
+
+		for (int c = 0; c < column && r < row; c++) {
+			int pivotRow = r; // Any nonzero residue is an exact pivot
+			while (pivotRow < row && a[pivotRow * column + c] == 0)
+				pivotRow++;
+			if (pivotRow == row) // No pivot in this column
+				continue;
+			if (pivotRow != r) {
+				for (int j = 0; j < column; j++) {
+					int temp = a[r * column + j];
+					a[r * column + j] = a[pivotRow * column + j];
+					a[pivotRow * column + j] = temp;
+				}
+				int index = permutation[r];
+				permutation[r] = permutation[pivotRow];
+				permutation[pivotRow] = index;
+				sign = -sign;
+			}
+
+			long inverse = inverse(a[r * column + c]);
+			for (int i = r + 1; i < row; i++) {
+				int offset = i * column;
+				if (a[offset + c] == 0)
+					continue;
+				int times = (int) multiply(a[offset + c], inverse);
+				a[offset + c] = times;
+				subtractRow(a, offset + c + 1, r * column + c + 1, column - c - 1, times);
+			}
+			r++;
+		}
+
+		long product = toMontgomery(sign < 0 ? prime - 1 : 1);
+		if (r == row && row == column)
+			for (int i = 0; i < row; i++)
+				product = multiply(product, a[i * column + i]);
+		else
+			product = 0;
+
+		this.pivot = permutation;
+		this.rank = r;
+		this.determinant = product;
+		this.lu = a;
+	}
+	/**
+	 * Subtract times * a[from..from+length) from a[to..to+length)
+	 */
+	private void subtractRow(int[] a, int to, int from, int length, long times) {
+		if (times == 0)
+			return;
+		for (int j = 0; j < length; j++) {
+			long difference = a[to + j] - multiply(times, a[from + j]);
+			a[to + j] = (int) (difference < 0 ? difference + prime : difference);
+		}
+	}
+	/**
+	 * Montgomery product of two residues in Montgomery form
+	 * @return x * y * R^-1 mod prime
+	 */
+	private long multiply(long x, long y) {
+		return reduce(x * y);
+	}
+	/**
+	 * Montgomery reduction of t < prime * 2^32, whose sum with m * prime stays below 2^64
+	 * @return t * R^-1 mod prime
+	 */
+	private long reduce(long t) {
+		long m = (t & MASK) * negativeInverse & MASK;
+		long u = (t + m * prime) >>> 32;
+		return u >= prime ? u - prime : u;
+	}
+	/**
+	 * Convert a residue in [0, prime) to Montgomery form
+	 */
+	private long toMontgomery(long x) {
+		return reduce(x * radixSquare);
+	}
+	/**
+	 * Invert a nonzero residue in Montgomery form by the extended Euclidean algorithm
+	 * @return (x * R^-1)^-1 * R mod prime
+	 */
+	private long inverse(long x) {
+		long a = reduce(x);
+		long b = prime;
+		long s = 1;
+		long t = 0;
+		while (b != 0) {
+			long q = a / b;
+			long temp = a - q * b;
+			a = b;
+			b = temp;
+			temp = s - q * t;
+			s = t;
+			t = temp;
+		}
+		return toMontgomery(Math.floorMod(s, (long) prime));
+	}
+
+}
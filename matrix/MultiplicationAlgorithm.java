@@ -0,0 +1,17 @@
+package matrix;
+
+public enum MultiplicationAlgorithm {
+	/**
+	 * The n^3 tiled scalar products
+	 */
+	CLASSICAL,
+	/**
+	 * Strassen-Winograd recursion with 7 instead of 8 half-size products per level, down to
+	 * the cutoff of <code>StrassenMultiplier</code>
+	 */
+	STRASSEN,
+	/**
+	 * Strassen-Winograd for large matrices of exact elements, classical otherwise
+	 */
+	AUTO
+}
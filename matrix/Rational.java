@@ -3,20 +3,41 @@ package matrix;
 import java.math.*;
 
 public class Rational extends Number implements Comparable<Rational> {
+	private static final long serialVersionUID = 1L;
 	/**
-	 * The numerator of the <code>Rational</code>
+	 * The <code>Rational</code> 0
 	 */
-	private BigInteger numerator = BigInteger.ZERO;
+	public static final Rational ZERO = new Rational(0, 1);
 	/**
-	 * The denominator of the <code>Rational</code>
+	 * The <code>Rational</code> 1
 	 */
-	private BigInteger denominator = BigInteger.ONE;
-	
+	public static final Rational ONE = new Rational(1, 1);
+	/**
+	 * The <code>Rational</code> -1
+	 */
+	public static final Rational MINUS_ONE = new Rational(-1, 1);
+	/**
+	 * The numerator of the <code>Rational</code> while it fits in a <code>long</code>
+	 */
+	private final long numerator;
+	/**
+	 * The denominator of the <code>Rational</code> while it fits in a <code>long</code>, always positive
+	 */
+	private final long denominator;
+	/**
+	 * The numerator of the <code>Rational</code> once it does not fit in a <code>long</code>, null otherwise
+	 */
+	private final BigInteger bigNumerator;
+	/**
+	 * The denominator of the <code>Rational</code> once it does not fit in a <code>long</code>, null otherwise
+	 */
+	private final BigInteger bigDenominator;
+
 	/**
 	 * Construct a new <code>Rational</code> object with default properties
 	 */
 	public Rational() {
-		this(BigInteger.ZERO, BigInteger.ONE);
+		this(0, 1);
 	}
 	/**
 	 * Construct a new <code>Rational</code> object
@@ -24,41 +45,168 @@ public class Rational extends Number implements Comparable<Rational> {
 	 * @param denominator
 	 */
 	public Rational(BigInteger numerator, BigInteger denominator) {
-		BigInteger gcd = gcd(numerator, denominator);
-		this.numerator = (denominator.compareTo(BigInteger.ZERO) > 0 ? BigInteger.ONE 
-				: new BigInteger(-1 + "")).multiply(numerator).divide(gcd);
-		this.denominator = denominator.abs().divide(gcd);
+		if (denominator.signum() == 0)
+			throw new ArithmeticException("/ by zero");
+		BigInteger gcd = numerator.gcd(denominator);
+		if (denominator.signum() < 0)
+			gcd = gcd.negate();
+		numerator = numerator.divide(gcd);
+		denominator = denominator.divide(gcd);
+
+		if (fitsInLong(numerator) && fitsInLong(denominator)) {
+			this.numerator = numerator.longValue();
+			this.denominator = denominator.longValue();
+			this.bigNumerator = null;
+			this.bigDenominator = null;
+		}
+		else {
+			this.numerator = 0;
+			this.denominator = 1;
+			this.bigNumerator = numerator;
+			this.bigDenominator = denominator;
+		}
 	}
 	/**
-	 * Find GCD of two <code>Rational</code>
+	 * Construct a new <code>Rational</code> object
 	 * @param numerator
 	 * @param denominator
-	 * @return the GCD of two rational numbers
-	 */
-	private static BigInteger gcd(BigInteger n, BigInteger d) {
-		BigInteger n1 = n.abs();
-		BigInteger n2 = d.abs();
-		BigInteger remainder;
-		
-		while ((remainder = n1.remainder(n2)).compareTo(BigInteger.ZERO) > 0) {
-			n1 = n2;
-			n2 = remainder;
+	 */
+	public Rational(long numerator, long denominator) {
+		if (denominator == 0)
+			throw new ArithmeticException("/ by zero");
+		if (numerator == Long.MIN_VALUE || denominator == Long.MIN_VALUE) { // Their negation overflows
+			Rational big = new Rational(BigInteger.valueOf(numerator), BigInteger.valueOf(denominator));
+			this.numerator = big.numerator;
+			this.denominator = big.denominator;
+			this.bigNumerator = big.bigNumerator;
+			this.bigDenominator = big.bigDenominator;
+			return;
 		}
-		return n2;
+
+		long gcd = gcd(numerator, denominator);
+		if (denominator < 0)
+			gcd = -gcd;
+		this.numerator = numerator / gcd;
+		this.denominator = denominator / gcd;
+		this.bigNumerator = null;
+		this.bigDenominator = null;
+	}
+	/**
+	 * Construct a new <code>Rational</code> object from a numerator and a positive denominator
+	 * which are already reduced, without computing their GCD
+	 */
+	private Rational(long numerator, long denominator, boolean reduced) {
+		this.numerator = numerator;
+		this.denominator = denominator;
+		this.bigNumerator = null;
+		this.bigDenominator = null;
+	}
+	/**
+	 * Get the <code>Rational</code> of an integer, sharing the common constants
+	 * @param value
+	 * @return a rational number whose denominator is 1
+	 */
+	public static Rational valueOf(long value) {
+		return valueOf(value, 1);
+	}
+	/**
+	 * Get the <code>Rational</code> of numerator/denominator, sharing the common constants
+	 * @param numerator
+	 * @param denominator
+	 * @return the reduced rational number
+	 */
+	public static Rational valueOf(long numerator, long denominator) {
+		if (denominator == 1 && numerator >= -1 && numerator <= 1)
+			return numerator == 0 ? ZERO : numerator == 1 ? ONE : MINUS_ONE;
+		Rational q = new Rational(numerator, denominator);
+		if (q.isSmall() && q.denominator == 1 && Math.abs(q.numerator) <= 1) // e.g. 3/3
+			return reduced(q.numerator, 1);
+		return q;
+	}
+	/**
+	 * Get the <code>Rational</code> of a numerator and a positive denominator which are already reduced
+	 */
+	private static Rational reduced(long numerator, long denominator) {
+		if (numerator == Long.MIN_VALUE) // Its negation overflows, let the caller use big integers
+			throw new ArithmeticException("long overflow");
+		if (denominator == 1 && numerator >= -1 && numerator <= 1)
+			return numerator == 0 ? ZERO : numerator == 1 ? ONE : MINUS_ONE;
+		return new Rational(numerator, denominator, true);
+	}
+	/**
+	 * Find GCD of two <code>long</code>s by the binary GCD algorithm
+	 * @param a
+	 * @param b
+	 * @return the non-negative GCD, where gcd(0, 0) is 1 so that it can always be divided by
+	 * @throws ArithmeticException if either is <code>Long.MIN_VALUE</code>, whose absolute value overflows
+	 */
+	static long gcd(long a, long b) {
+		if (a == Long.MIN_VALUE || b == Long.MIN_VALUE)
+			throw new ArithmeticException("long overflow");
+		a = Math.abs(a);
+		b = Math.abs(b);
+		if (a == 0)
+			return b == 0 ? 1 : b;
+		if (b == 0)
+			return a;
+
+		int shift = Long.numberOfTrailingZeros(a | b);
+		a >>= Long.numberOfTrailingZeros(a);
+		while (b != 0) {
+			b >>= Long.numberOfTrailingZeros(b);
+			if (a > b) {
+				long temp = a;
+				a = b;
+				b = temp;
+			}
+			b -= a;
+		}
+		return a << shift;
+	}
+	/**
+	 * Check if a <code>BigInteger</code> can be kept as a <code>long</code> whose negation does not overflow
+	 */
+	private static boolean fitsInLong(BigInteger value) {
+		return value.bitLength() < 64 && value.longValue() != Long.MIN_VALUE;
+	}
+	/**
+	 * Check if the current <code>Rational</code> is kept in <code>long</code>s
+	 */
+	boolean isSmall() {
+		return bigNumerator == null;
+	}
+	/**
+	 * Get the numerator of the current <code>Rational</code> which is kept in <code>long</code>s
+	 */
+	long getLongNumerator() {
+		return numerator;
+	}
+	/**
+	 * Get the positive denominator of the current <code>Rational</code> which is kept in <code>long</code>s
+	 */
+	long getLongDenominator() {
+		return denominator;
 	}
 	/**
 	 * Get the numerator of the current <code>Rational</code>
 	 * @return the numerator of the rational number
 	 */
 	public BigInteger getNumerator() {
-		return numerator;
+		return isSmall() ? BigInteger.valueOf(numerator) : bigNumerator;
 	}
 	/**
 	 * Get the denominator of the current <code>Rational</code>
 	 * @return the denominator of the rational number
 	 */
 	public BigInteger getDenominator() {
-		return denominator;
+		return isSmall() ? BigInteger.valueOf(denominator) : bigDenominator;
+	}
+	/**
+	 * Get the sign of the current <code>Rational</code>
+	 * @return -1, 0 or 1 as the rational number is negative, zero or positive
+	 */
+	public int signum() {
+		return isSmall() ? Long.signum(numerator) : bigNumerator.signum();
 	}
 	/**
 	 * Add another <code>Rational</code> to the current <code>Rational</code>
@@ -66,9 +214,16 @@ public class Rational extends Number implements Comparable<Rational> {
 	 * @return the resultant <code>Rational</code> (this + anotherRational)
 	 */
 	public Rational add(Rational anotherRational) {
-		BigInteger n = numerator.multiply(anotherRational.getDenominator()).add(
-				denominator.multiply(anotherRational.getNumerator()));
-		BigInteger d = denominator.multiply(anotherRational.getDenominator());
+		if (isSmall() && anotherRational.isSmall()) {
+			try {
+				return add(numerator, denominator, anotherRational.numerator, anotherRational.denominator);
+			} catch (ArithmeticException ex) {
+				// Overflow of 63 bits, fall through to big integers
+			}
+		}
+		BigInteger n = getNumerator().multiply(anotherRational.getDenominator()).add(
+				getDenominator().multiply(anotherRational.getNumerator()));
+		BigInteger d = getDenominator().multiply(anotherRational.getDenominator());
 		return new Rational(n, d);
 	}
 	/**
@@ -77,9 +232,16 @@ public class Rational extends Number implements Comparable<Rational> {
 	 * @return the resultant <code>Rational</code> (this - anotherRational)
 	 */
 	public Rational subtract(Rational anotherRational) {
-		BigInteger n = numerator.multiply(anotherRational.getDenominator()).subtract(
-				denominator.multiply(anotherRational.getNumerator()));
-		BigInteger d = denominator.multiply(anotherRational.getDenominator());
+		if (isSmall() && anotherRational.isSmall()) {
+			try {
+				return add(numerator, denominator, -anotherRational.numerator, anotherRational.denominator);
+			} catch (ArithmeticException ex) {
+				// Overflow of 63 bits, fall through to big integers
+			}
+		}
+		BigInteger n = getNumerator().multiply(anotherRational.getDenominator()).subtract(
+				getDenominator().multiply(anotherRational.getNumerator()));
+		BigInteger d = getDenominator().multiply(anotherRational.getDenominator());
 		return new Rational(n, d);
 	}
 	/**
@@ -88,8 +250,15 @@ public class Rational extends Number implements Comparable<Rational> {
 	 * @return the resultant <code>Rational</code> (this * anotherRational)
 	 */
 	public Rational multiply(Rational anotherRational) {
-		BigInteger n = numerator.multiply(anotherRational.getNumerator());
-		BigInteger d = denominator.multiply(anotherRational.getDenominator());
+		if (isSmall() && anotherRational.isSmall()) {
+			try {
+				return multiply(numerator, denominator, anotherRational.numerator, anotherRational.denominator);
+			} catch (ArithmeticException ex) {
+				// Overflow of 63 bits, fall through to big integers
+			}
+		}
+		BigInteger n = getNumerator().multiply(anotherRational.getNumerator());
+		BigInteger d = getDenominator().multiply(anotherRational.getDenominator());
 		return new Rational(n, d);
 	}
 	/**
@@ -98,19 +267,68 @@ public class Rational extends Number implements Comparable<Rational> {
 	 * @return the resultant <code>Rational</code> (this / anotherRational)
 	 */
 	public Rational divide(Rational anotherRational) {
-		BigInteger n = numerator.multiply(anotherRational.getDenominator());
-		BigInteger d = denominator.multiply(anotherRational.getNumerator());
+		if (isSmall() && anotherRational.isSmall()) {
+			long n = anotherRational.numerator;
+			if (n == 0)
+				throw new ArithmeticException("/ by zero");
+			try { // Multiply by the reciprocal, whose denominator must stay positive
+				return multiply(numerator, denominator, n < 0 ? -anotherRational.denominator
+						: anotherRational.denominator, Math.abs(n));
+			} catch (ArithmeticException ex) {
+				// Overflow of 63 bits, fall through to big integers
+			}
+		}
+		BigInteger n = getNumerator().multiply(anotherRational.getDenominator());
+		BigInteger d = getDenominator().multiply(anotherRational.getNumerator());
 		return new Rational(n, d);
 	}
-	
+	/**
+	 * Negate the current <code>Rational</code>
+	 * @return the resultant <code>Rational</code> (-this)
+	 */
+	public Rational negate() {
+		if (isSmall())
+			return reduced(-numerator, denominator);
+		return new Rational(bigNumerator.negate(), bigDenominator);
+	}
+	/**
+	 * Add two reduced fractions a/b + c/d, dividing by gcd(b, d) first so that the result
+	 * needs only one more small GCD to be reduced
+	 * @throws ArithmeticException if an intermediate overflows
+	 */
+	private static Rational add(long a, long b, long c, long d) {
+		if (b == d) {
+			long n = Math.addExact(a, c);
+			long gcd = gcd(n, b);
+			return reduced(n / gcd, b / gcd);
+		}
+		long gcd = gcd(b, d);
+		if (gcd == 1)
+			return reduced(Math.addExact(Math.multiplyExact(a, d), Math.multiplyExact(c, b)), Math.multiplyExact(b, d));
+
+		long t = Math.addExact(Math.multiplyExact(a, d / gcd), Math.multiplyExact(c, b / gcd));
+		long gcd2 = gcd(t, gcd);
+		return reduced(t / gcd2, Math.multiplyExact(b / gcd, d / gcd2));
+	}
+	/**
+	 * Multiply two reduced fractions (a/b) * (c/d), cancelling across before multiplying
+	 * @throws ArithmeticException if an intermediate overflows
+	 */
+	private static Rational multiply(long a, long b, long c, long d) {
+		if (a == 0 || c == 0)
+			return ZERO;
+		long gcd1 = gcd(a, d);
+		long gcd2 = gcd(c, b);
+		return reduced(Math.multiplyExact(a / gcd1, c / gcd2), Math.multiplyExact(b / gcd2, d / gcd1));
+	}
+
 	/**
 	 * the absolute value of current <code>Rational</code>
 	 * @param q
 	 * @return the absolute value of current rational number
 	 */
 	public static Rational abs(Rational q) {
-		return q.compareTo(new Rational()) > 0 ? 
-				q : q.multiply(new Rational(new BigInteger(-1 + ""), BigInteger.ONE));
+		return q.signum() >= 0 ? q : q.negate();
 	}
 	/**
 	 * Get the greater one between two <code>Rational</code>
@@ -136,29 +354,25 @@ public class Rational extends Number implements Comparable<Rational> {
 	 * @return a <code>Rational</code> which is represented by the string
 	 */
 	public static Rational parseComplex(String s) {
-		s = s.replaceAll(" ", "");
-		Rational parsed = null;
-		if(s.contains(String.valueOf("/")) && s.lastIndexOf('/') > 0)
-		{
-			String strNumerator = "";
-			String strDenominator = "";
-			strNumerator = s.substring(0,s.indexOf('/'));
-			strDenominator = s.substring(s.indexOf('/') + 1, s.length());
-			parsed = new Rational(new BigInteger(strNumerator), new BigInteger(strDenominator));
-		}
-		else // Pure numerator
-			parsed = new Rational(new BigInteger(s), BigInteger.ONE);
-		return parsed;
+		// Drop the spaces and parse the characters in place, without substrings
+		char[] chars = new char[s.length()];
+		int length = 0;
+		for (int i = 0; i < s.length(); i++)
+			if (s.charAt(i) != ' ')
+				chars[length++] = s.charAt(i);
+		return MatrixTextReader.parseRational(chars, 0, length);
 	}
-	
+
 	@Override
 	public String toString() {
-		if (denominator.compareTo(BigInteger.ONE) == 0) 
-			return numerator + "";
+		if (isSmall())
+			return denominator == 1 ? Long.toString(numerator) : numerator + "/" + denominator;
+		if (bigDenominator.compareTo(BigInteger.ONE) == 0)
+			return bigNumerator + "";
 		else
-			return numerator + "/"+ denominator;
+			return bigNumerator + "/"+ bigDenominator;
 	}
-	
+
 	@Override
 	public boolean equals(Object object) {
 		if (this == object)
@@ -167,41 +381,61 @@ public class Rational extends Number implements Comparable<Rational> {
 			return false;
 		if (getClass() != object.getClass())
 			return false;
-		
+
+		// Both forms are reduced and a value is kept in longs whenever it fits
 		Rational other = (Rational) object;
-		if (this.subtract(other).getNumerator() != BigInteger.ZERO)
-			return false;
-		return true;
+		if (isSmall())
+			return other.isSmall() && numerator == other.numerator && denominator == other.denominator;
+		return !other.isSmall() && bigNumerator.equals(other.bigNumerator)
+				&& bigDenominator.equals(other.bigDenominator);
 	}
-	
+
+	@Override
+	public int hashCode() {
+		if (isSmall())
+			return 31 * Long.hashCode(numerator) + Long.hashCode(denominator);
+		return 31 * bigNumerator.hashCode() + bigDenominator.hashCode();
+	}
+
 	@Override
 	public int intValue() {
-		return (int)doubleValue();
+		return (int) longValue();
 	}
-	
+
 	@Override
 	public float floatValue() {
 		return (float)doubleValue();
 	}
-	
+
 	@Override
 	public double doubleValue() {
-		return numerator.divide(denominator).doubleValue();
+		if (isSmall())
+			return (double) numerator / denominator;
+		return new BigDecimal(bigNumerator).divide(new BigDecimal(bigDenominator), MathContext.DECIMAL64).doubleValue();
 	}
-	
+
 	@Override
 	public long longValue() {
-		return (long)doubleValue();
+		return isSmall() ? numerator / denominator : bigNumerator.divide(bigDenominator).longValue();
 	}
-	
+
 	@Override
 	public int compareTo(Rational o) {
-		if (numerator.compareTo(o.getNumerator()) > 0)
-			return 1;
-		else if (numerator.compareTo(o.getNumerator()) < 0)
-			return -1;
-		else
-			return 0;
+		if (isSmall() && o.isSmall()) {
+			if (denominator == o.denominator)
+				return Long.compare(numerator, o.numerator);
+			int sign = Long.signum(numerator);
+			if (sign != Long.signum(o.numerator))
+				return sign < Long.signum(o.numerator) ? -1 : 1;
+			try {
+				return Long.compare(Math.multiplyExact(numerator, o.denominator),
+						Math.multiplyExact(denominator, o.numerator));
+			} catch (ArithmeticException ex) {
+				// Overflow of 63 bits, fall through to big integers
+			}
+		}
+		// Denominators are positive, so cross multiplication keeps the order
+		return getNumerator().multiply(o.getDenominator()).compareTo(getDenominator().multiply(o.getNumerator()));
 	}
 
 }
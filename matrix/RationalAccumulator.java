@@ -0,0 +1,144 @@
+package matrix;
+
+import java.math.BigInteger;
+
+public final class RationalAccumulator {
+	/**
+	 * The unreduced numerator of the sum while it fits in a <code>long</code>
+	 */
+	private long numerator;
+	/**
+	 * The denominator of the sum while it fits in a <code>long</code>, the LCM of the added denominators
+	 */
+	private long denominator = 1;
+	/**
+	 * The unreduced numerator of the sum once it overflowed, null otherwise
+	 */
+	private BigInteger bigNumerator;
+	/**
+	 * The denominator of the sum once it overflowed, null otherwise
+	 */
+	private BigInteger bigDenominator;
+
+	/**
+	 * Construct a new <code>RationalAccumulator</code> whose sum is zero
+	 */
+	public RationalAccumulator() {
+
+	}
+	/**
+	 * Reset the sum to zero
+	 * @return the <code>RationalAccumulator</code>
+	 */
+	public RationalAccumulator reset() {
+		numerator = 0;
+		denominator = 1;
+		bigNumerator = null;
+		bigDenominator = null;
+		return this;
+	}
+	/**
+	 * Add a <code>Rational</code> to the sum
+	 * @param q
+	 * @return the <code>RationalAccumulator</code>
+	 */
+	public RationalAccumulator add(Rational q) {
+		if (bigNumerator == null && q.isSmall()) {
+			try {
+				add(q.getLongNumerator(), q.getLongDenominator());
+				return this;
+			} catch (ArithmeticException ex) {
+				// Overflow of 63 bits, fall through to big integers
+			}
+		}
+		add(q.getNumerator(), q.getDenominator());
+		return this;
+	}
+	/**
+	 * Add the product of two <code>Rational</code>s to the sum, without reducing the product
+	 * @param q1
+	 * @param q2
+	 * @return the <code>RationalAccumulator</code>
+	 */
+	public RationalAccumulator addProduct(Rational q1, Rational q2) {
+		return addProduct(q1, q2, false);
+	}
+	/**
+	 * Subtract the product of two <code>Rational</code>s from the sum, without reducing the product
+	 * @param q1
+	 * @param q2
+	 * @return the <code>RationalAccumulator</code>
+	 */
+	public RationalAccumulator subtractProduct(Rational q1, Rational q2) {
+		return addProduct(q1, q2, true);
+	}
+	/**
+	 * Add or subtract the product of two <code>Rational</code>s
+	 */
+	private RationalAccumulator addProduct(Rational q1, Rational q2, boolean negate) {
+		if (q1.signum() == 0 || q2.signum() == 0)
+			return this;
+		if (bigNumerator == null && q1.isSmall() && q2.isSmall()) {
+			try {
+				long p = Math.multiplyExact(q1.getLongNumerator(), q2.getLongNumerator());
+				add(negate ? Math.negateExact(p) : p, Math.multiplyExact(q1.getLongDenominator(), q2.getLongDenominator()));
+				return this;
+			} catch (ArithmeticException ex) {
+				// Overflow of 63 bits, fall through to big integers
+			}
+		}
+		BigInteger p = q1.getNumerator().multiply(q2.getNumerator());
+		add(negate ? p.negate() : p, q1.getDenominator().multiply(q2.getDenominator()));
+		return this;
+	}
+	/**
+	 * Get the sum, reduced once
+	 * @return a <code>Rational</code> which is the sum
+	 */
+	public Rational getSum() {
+		if (bigNumerator == null)
+			return numerator == 0 ? Rational.ZERO : Rational.valueOf(numerator, denominator);
+		return new Rational(bigNumerator, bigDenominator);
+	}
+	/**
+	 * Add p/q to the sum over the LCM of the denominators, leaving the state unchanged on overflow
+	 * @param p
+	 * @param q the positive denominator
+	 * @throws ArithmeticException if the sum does not fit in <code>long</code>s
+	 */
+	private void add(long p, long q) {
+		if (q == denominator) {
+			numerator = Math.addExact(numerator, p);
+			return;
+		}
+
+		long gcd = Rational.gcd(denominator, q);
+		if (gcd == q) { // q divides the current denominator
+			numerator = Math.addExact(numerator, Math.multiplyExact(p, denominator / q));
+			return;
+		}
+		long n = Math.addExact(Math.multiplyExact(numerator, q / gcd), Math.multiplyExact(p, denominator / gcd));
+		denominator = Math.multiplyExact(denominator, q / gcd);
+		numerator = n;
+	}
+	/**
+	 * Add p/q to the sum over the LCM of the denominators with big integers
+	 * @param p
+	 * @param q the positive denominator
+	 */
+	private void add(BigInteger p, BigInteger q) {
+		if (bigNumerator == null) {
+			bigNumerator = BigInteger.valueOf(numerator);
+			bigDenominator = BigInteger.valueOf(denominator);
+		}
+		if (q.equals(bigDenominator)) {
+			bigNumerator = bigNumerator.add(p);
+			return;
+		}
+
+		BigInteger gcd = bigDenominator.gcd(q);
+		bigNumerator = bigNumerator.multiply(q.divide(gcd)).add(p.multiply(bigDenominator.divide(gcd)));
+		bigDenominator = bigDenominator.multiply(q.divide(gcd));
+	}
+
+}
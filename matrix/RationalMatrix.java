@@ -21,6 +21,7 @@ public class RationalMatrix extends GenericMatrix<Rational> {
 	 */
 	@Override
 	public Rational add(Rational q1, Rational q2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_ADDITIONS, 1);
 		return q1.add(q2);
 	}
 	/**
@@ -28,6 +29,7 @@ public class RationalMatrix extends GenericMatrix<Rational> {
 	 */
 	@Override
 	public Rational subtract(Rational q1, Rational q2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_SUBTRACTIONS, 1);
 		return q1.subtract(q2);
 	}
 	/**
@@ -35,6 +37,7 @@ public class RationalMatrix extends GenericMatrix<Rational> {
 	 */
 	@Override
 	public Rational multiply(Rational q1, Rational q2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_MULTIPLICATIONS, 1);
 		return q1.multiply(q2);
 	}
 	/**
@@ -42,6 +45,7 @@ public class RationalMatrix extends GenericMatrix<Rational> {
 	 */
 	@Override
 	public Rational divide(Rational q1, Rational q2) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_DIVISIONS, 1);
 		return q1.divide(q2);
 	}
 	/**
@@ -49,14 +53,14 @@ public class RationalMatrix extends GenericMatrix<Rational> {
 	 */
 	@Override
 	public Rational zero() {
-		return new Rational();
+		return Rational.ZERO;
 	}
 	/**
 	 * Get the absolute Value of a specified rational number
 	 */
 	@Override
 	public Rational abs(Rational q) {
-		return q.compareTo(zero()) > 0 ? q : multiply(q, new Rational(BigInteger.ONE, BigInteger.ONE));
+		return Rational.abs(q);
 	}
 	/**
 	 * Calculate the current specified matrix element to the passed integer power
@@ -65,8 +69,7 @@ public class RationalMatrix extends GenericMatrix<Rational> {
 	 */
 	@Override
 	public Rational powOfMinusOne(int power) {
-		return power % 2 == 0 ? new Rational(BigInteger.ONE, BigInteger.ONE) : 
-			new Rational(new BigInteger(-1 + ""), BigInteger.ONE);
+		return power % 2 == 0 ? Rational.ONE : Rational.MINUS_ONE;
 	}
 	/**
 	 * Compare two specified matrix elements
@@ -81,6 +84,7 @@ public class RationalMatrix extends GenericMatrix<Rational> {
 	 */
 	@Override
 	public RationalMatrix zeros(int row, int column) {
+		MatrixMetrics.temporary(row, column);
 		Rational[][] zeros = new Rational[row][column];
 		for (int i = 0; i < row; i++)
 			for (int j = 0; j < column; j++)
@@ -97,7 +101,7 @@ public class RationalMatrix extends GenericMatrix<Rational> {
 		for (int i = 0; i < row; i++) {
 			for (int j = 0; j < row; j++) {
 				if (i == j) // Set elements on the diagonal to one
-					eye[i][i] = new Rational(BigInteger.ONE, BigInteger.ONE);
+					eye[i][i] = Rational.ONE;
 				else // Set elements that are not on the diagonal to zero
 					eye[i][j] = zero();
 			}
@@ -105,11 +109,126 @@ public class RationalMatrix extends GenericMatrix<Rational> {
 		
 		return new RationalMatrix(eye);
 	}
+	/**
+	 * Get the determinant of the current <code>RationalMatrix</code> by fraction-free elimination
+	 * of the matrix whose rows are scaled to integers
+	 */
+	@Override
+	public Rational getDeterminant() {
+		return cached(MatrixCache.Result.DETERMINANT, this::eliminateDeterminant);
+	}
+	/**
+	 * Get the determinant by fraction-free elimination
+	 */
+	private Rational eliminateDeterminant() {
+		BigInteger[] scales = new BigInteger[getRow()];
+		BigInteger determinant = new BareissElimination(toIntegerRows(scales)).getDeterminant();
+		
+		BigInteger scale = BigInteger.ONE;
+		for (BigInteger s : scales)
+			scale = scale.multiply(s);
+		return new Rational(determinant, scale);
+	}
+	/**
+	 * Get the rank of the current <code>RationalMatrix</code> by fraction-free elimination
+	 * of the matrix whose rows are scaled to integers
+	 */
+	@Override
+	public int getRank() {
+		return cached(MatrixCache.Result.RANK, () -> new BareissElimination(toIntegerRows(new BigInteger[getRow()])).getRank());
+	}
+	/**
+	 * Multiply every row of the current <code>RationalMatrix</code> by the LCM of its denominators
+	 * @param scales the array receiving the multiplier of each row
+	 * @return the integer matrix
+	 */
+	private BigInteger[][] toIntegerRows(BigInteger[] scales) {
+		BigInteger[][] temp = new BigInteger[getRow()][getColumn()];
+		
+		for (int i = 0; i < getRow(); i++) {
+			BigInteger lcm = BigInteger.ONE;
+			for (int j = 0; j < getColumn(); j++) {
+				BigInteger d = getValue(i, j).getDenominator();
+				lcm = lcm.divide(lcm.gcd(d)).multiply(d);
+			}
+			for (int j = 0; j < getColumn(); j++) {
+				Rational q = getValue(i, j);
+				temp[i][j] = q.getNumerator().multiply(lcm.divide(q.getDenominator()));
+			}
+			scales[i] = lcm;
+		}
+		
+		return temp;
+	}
+	/**
+	 * Each rational operation reduces by a GCD, on <code>long</code>s until they overflow
+	 */
+	@Override
+	protected int getOperationCost() {
+		return 16;
+	}
+	/**
+	 * Rational sums are exact in any order, so Strassen-Winograd gives the classical product
+	 */
+	@Override
+	protected boolean isExact() {
+		return true;
+	}
+	/**
+	 * The determinant and the rank are found by fraction-free elimination
+	 */
+	@Override
+	boolean hasExactQueries() {
+		return true;
+	}
+	/**
+	 * Multiply row by row, summing every scalar product in a <code>RationalAccumulator</code>
+	 * so that each element of the result is reduced once
+	 */
+	@Override
+	protected void multiply(Rational[][] a, Rational[][] b, Rational[][] c) {
+		int m = b.length;
+		int p = c.length == 0 ? 0 : c[0].length;
+		MatrixExecutor.forEachRowBlock(a.length, (long) m * p * getOperationCost(), (fromRow, toRow) -> {
+			RationalAccumulator[] sums = new RationalAccumulator[p];
+			for (int j = 0; j < p; j++)
+				sums[j] = new RationalAccumulator();
+
+			for (int i = fromRow; i < toRow; i++) {
+				Rational[] ai = a[i];
+				for (int k = 0; k < m; k++) {
+					Rational aik = ai[k];
+					if (aik.signum() == 0)
+						continue;
+					Rational[] bk = b[k];
+					for (int j = 0; j < p; j++)
+						sums[j].addProduct(aik, bk[j]);
+				}
+				for (int j = 0; j < p; j++) {
+					c[i][j] = sums[j].getSum();
+					sums[j].reset();
+				}
+			}
+		});
+	}
+	/**
+	 * Calculate the scalar product in a <code>RationalAccumulator</code>, which is reduced once
+	 */
+	@Override
+	protected Rational dotProduct(Rational[] a, Rational[][] b, int column, int fromIndex, int toIndex) {
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_MULTIPLICATIONS, toIndex - fromIndex);
+		MatrixMetrics.count(MatrixMetrics.Counter.ELEMENT_ADDITIONS, toIndex - fromIndex);
+		RationalAccumulator sum = new RationalAccumulator();
+		for (int k = fromIndex; k < toIndex; k++)
+			sum.addProduct(a[k], b[k][column]);
+		return sum.getSum();
+	}
 	/**
 	 * Construct a new <code>RationalMatrix</code> object copied from this
 	 */
 	@Override
 	public RationalMatrix getCopy() {
+		MatrixMetrics.temporary(getRow(), getColumn());
 		Rational[][] copy = new Rational[getRow()][getColumn()];
 		for (int i = 0; i < getRow(); i++)
 			for (int j = 0; j < getColumn(); j++)
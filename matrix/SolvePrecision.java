@@ -0,0 +1,14 @@
+package matrix;
+
+public enum SolvePrecision {
+	/**
+	 * Factor and substitute in double precision
+	 */
+	DOUBLE,
+	/**
+	 * Factor in single precision, which moves half the bytes, then refine the solution with residuals
+	 * computed in double precision until it is as accurate as a double solution. Matrices too
+	 * ill-conditioned for the refinement to converge are solved in double precision instead
+	 */
+	MIXED
+}
@@ -0,0 +1,853 @@
+package matrix;
+
+import java.util.Arrays;
+
+public class SparseMatrix<E extends Number> extends GenericMatrix<E> {
+	/**
+	 * A small dense matrix of the element type, whose element operations are used
+	 */
+	private final GenericMatrix<E> ops;
+	/**
+	 * The start of every row in columnIndices and values, followed by the number of non-zeros
+	 */
+	private int[] rowPointers;
+	/**
+	 * The column index of every non-zero, sorted within a row
+	 */
+	private int[] columnIndices;
+	/**
+	 * The value of every non-zero
+	 */
+	private E[] values;
+
+	/**
+	 * Construct a new <code>SparseMatrix</code> object with the input row&column whose elements are all zero
+	 * @param ops a dense matrix of the element type whose element operations are used, e.g. new DoubleMatrix()
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 */
+	public SparseMatrix(GenericMatrix<E> ops, int row, int column) {
+		this(ops, row, column, new int[row + 1], new int[0], newArray(0));
+	}
+	/**
+	 * Construct a new <code>SparseMatrix</code> object over the input CSR arrays without copying them
+	 * @param ops a dense matrix of the element type whose element operations are used
+	 * @param row the number of rows of the matrix
+	 * @param column the number of columns of the matrix
+	 * @param rowPointers the start of every row, followed by the number of non-zeros
+	 * @param columnIndices the column index of every non-zero
+	 * @param values the value of every non-zero
+	 */
+	SparseMatrix(GenericMatrix<E> ops, int row, int column, int[] rowPointers, int[] columnIndices, E[] values) {
+		super(row, column);
+		this.ops = ops instanceof SparseMatrix ? ((SparseMatrix<E>) ops).ops : ops;
+		this.rowPointers = rowPointers;
+		this.columnIndices = columnIndices;
+		this.values = values;
+	}
+	/**
+	 * Construct a new <code>SparseMatrix</code> object with the non-zeros of the input matrix
+	 * @param matrix
+	 * @return a new sparse matrix
+	 */
+	public static <E extends Number> SparseMatrix<E> valueOf(GenericMatrix<E> matrix) {
+		if (matrix instanceof SparseMatrix)
+			return ((SparseMatrix<E>) matrix).getCopy();
+
+		SparseMatrix<E> sparse = new SparseMatrix<>(matrix.zeros(1, 1), matrix.getRow(), matrix.getColumn());
+		sparse.setMatrix(matrix.getMatrix());
+		return sparse;
+	}
+	/**
+	 * Get the number of non-zeros of the current <code>SparseMatrix</code>
+	 * @return the number of stored elements
+	 */
+	public int getNonZeros() {
+		return rowPointers[getRow()];
+	}
+	/**
+	 * Get the start of every row of the current <code>SparseMatrix</code>, followed by the number of non-zeros
+	 * @return the backing array, not a copy
+	 */
+	int[] getRowPointers() {
+		return rowPointers;
+	}
+	/**
+	 * Get the column index of every non-zero of the current <code>SparseMatrix</code>
+	 * @return the backing array, not a copy, which may be longer than the number of non-zeros
+	 */
+	int[] getColumnIndices() {
+		return columnIndices;
+	}
+	/**
+	 * Get the value of every non-zero of the current <code>SparseMatrix</code>
+	 * @return the backing array, not a copy, which may be longer than the number of non-zeros
+	 */
+	E[] getValues() {
+		return values;
+	}
+	/**
+	 * Construct a new dense <code>GenericMatrix</code> object with the values of this
+	 * @return a new dense matrix of the element type of ops
+	 */
+	public GenericMatrix<E> toDense() {
+		GenericMatrix<E> dense = ops.zeros(getRow(), getColumn());
+		dense.setMatrix(getMatrix());
+		return dense;
+	}
+	/**
+	 * Get the matrix of the current <code>SparseMatrix</code> as a dense array
+	 * @return a new dense copy of the matrix
+	 */
+	@Override
+	public E[][] getMatrix() {
+		E[][] matrix = ops.zeros(getRow(), getColumn()).getMatrix();
+		for (int i = 0; i < getRow(); i++)
+			for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++)
+				matrix[i][columnIndices[p]] = values[p];
+		return matrix;
+	}
+	/**
+	 * Set the value of current matrix to the non-zeros of the passed dense matrix
+	 * @param matrix
+	 */
+	@Override
+	public void setMatrix(E[][] matrix) {
+		markModified();
+		int row = matrix.length;
+		int column = row == 0 ? 0 : matrix[0].length;
+		E zero = zero();
+
+		int[] rowPointers = new int[row + 1];
+		for (int i = 0; i < row; i++) {
+			int count = 0;
+			for (int j = 0; j < column; j++)
+				if (compare(matrix[i][j], zero) != 0)
+					count++;
+			rowPointers[i + 1] = rowPointers[i] + count;
+		}
+		int[] columnIndices = new int[rowPointers[row]];
+		E[] values = newArray(rowPointers[row]);
+		for (int i = 0, p = 0; i < row; i++) {
+			for (int j = 0; j < column; j++) {
+				if (compare(matrix[i][j], zero) != 0) {
+					columnIndices[p] = j;
+					values[p++] = matrix[i][j];
+				}
+			}
+		}
+
+		setRow(row);
+		setColumn(column);
+		this.rowPointers = rowPointers;
+		this.columnIndices = columnIndices;
+		this.values = values;
+	}
+	/**
+	 * Get the value of matrix[row][column] by binary search in the row
+	 */
+	@Override
+	public E getValue(int row, int column) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+
+		int p = Arrays.binarySearch(columnIndices, rowPointers[row], rowPointers[row + 1], column);
+		return p >= 0 ? values[p] : zero();
+	}
+	/**
+	 * Set current value to the passed value in the matrix[row][column], inserting or removing
+	 * the non-zero if needed
+	 */
+	@Override
+	public void setValue(int row, int column, E value) {
+		if (row < 0 || row >= getRow() || column < 0 || column >= getColumn())
+			throw new NullPointerException("Invalid input!");
+		markModified();
+
+		int p = Arrays.binarySearch(columnIndices, rowPointers[row], rowPointers[row + 1], column);
+		boolean isZero = compare(value, zero()) == 0;
+		if (p >= 0 && !isZero)
+			values[p] = value;
+		else if (p >= 0)
+			replaceRange(row, p, p + 1, new int[0], newArray(0), 0);
+		else if (!isZero) {
+			E[] inserted = newArray(1);
+			inserted[0] = value;
+			replaceRange(row, -p - 1, -p - 1, new int[] {column}, inserted, 1);
+		}
+	}
+	/**
+	 * Add two specified elements by the element operations of ops
+	 */
+	@Override
+	public E add(E o1, E o2) {
+		return ops.add(o1, o2);
+	}
+	/**
+	 * Subtract o2 from o1 by the element operations of ops
+	 */
+	@Override
+	public E subtract(E o1, E o2) {
+		return ops.subtract(o1, o2);
+	}
+	/**
+	 * Multiply two specified elements by the element operations of ops
+	 */
+	@Override
+	public E multiply(E o1, E o2) {
+		return ops.multiply(o1, o2);
+	}
+	/**
+	 * Divide o1 by o2 by the element operations of ops
+	 */
+	@Override
+	public E divide(E o1, E o2) {
+		return ops.divide(o1, o2);
+	}
+	/**
+	 * Specify zero by the element operations of ops
+	 */
+	@Override
+	public E zero() {
+		return ops.zero();
+	}
+	/**
+	 * Get the absolute Value by the element operations of ops
+	 */
+	@Override
+	public E abs(E o) {
+		return ops.abs(o);
+	}
+	/**
+	 * Calculate (-1)^power by the element operations of ops
+	 */
+	@Override
+	public E powOfMinusOne(int power) {
+		return ops.powOfMinusOne(power);
+	}
+	/**
+	 * Compare two specified elements by the element operations of ops
+	 */
+	@Override
+	public int compare(E o1, E o2) {
+		return ops.compare(o1, o2);
+	}
+	/**
+	 * The element operations cost as much as those of ops
+	 */
+	@Override
+	protected int getOperationCost() {
+		return ops.getOperationCost();
+	}
+	@Override
+	protected boolean isExact() {
+		return ops.isExact();
+	}
+	/**
+	 * Integer elements are truncated by the divisions of the generic elimination, so their queries
+	 * are answered by the dense type, as are those of any other type with exact queries of its own
+	 */
+	@Override
+	boolean hasExactQueries() {
+		return ops.hasExactQueries() || (!ops.isExact() && ops.zero() instanceof Integer);
+	}
+	/**
+	 * Construct a new <code>SparseMatrix</code> object with the input row&column without any non-zero
+	 */
+	@Override
+	public SparseMatrix<E> zeros(int row, int column) {
+		MatrixMetrics.temporary(row, column);
+		return new SparseMatrix<>(ops, row, column);
+	}
+	/**
+	 * Construct a new identity <code>SparseMatrix</code> object with the input row
+	 */
+	@Override
+	public SparseMatrix<E> eye(int row) {
+		int[] rowPointers = new int[row + 1];
+		int[] columnIndices = new int[row];
+		E[] values = newArray(row);
+		E one = powOfMinusOne(0);
+		for (int i = 0; i < row; i++) {
+			rowPointers[i + 1] = i + 1;
+			columnIndices[i] = i;
+			values[i] = one;
+		}
+
+		return new SparseMatrix<>(ops, row, row, rowPointers, columnIndices, values);
+	}
+	/**
+	 * Construct a new <code>SparseMatrix</code> object copied from this
+	 */
+	@Override
+	public SparseMatrix<E> getCopy() {
+		MatrixMetrics.temporary(getRow(), getColumn());
+		int nonZeros = getNonZeros();
+		return new SparseMatrix<>(ops, getRow(), getColumn(), rowPointers.clone(),
+				Arrays.copyOf(columnIndices, nonZeros), Arrays.copyOf(values, nonZeros));
+	}
+	/**
+	 * Add values in row2 multiplied by times to values in row1, merging the non-zeros of the two rows
+	 */
+	@Override
+	public SparseMatrix<E> addRow(int row1, int row2, E times) {
+		return combineRow(row1, row2, times, false);
+	}
+	/**
+	 * Subtract values in row2 multiplied by times from values in row1, merging the non-zeros of the two rows
+	 */
+	@Override
+	public SparseMatrix<E> subtractRow(int row1, int row2, E times) {
+		return combineRow(row1, row2, times, true);
+	}
+	/**
+	 * Multiply the non-zeros in row by multiplicand
+	 */
+	@Override
+	public SparseMatrix<E> multiplyRow(int row, E multiplicand) {
+		checkRow(row);
+		markModified();
+		if (compare(multiplicand, zero()) == 0)
+			replaceRange(row, rowPointers[row], rowPointers[row + 1], new int[0], newArray(0), 0);
+		else
+			for (int p = rowPointers[row]; p < rowPointers[row + 1]; p++)
+				values[p] = multiply(values[p], multiplicand);
+		return this;
+	}
+	/**
+	 * Divide the non-zeros in row by dividend
+	 */
+	@Override
+	public SparseMatrix<E> divideRow(int row, E dividend) {
+		checkRow(row);
+		markModified();
+		for (int p = rowPointers[row]; p < rowPointers[row + 1]; p++)
+			values[p] = divide(values[p], dividend);
+		return this;
+	}
+	/**
+	 * Commute two rows
+	 */
+	@Override
+	public SparseMatrix<E> commuteRow(int row1, int row2) {
+		checkRow(row1);
+		checkRow(row2);
+		if (row1 == row2)
+			return this;
+		markModified();
+
+		int first = Math.min(row1, row2);
+		int second = Math.max(row1, row2);
+		int[] firstColumns = Arrays.copyOfRange(columnIndices, rowPointers[first], rowPointers[first + 1]);
+		E[] firstValues = Arrays.copyOfRange(values, rowPointers[first], rowPointers[first + 1]);
+		int[] secondColumns = Arrays.copyOfRange(columnIndices, rowPointers[second], rowPointers[second + 1]);
+		E[] secondValues = Arrays.copyOfRange(values, rowPointers[second], rowPointers[second + 1]);
+		// Replace the later row first, so the range of the earlier row does not move
+		replaceRange(second, rowPointers[second], rowPointers[second + 1], firstColumns, firstValues,
+				firstColumns.length);
+		replaceRange(first, rowPointers[first], rowPointers[first + 1], secondColumns, secondValues,
+				secondColumns.length);
+		return this;
+	}
+	/**
+	 * Add another <code>GenericMatrix</code> to the current <code>SparseMatrix</code>, merging
+	 * the non-zeros if it is sparse too
+	 */
+	@Override
+	public GenericMatrix<E> add(GenericMatrix<E> anotherMatrix) {
+		if (!(anotherMatrix instanceof SparseMatrix))
+			return toDense().addEquals(anotherMatrix);
+		return combine((SparseMatrix<E>) anotherMatrix, false);
+	}
+	/**
+	 * Add another <code>GenericMatrix</code> to the current <code>SparseMatrix</code> in place
+	 */
+	@Override
+	public GenericMatrix<E> addEquals(GenericMatrix<E> anotherMatrix) {
+		SparseMatrix<E> sum = combine(valueOf(anotherMatrix), false);
+		markModified();
+		this.rowPointers = sum.rowPointers;
+		this.columnIndices = sum.columnIndices;
+		this.values = sum.values;
+		return this;
+	}
+	/**
+	 * Subtract another <code>GenericMatrix</code> from the current <code>SparseMatrix</code>, merging
+	 * the non-zeros if it is sparse too
+	 */
+	@Override
+	public GenericMatrix<E> subtract(GenericMatrix<E> anotherMatrix) {
+		if (!(anotherMatrix instanceof SparseMatrix))
+			return toDense().subtractEquals(anotherMatrix);
+		return combine((SparseMatrix<E>) anotherMatrix, true);
+	}
+	/**
+	 * Subtract another <code>GenericMatrix</code> from the current <code>SparseMatrix</code> in place
+	 */
+	@Override
+	public GenericMatrix<E> subtractEquals(GenericMatrix<E> anotherMatrix) {
+		SparseMatrix<E> difference = combine(valueOf(anotherMatrix), true);
+		markModified();
+		this.rowPointers = difference.rowPointers;
+		this.columnIndices = difference.columnIndices;
+		this.values = difference.values;
+		return this;
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>SparseMatrix</code>.
+	 * The product is sparse if anotherMatrix is sparse, and dense otherwise
+	 */
+	@Override
+	public GenericMatrix<E> multiply(GenericMatrix<E> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+
+			if (anotherMatrix instanceof SparseMatrix)
+				return multiplySparse((SparseMatrix<E>) anotherMatrix);
+			return multiplyDense(anotherMatrix);
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>SparseMatrix</code>, always by
+	 * the sparse kernels, which only visit the non-zero elements
+	 */
+	@Override
+	public GenericMatrix<E> multiply(GenericMatrix<E> anotherMatrix, MultiplicationAlgorithm algorithm) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			return multiply(anotherMatrix);
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Multiply another <code>GenericMatrix</code> to the current <code>SparseMatrix</code> in place
+	 */
+	@Override
+	public GenericMatrix<E> multiplyEquals(GenericMatrix<E> anotherMatrix) {
+		MatrixMetrics.Span span = MatrixMetrics.begin(MatrixMetrics.Operation.MULTIPLY, this);
+		try {
+			// Check bounds of the two matrices
+			if (getColumn() != anotherMatrix.getRow())
+				throw new RuntimeException("The matrices do not have compatible size.");
+			markModified();
+
+			SparseMatrix<E> product = multiplySparse(valueOf(anotherMatrix));
+			setColumn(product.getColumn());
+			this.rowPointers = product.rowPointers;
+			this.columnIndices = product.columnIndices;
+			this.values = product.values;
+			return this;
+		} finally {
+			MatrixMetrics.end(span);
+		}
+	}
+	/**
+	 * Transpose the current <code>SparseMatrix</code> by counting sort on the column indices,
+	 * which also turns CSR into CSC
+	 */
+	@Override
+	public SparseMatrix<E> transpose() {
+		int nonZeros = getNonZeros();
+		int[] transposePointers = new int[getColumn() + 1];
+		for (int p = 0; p < nonZeros; p++)
+			transposePointers[columnIndices[p] + 1]++;
+		for (int j = 0; j < getColumn(); j++)
+			transposePointers[j + 1] += transposePointers[j];
+
+		int[] next = Arrays.copyOf(transposePointers, getColumn());
+		int[] transposeColumns = new int[nonZeros];
+		E[] transposeValues = newArray(nonZeros);
+		for (int i = 0; i < getRow(); i++) {
+			for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+				int q = next[columnIndices[p]]++;
+				transposeColumns[q] = i;
+				transposeValues[q] = values[p];
+			}
+		}
+
+		return new SparseMatrix<>(ops, getColumn(), getRow(), transposePointers, transposeColumns, transposeValues);
+	}
+	/**
+	 * Get the determinant of the current <code>SparseMatrix</code>, by the dense type if it has exact queries
+	 */
+	@Override
+	public E getDeterminant() {
+		if (!hasExactQueries())
+			return super.getDeterminant();
+		return cached(MatrixCache.Result.DETERMINANT, () -> toDense().getDeterminant());
+	}
+	/**
+	 * Get the rank of the current <code>SparseMatrix</code>, by the dense type if it has exact queries
+	 */
+	@Override
+	public int getRank() {
+		if (!hasExactQueries())
+			return super.getRank();
+		return cached(MatrixCache.Result.RANK, () -> toDense().getRank());
+	}
+	/**
+	 * Get the inversion of the current <code>SparseMatrix</code>, which is dense if the dense type
+	 * has exact queries
+	 */
+	@Override
+	public GenericMatrix<E> inverse() {
+		if (!hasExactQueries())
+			return super.inverse();
+		// Check bounds of the matrix
+		if (getRow() != getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		return cached(MatrixCache.Result.INVERSE, () -> toDense().inverse()).getCopy();
+	}
+	/**
+	 * Solve this * X = rhs, by the dense type if it has exact queries
+	 */
+	@Override
+	public GenericMatrix<E> solve(GenericMatrix<E> rhs) {
+		if (!hasExactQueries())
+			return super.solve(rhs);
+		return toDense().solve(rhs);
+	}
+	/**
+	 * Get the adjoint matrix of the current <code>SparseMatrix</code>, by the dense type if it has exact queries
+	 */
+	@Override
+	public GenericMatrix<E> getAdjointMatrix() {
+		if (!hasExactQueries())
+			return super.getAdjointMatrix();
+		return toDense().getAdjointMatrix();
+	}
+	/**
+	 * Multiply a dense matrix to the current <code>SparseMatrix</code>, touching only the non-zeros of this
+	 * @param anotherMatrix
+	 * @return a new dense matrix
+	 */
+	private GenericMatrix<E> multiplyDense(GenericMatrix<E> anotherMatrix) {
+		int column = anotherMatrix.getColumn();
+		GenericMatrix<E> result = anotherMatrix.zeros(getRow(), column);
+		E[][] product = result.getMatrix();
+		E[][] b = anotherMatrix.getMatrix();
+
+		long costPerRow = (long) (getNonZeros() / Math.max(getRow(), 1) + 1) * column * getOperationCost();
+		MatrixExecutor.forEachRowBlock(getRow(), costPerRow, (fromRow, toRow) -> {
+			for (int i = fromRow; i < toRow; i++) {
+				E[] ci = product[i];
+				for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+					E aik = values[p];
+					E[] bk = b[columnIndices[p]];
+					for (int j = 0; j < column; j++)
+						ci[j] = add(ci[j], multiply(aik, bk[j]));
+				}
+			}
+		});
+		result.setMatrix(product);
+
+		return result;
+	}
+	/**
+	 * Multiply a sparse matrix to the current <code>SparseMatrix</code> row by row with a dense
+	 * accumulator (Gustavson's algorithm)
+	 * @param anotherMatrix
+	 * @return a new sparse matrix
+	 */
+	private SparseMatrix<E> multiplySparse(SparseMatrix<E> anotherMatrix) {
+		int row = getRow();
+		int column = anotherMatrix.getColumn();
+		int[][] rowColumns = new int[row][];
+		Object[][] rowValues = new Object[row][];
+
+		long costPerRow = (long) (getNonZeros() / Math.max(row, 1) + 1)
+				* (anotherMatrix.getNonZeros() / Math.max(anotherMatrix.getRow(), 1) + 1) * getOperationCost();
+		MatrixExecutor.forEachRowBlock(row, costPerRow, (fromRow, toRow) -> {
+			E zero = zero();
+			E[] accumulator = newArray(column);
+			int[] marker = new int[column]; // The row + 1 where a column was last touched
+			int[] touched = new int[column];
+			for (int i = fromRow; i < toRow; i++) {
+				int count = 0;
+				for (int p = rowPointers[i]; p < rowPointers[i + 1]; p++) {
+					E aik = values[p];
+					int k = columnIndices[p];
+					for (int q = anotherMatrix.rowPointers[k]; q < anotherMatrix.rowPointers[k + 1]; q++) {
+						int j = anotherMatrix.columnIndices[q];
+						E term = multiply(aik, anotherMatrix.values[q]);
+						if (marker[j] != i + 1) {
+							marker[j] = i + 1;
+							touched[count++] = j;
+							accumulator[j] = term;
+						}
+						else
+							accumulator[j] = add(accumulator[j], term);
+					}
+				}
+				Arrays.sort(touched, 0, count);
+				int[] columns = new int[count];
+				E[] sums = newArray(count);
+				int size = 0;
+				for (int t = 0; t < count; t++) {
+					int j = touched[t];
+					if (compare(accumulator[j], zero) != 0) {
+						columns[size] = j;
+						sums[size++] = accumulator[j];
+					}
+				}
+				rowColumns[i] = Arrays.copyOf(columns, size);
+				rowValues[i] = Arrays.copyOf(sums, size);
+			}
+		});
+
+		return concatenate(row, column, rowColumns, rowValues);
+	}
+	/**
+	 * Add or subtract another <code>SparseMatrix</code> by merging the rows
+	 * @param anotherMatrix
+	 * @param subtract true to subtract, false to add
+	 * @return a new sparse matrix
+	 */
+	private SparseMatrix<E> combine(SparseMatrix<E> anotherMatrix, boolean subtract) {
+		// Check bounds of the two matrices
+		if (getRow() != anotherMatrix.getRow() || getColumn() != anotherMatrix.getColumn())
+			throw new RuntimeException("The matrices do not have the same size.");
+
+		int capacity = getNonZeros() + anotherMatrix.getNonZeros();
+		int[] resultPointers = new int[getRow() + 1];
+		int[] resultColumns = new int[capacity];
+		E[] resultValues = newArray(capacity);
+		for (int i = 0; i < getRow(); i++)
+			resultPointers[i + 1] = merge(columnIndices, values, rowPointers[i], rowPointers[i + 1],
+					anotherMatrix.columnIndices, anotherMatrix.values, anotherMatrix.rowPointers[i],
+					anotherMatrix.rowPointers[i + 1], null, subtract, resultColumns, resultValues, resultPointers[i]);
+
+		int nonZeros = resultPointers[getRow()];
+		return new SparseMatrix<>(ops, getRow(), getColumn(), resultPointers,
+				Arrays.copyOf(resultColumns, nonZeros), Arrays.copyOf(resultValues, nonZeros));
+	}
+	/**
+	 * Add or subtract row2 multiplied by times to row1
+	 * @param row1 the target row index
+	 * @param row2 the source row index
+	 * @param times
+	 * @param subtract true to subtract, false to add
+	 * @return this
+	 */
+	private SparseMatrix<E> combineRow(int row1, int row2, E times, boolean subtract) {
+		checkRow(row1);
+		checkRow(row2);
+		markModified();
+
+		int from1 = rowPointers[row1];
+		int to1 = rowPointers[row1 + 1];
+		int from2 = rowPointers[row2];
+		int to2 = rowPointers[row2 + 1];
+		int capacity = to1 - from1 + to2 - from2;
+		int[] mergedColumns = new int[capacity];
+		E[] mergedValues = newArray(capacity);
+		int size = merge(columnIndices, values, from1, to1, columnIndices, values, from2, to2,
+				times, subtract, mergedColumns, mergedValues, 0);
+		replaceRange(row1, from1, to1, mergedColumns, mergedValues, size);
+
+		return this;
+	}
+	/**
+	 * Merge a + times * b (or a - times * b) of two sorted sparse rows, dropping zeros
+	 * @param aColumns
+	 * @param aValues
+	 * @param aFrom the start of row a
+	 * @param aTo the end of row a
+	 * @param bColumns
+	 * @param bValues
+	 * @param bFrom the start of row b
+	 * @param bTo the end of row b
+	 * @param times the multiplier of b, or null for one
+	 * @param subtract true to subtract, false to add
+	 * @param columns the array receiving the merged column indices
+	 * @param result the array receiving the merged values
+	 * @param offset the position of the first merged non-zero
+	 * @return the position after the last merged non-zero
+	 */
+	private int merge(int[] aColumns, E[] aValues, int aFrom, int aTo, int[] bColumns, E[] bValues,
+			int bFrom, int bTo, E times, boolean subtract, int[] columns, E[] result, int offset) {
+		E zero = zero();
+		int p = aFrom;
+		int q = bFrom;
+		while (p < aTo || q < bTo) {
+			int aColumn = p < aTo ? aColumns[p] : Integer.MAX_VALUE;
+			int bColumn = q < bTo ? bColumns[q] : Integer.MAX_VALUE;
+			int column;
+			E value;
+			if (aColumn < bColumn) {
+				column = aColumn;
+				value = aValues[p++];
+			}
+			else {
+				column = bColumn;
+				E b = times == null ? bValues[q++] : multiply(times, bValues[q++]);
+				E a = aColumn == bColumn ? aValues[p++] : zero;
+				value = subtract ? subtract(a, b) : add(a, b);
+			}
+			if (compare(value, zero) != 0) {
+				columns[offset] = column;
+				result[offset++] = value;
+			}
+		}
+		return offset;
+	}
+	/**
+	 * Replace the non-zeros [from, to) of a row by the passed ones, moving the later rows
+	 * @param row the row index
+	 * @param from the start of the replaced range
+	 * @param to the end of the replaced range
+	 * @param columns the new column indices
+	 * @param newValues the new values
+	 * @param length the number of new non-zeros
+	 */
+	private void replaceRange(int row, int from, int to, int[] columns, E[] newValues, int length) {
+		int nonZeros = getNonZeros();
+		int delta = length - (to - from);
+		if (nonZeros + delta > columnIndices.length) { // Grow the arrays geometrically
+			int capacity = Math.max(nonZeros + delta, columnIndices.length * 3 / 2 + 1);
+			columnIndices = Arrays.copyOf(columnIndices, capacity);
+			values = Arrays.copyOf(values, capacity);
+		}
+		System.arraycopy(columnIndices, to, columnIndices, to + delta, nonZeros - to);
+		System.arraycopy(values, to, values, to + delta, nonZeros - to);
+		System.arraycopy(columns, 0, columnIndices, from, length);
+		System.arraycopy(newValues, 0, values, from, length);
+		if (delta < 0) // Release the values behind the end
+			Arrays.fill(values, nonZeros + delta, nonZeros, null);
+		for (int i = row + 1; i <= getRow(); i++)
+			rowPointers[i] += delta;
+	}
+	/**
+	 * Construct a new <code>SparseMatrix</code> from separately computed rows
+	 * @param row the number of rows
+	 * @param column the number of columns
+	 * @param rowColumns the column indices of every row
+	 * @param rowValues the values of every row
+	 * @return a new sparse matrix
+	 */
+	@SuppressWarnings("unchecked")
+	private SparseMatrix<E> concatenate(int row, int column, int[][] rowColumns, Object[][] rowValues) {
+		int[] resultPointers = new int[row + 1];
+		for (int i = 0; i < row; i++)
+			resultPointers[i + 1] = resultPointers[i] + rowColumns[i].length;
+		int[] resultColumns = new int[resultPointers[row]];
+		E[] resultValues = newArray(resultPointers[row]);
+		for (int i = 0; i < row; i++) {
+			System.arraycopy(rowColumns[i], 0, resultColumns, resultPointers[i], rowColumns[i].length);
+			System.arraycopy((E[]) rowValues[i], 0, resultValues, resultPointers[i], rowColumns[i].length);
+		}
+
+		return new SparseMatrix<>(ops, row, column, resultPointers, resultColumns, resultValues);
+	}
+	/**
+	 * Check if the row index is valid
+	 * @param row the row index
+	 */
+	private void checkRow(int row) {
+		if (row < 0 || row >= getRow())
+			throw new NullPointerException("Invalid input!");
+	}
+	/**
+	 * Create an array of elements
+	 * @param length
+	 * @return a new array
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E extends Number> E[] newArray(int length) {
+		return (E[]) new Number[length];
+	}
+
+	/**
+	 * Collects (row, column, value) triplets in any order and builds a <code>SparseMatrix</code>,
+	 * summing duplicates
+	 */
+	public static class Builder<E extends Number> {
+		private final GenericMatrix<E> ops;
+		private final int row;
+		private final int column;
+		private int size;
+		private int[] rows = new int[16];
+		private int[] columns = new int[16];
+		private E[] values = newArray(16);
+
+		/**
+		 * Construct a new <code>Builder</code> object for a matrix with the input row&column
+		 * @param ops a dense matrix of the element type whose element operations are used
+		 * @param row the number of rows of the matrix
+		 * @param column the number of columns of the matrix
+		 */
+		public Builder(GenericMatrix<E> ops, int row, int column) {
+			this.ops = ops;
+			this.row = row;
+			this.column = column;
+		}
+		/**
+		 * Add a value to matrix[row][column]
+		 * @param row the row index of the matrix
+		 * @param column the column index of the matrix
+		 * @param value
+		 * @return this builder
+		 */
+		public Builder<E> add(int row, int column, E value) {
+			if (row < 0 || row >= this.row || column < 0 || column >= this.column)
+				throw new NullPointerException("Invalid input!");
+			if (size == rows.length) {
+				rows = Arrays.copyOf(rows, size * 2);
+				columns = Arrays.copyOf(columns, size * 2);
+				values = Arrays.copyOf(values, size * 2);
+			}
+			rows[size] = row;
+			columns[size] = column;
+			values[size++] = value;
+			return this;
+		}
+		/**
+		 * Build the <code>SparseMatrix</code> by bucketing the triplets by row and sorting every
+		 * row by column
+		 * @return a new sparse matrix
+		 */
+		public SparseMatrix<E> build() {
+			// Bucket the triplets by row
+			int[] rowPointers = new int[row + 1];
+			for (int t = 0; t < size; t++)
+				rowPointers[rows[t] + 1]++;
+			for (int i = 0; i < row; i++)
+				rowPointers[i + 1] += rowPointers[i];
+			int[] next = Arrays.copyOf(rowPointers, row);
+			long[] keys = new long[size]; // column << 32 | triplet index, so sorting orders by column
+			for (int t = 0; t < size; t++)
+				keys[next[rows[t]]++] = ((long) columns[t] << 32) | t;
+
+			E zero = ops.zero();
+			int[] resultPointers = new int[row + 1];
+			int[] resultColumns = new int[size];
+			E[] resultValues = newArray(size);
+			int p = 0;
+			for (int i = 0; i < row; i++) {
+				Arrays.sort(keys, rowPointers[i], rowPointers[i + 1]);
+				for (int k = rowPointers[i]; k < rowPointers[i + 1]; ) {
+					int j = (int) (keys[k] >>> 32);
+					E sum = values[(int) keys[k++]];
+					while (k < rowPointers[i + 1] && (int) (keys[k] >>> 32) == j) // Sum duplicates
+						sum = ops.add(sum, values[(int) keys[k++]]);
+					if (ops.compare(sum, zero) != 0) {
+						resultColumns[p] = j;
+						resultValues[p++] = sum;
+					}
+				}
+				resultPointers[i + 1] = p;
+			}
+
+			return new SparseMatrix<>(ops, row, column, resultPointers,
+					Arrays.copyOf(resultColumns, p), Arrays.copyOf(resultValues, p));
+		}
+	}
+
+}
@@ -0,0 +1,263 @@
+package matrix;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class StrassenMultiplier {
+	/**
+	 * The default size below which the classical kernels are used
+	 */
+	public static final int DEFAULT_CUTOFF = 64;
+	/**
+	 * The smallest dimension down to which the recursion goes, the classical kernels multiply below it
+	 */
+	private static volatile int cutoff = DEFAULT_CUTOFF;
+
+	private StrassenMultiplier() {
+
+	}
+	/**
+	 * Get the size below which the classical kernels are used
+	 * @return the cutoff
+	 */
+	public static int getCutoff() {
+		return cutoff;
+	}
+	/**
+	 * Set the size below which the classical kernels are used
+	 * @param cutoff the cutoff, at least 2
+	 */
+	public static void setCutoff(int cutoff) {
+		if (cutoff < 2)
+			throw new RuntimeException("The cutoff must be at least 2.");
+		StrassenMultiplier.cutoff = cutoff;
+	}
+	/**
+	 * Check if Strassen-Winograd should be used for a product
+	 * @param ops the left matrix
+	 * @param algorithm the requested algorithm
+	 * @param n the number of rows of the left matrix
+	 * @param m the number of columns of the left matrix (also rows of the right matrix)
+	 * @param p the number of columns of the right matrix
+	 * @return true for STRASSEN, and for AUTO if the elements are exact and the matrices are
+	 * at least four times the cutoff in every dimension, below which the extra additions cost as much as they save
+	 */
+	static boolean isSelected(GenericMatrix<?> ops, MultiplicationAlgorithm algorithm, int n, int m, int p) {
+		switch (algorithm) {
+		case STRASSEN:
+			return true;
+		case AUTO:
+			// Rounding errors grow with the recursion depth, so inexact elements stay classical
+			return ops.isExact() && Math.min(n, Math.min(m, p)) >= 4 * cutoff;
+		default:
+			return false;
+		}
+	}
+	/**
+	 * Multiply two matrices by Strassen-Winograd with the element operations of a <code>GenericMatrix</code>
+	 * @param ops the matrix whose element operations are used
+	 * @param a the left matrix of size n * m
+	 * @param b the right matrix of size m * p
+	 * @param p the number of columns of b
+	 * @return a new n * p matrix
+	 */
+	public static <E extends Number> E[][] multiply(GenericMatrix<E> ops, E[][] a, E[][] b, int p) {
+		int n = a.length;
+		int m = b.length;
+		if (Math.min(n, Math.min(m, p)) < 2 * cutoff) {
+			E[][] c = ops.zeros(n, p).getMatrix();
+			ops.multiply(a, b, c);
+			return c;
+		}
+
+		// Recurse on the even part, odd rows and columns are peeled off and added classically
+		int n2 = n / 2;
+		int m2 = m / 2;
+		int p2 = p / 2;
+		E[][] a11 = copy(ops, a, 0, 0, n2, m2);
+		E[][] a12 = copy(ops, a, 0, m2, n2, m2);
+		E[][] a21 = copy(ops, a, n2, 0, n2, m2);
+		E[][] a22 = copy(ops, a, n2, m2, n2, m2);
+		E[][] b11 = copy(ops, b, 0, 0, m2, p2);
+		E[][] b12 = copy(ops, b, 0, p2, m2, p2);
+		E[][] b21 = copy(ops, b, m2, 0, m2, p2);
+		E[][] b22 = copy(ops, b, m2, p2, m2, p2);
+
+		E[][] s1 = combine(ops, a21, a22, false);
+		E[][] s2 = combine(ops, s1, a11, true);
+		E[][] s3 = combine(ops, a11, a21, true);
+		E[][] s4 = combine(ops, a12, s2, true);
+		E[][] t1 = combine(ops, b12, b11, true);
+		E[][] t2 = combine(ops, b22, t1, true);
+		E[][] t3 = combine(ops, b22, b12, true);
+		E[][] t4 = combine(ops, t2, b21, true);
+
+		List<E[][]> left = Arrays.asList(a11, a12, s4, a22, s1, s2, s3);
+		List<E[][]> right = Arrays.asList(b11, b21, b22, t4, t1, t2, t3);
+		List<E[][]> products = new ArrayList<>(left); // Every factor is replaced by its product
+		MatrixExecutor.forEachRowBlock(7, (long) n2 * m2 * p2 * ops.getOperationCost(), (from, to) -> {
+			for (int i = from; i < to; i++)
+				products.set(i, multiply(ops, left.get(i), right.get(i), p2));
+		});
+
+		E[][] u2 = combine(ops, products.get(0), products.get(5), false);
+		E[][] u3 = combine(ops, u2, products.get(6), false);
+		E[][] u4 = combine(ops, u2, products.get(4), false);
+		E[][] c = ops.zeros(n, p).getMatrix();
+		paste(combine(ops, products.get(0), products.get(1), false), c, 0, 0);
+		paste(combine(ops, u4, products.get(2), false), c, 0, p2);
+		paste(combine(ops, u3, products.get(3), true), c, n2, 0);
+		paste(combine(ops, u3, products.get(4), false), c, n2, p2);
+
+		peel(ops, a, b, c, 2 * n2, 2 * m2, 2 * p2);
+		return c;
+	}
+	/**
+	 * Multiply two row-major <code>double</code> arrays by Strassen-Winograd
+	 * @param a the left array of size n * m
+	 * @param b the right array of size m * p
+	 * @param n the number of rows of a
+	 * @param m the number of columns of a (also rows of b)
+	 * @param p the number of columns of b
+	 * @return a new row-major array of size n * p
+	 */
+	public static double[] multiply(double[] a, double[] b, int n, int m, int p) {
+		if (Math.min(n, Math.min(m, p)) < 2 * cutoff)
+			return BlockMultiplier.multiply(a, b, n, m, p);
+
+		int n2 = n / 2;
+		int m2 = m / 2;
+		int p2 = p / 2;
+		double[] a11 = copy(a, m, 0, 0, n2, m2);
+		double[] a12 = copy(a, m, 0, m2, n2, m2);
+		double[] a21 = copy(a, m, n2, 0, n2, m2);
+		double[] a22 = copy(a, m, n2, m2, n2, m2);
+		double[] b11 = copy(b, p, 0, 0, m2, p2);
+		double[] b12 = copy(b, p, 0, p2, m2, p2);
+		double[] b21 = copy(b, p, m2, 0, m2, p2);
+		double[] b22 = copy(b, p, m2, p2, m2, p2);
+
+		double[] s1 = combine(a21, a22, false);
+		double[] s2 = combine(s1, a11, true);
+		double[] s3 = combine(a11, a21, true);
+		double[] s4 = combine(a12, s2, true);
+		double[] t1 = combine(b12, b11, true);
+		double[] t2 = combine(b22, t1, true);
+		double[] t3 = combine(b22, b12, true);
+		double[] t4 = combine(t2, b21, true);
+
+		double[][] left = {a11, a12, s4, a22, s1, s2, s3};
+		double[][] right = {b11, b21, b22, t4, t1, t2, t3};
+		double[][] products = new double[7][];
+		MatrixExecutor.forEachRowBlock(7, (long) n2 * m2 * p2, (from, to) -> {
+			for (int i = from; i < to; i++)
+				products[i] = multiply(left[i], right[i], n2, m2, p2);
+		});
+
+		double[] u2 = combine(products[0], products[5], false);
+		double[] u3 = combine(u2, products[6], false);
+		double[] u4 = combine(u2, products[4], false);
+		double[] c = new double[n * p];
+		paste(combine(products[0], products[1], false), p2, c, p, 0, 0);
+		paste(combine(u4, products[2], false), p2, c, p, 0, p2);
+		paste(combine(u3, products[3], true), p2, c, p, n2, 0);
+		paste(combine(u3, products[4], false), p2, c, p, n2, p2);
+
+		// Peel the odd row, column and inner index
+		int ne = 2 * n2;
+		int me = 2 * m2;
+		int pe = 2 * p2;
+		if (me < m) // c[0..ne)[0..pe) += a[.][m-1] * b[m-1][.]
+			for (int i = 0; i < ne; i++)
+				DoubleKernels.get().axpy(a[i * m + me], b, me * p, c, i * p, pe);
+		if (pe < p)
+			for (int i = 0; i < ne; i++) {
+				double sum = 0.0;
+				for (int k = 0; k < m; k++)
+					sum += a[i * m + k] * b[k * p + pe];
+				c[i * p + pe] = sum;
+			}
+		if (ne < n)
+			for (int k = 0; k < m; k++)
+				DoubleKernels.get().axpy(a[ne * m + k], b, k * p, c, ne * p, p);
+		return c;
+	}
+	/**
+	 * Add the contributions of the odd row, column and inner index left out of the recursion
+	 * @param ne the even number of rows of the recursion
+	 * @param me the even inner dimension of the recursion
+	 * @param pe the even number of columns of the recursion
+	 */
+	private static <E extends Number> void peel(GenericMatrix<E> ops, E[][] a, E[][] b, E[][] c, int ne, int me, int pe) {
+		int n = a.length;
+		int m = b.length;
+		int p = c[0].length;
+		if (me < m) // c[0..ne)[0..pe) += a[.][m-1] * b[m-1][.]
+			for (int i = 0; i < ne; i++)
+				for (int j = 0; j < pe; j++)
+					c[i][j] = ops.add(c[i][j], ops.multiply(a[i][me], b[me][j]));
+		if (pe < p)
+			for (int i = 0; i < ne; i++)
+				c[i][pe] = ops.dotProduct(a[i], b, pe, 0, m);
+		if (ne < n)
+			for (int j = 0; j < p; j++)
+				c[ne][j] = ops.dotProduct(a[ne], b, j, 0, m);
+	}
+	/**
+	 * Copy a block of a matrix
+	 */
+	private static <E extends Number> E[][] copy(GenericMatrix<E> ops, E[][] a, int row, int column, int rows, int columns) {
+		E[][] block = ops.zeros(rows, columns).getMatrix();
+		for (int i = 0; i < rows; i++)
+			System.arraycopy(a[row + i], column, block[i], 0, columns);
+		return block;
+	}
+	/**
+	 * Add or subtract two matrices of the same size
+	 * @return a new matrix x + y, or x - y if subtract is true
+	 */
+	private static <E extends Number> E[][] combine(GenericMatrix<E> ops, E[][] x, E[][] y, boolean subtract) {
+		E[][] z = ops.zeros(x.length, x.length == 0 ? 0 : x[0].length).getMatrix();
+		for (int i = 0; i < z.length; i++)
+			for (int j = 0; j < z[i].length; j++)
+				z[i][j] = subtract ? ops.subtract(x[i][j], y[i][j]) : ops.add(x[i][j], y[i][j]);
+		return z;
+	}
+	/**
+	 * Copy a block into a matrix at the input row&column
+	 */
+	private static <E extends Number> void paste(E[][] block, E[][] c, int row, int column) {
+		for (int i = 0; i < block.length; i++)
+			System.arraycopy(block[i], 0, c[row + i], column, block[i].length);
+	}
+	/**
+	 * Copy a block of a row-major array with the input number of columns
+	 */
+	private static double[] copy(double[] a, int stride, int row, int column, int rows, int columns) {
+		double[] block = new double[rows * columns];
+		for (int i = 0; i < rows; i++)
+			System.arraycopy(a, (row + i) * stride + column, block, i * columns, columns);
+		return block;
+	}
+	/**
+	 * Add or subtract two arrays of the same length
+	 * @return a new array x + y, or x - y if subtract is true
+	 */
+	private static double[] combine(double[] x, double[] y, boolean subtract) {
+		double[] z = new double[x.length];
+		if (subtract)
+			DoubleKernels.get().subtract(x, y, z, 0, z.length);
+		else
+			DoubleKernels.get().add(x, y, z, 0, z.length);
+		return z;
+	}
+	/**
+	 * Copy a row-major block into a row-major array at the input row&column
+	 */
+	private static void paste(double[] block, int columns, double[] c, int stride, int row, int column) {
+		for (int i = 0; i < block.length / Math.max(columns, 1); i++)
+			System.arraycopy(block, i * columns, c, (row + i) * stride + column, columns);
+	}
+
+}
@@ -1,6 +1,8 @@
 package matrix;
 
 import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 
 public class TestMatrix {
 	final static Rational MINUS_NINE = new Rational(new BigInteger("-9"), BigInteger.ONE);
@@ -38,6 +40,13 @@ public class TestMatrix {
 		testDeterminant();
 		testGetRank();
 		testInverse();
+		testSolve();
+		testBinaryFormat();
+		testSparseMatrix();
+		testModularElimination();
+		testUpdatableInverse();
+		testMatrixView();
+		testInvalidWrites();
 
 	}
 	
@@ -64,11 +73,201 @@ public class TestMatrix {
 	
 	public static void testInverse() {
 		System.out.println("Inversion of the integer matrix is:");
-		System.out.println(integerMatrix1.inverse());
+		System.out.println(((IntegerMatrix) integerMatrix1).inverseExact());
 		System.out.println("Inversion of the double matrix is:");
 		System.out.println(doubleMatrix1.inverse());
 		System.out.println("Inversion of the rational matrix is:");
 		System.out.println(rationalMatrix1.inverse());
 	}
+	
+	public static void testSolve() {
+		System.out.println("Solution of matrix3 * X = matrix4 is:");
+		System.out.println(doubleMatrix1.solve(doubleMatrix2));
+		System.out.println("Solution of matrix5 * X = matrix6 is:");
+		System.out.println(rationalMatrix1.solve(rationalMatrix2));
+	}
+	
+	public static void testBinaryFormat() {
+		Rational big = new Rational(BigInteger.ONE.shiftLeft(70), new BigInteger("3"));
+		Rational huge = new Rational(BigInteger.ONE.shiftLeft(1100).add(BigInteger.ONE), new BigInteger("7"));
+		FloatMatrix floatMatrix = new FloatMatrix(new float[][] {{1.5f, 0, -2}, {0, 0.25f, 3}});
+		GenericMatrix<?>[] matrices = {integerMatrix1, doubleMatrix1, rationalMatrix1,
+				new RationalMatrix(new Rational[][] {{big}}), new RationalMatrix(new Rational[][] {{huge, big}, {MINUS_TWO, SEVEN}}),
+				SparseMatrix.valueOf(rationalMatrix2), floatMatrix, SparseMatrix.valueOf(floatMatrix)};
+		for (GenericMatrix<?> matrix : matrices) {
+			// A buffer of exactly the encoded size must be enough
+			ByteBuffer buffer = ByteBuffer.allocate((int) MatrixFormat.getEncodedSize(matrix));
+			MatrixFormat.write(matrix, buffer);
+			boolean filled = !buffer.hasRemaining();
+			buffer.flip();
+			GenericMatrix<?> copy = MatrixFormat.read(buffer);
+			System.out.println("The binary round trip of the " + matrix.getRow() + "x" + matrix.getColumn() + " "
+					+ matrix.getClass().getSimpleName() + " fills its buffer and is equal: "
+					+ (filled && Arrays.deepEquals(matrix.getMatrix(), copy.getMatrix())));
+		}
+	}
+
+	public static void testSparseMatrix() {
+		// Duplicates are summed, and the two entries of row 1 cancel, so it is left empty
+		SparseMatrix<Integer> sparse = new SparseMatrix.Builder<>(new IntegerMatrix(), 4, 4)
+				.add(2, 3, -3).add(0, 1, 1).add(3, 2, 4).add(1, 2, 5).add(2, 0, 1).add(0, 1, 1).add(1, 2, -5)
+				.build();
+		GenericMatrix<Integer> dense = new IntegerMatrix(new Integer[][] {{0, 2, 0, 0}, {0, 0, 0, 0},
+				{1, 0, 0, -3}, {0, 0, 4, 0}});
+		System.out.println("The built sparse matrix has " + sparse.getNonZeros() + " non-zeros and equals the dense one: "
+				+ sameElements(sparse, dense));
+		SparseMatrix<Integer> sparse2 = SparseMatrix.valueOf(integerMatrix2);
+		System.out.println("sparse * sparse equals dense * dense: "
+				+ sameElements(sparse.multiply(sparse2), dense.multiply(integerMatrix2)));
+		System.out.println("sparse * dense equals dense * dense: "
+				+ sameElements(sparse.multiply(integerMatrix2), dense.multiply(integerMatrix2)));
+		System.out.println("sparse + sparse equals dense + dense: "
+				+ sameElements(sparse.add(sparse2), dense.add(integerMatrix2)));
+		System.out.println("sparse - sparse equals dense - dense: "
+				+ sameElements(sparse.subtract(sparse2), dense.subtract(integerMatrix2)));
+		System.out.println("The sparse transpose equals the dense one: "
+				+ sameElements(sparse.transpose(), dense.transpose()));
+		// The generic elimination would truncate the integer divisions
+		GenericMatrix<Integer> small = new IntegerMatrix(new Integer[][] {{2, 1}, {1, 2}});
+		System.out.println("The sparse integer determinants equal the dense ones: "
+				+ (SparseMatrix.valueOf(small).getDeterminant().equals(small.getDeterminant())
+						&& sparse2.getDeterminant().equals(integerMatrix2.getDeterminant()))
+				+ ", and so do the ranks: " + (SparseMatrix.valueOf(small).getRank() == small.getRank()
+						&& sparse.getRank() == dense.getRank()));
+
+		// Fill the empty row, then empty another one
+		sparse.addRow(1, 0, 2).subtractRow(0, 2, 1).multiplyRow(3, 0).commuteRow(1, 3).divideRow(2, 2);
+		dense.addRow(1, 0, 2).subtractRow(0, 2, 1).multiplyRow(3, 0).commuteRow(1, 3).divideRow(2, 2);
+		System.out.println("The sparse row operations equal the dense ones: " + sameElements(sparse, dense));
+	}
+
+	public static void testModularElimination() {
+		IntegerMatrix singular = new IntegerMatrix(new Integer[][] {{1, 2, 3}, {4, 5, 6}, {7, 8, 9}});
+		String solved;
+		try {
+			singular.solveExact(new IntegerMatrix(new Integer[][] {{1}, {2}, {3}}));
+			solved = "solved";
+		} catch (RuntimeException ex) {
+			solved = ex.getMessage();
+		}
+		System.out.println("The singular matrix has determinant " + singular.getDeterminantExact() + " and rank "
+				+ singular.getRank() + ", solving it gives: " + solved);
+
+		// det = 3p vanishes modulo the first prime, which the rank and the solution must not depend on
+		long p = ModularElimination.getPrime(0);
+		IntegerMatrix multiple = new IntegerMatrix(new Integer[][] {{(int) p, 2}, {(int) p, 5}});
+		RationalMatrix inverse = new RationalMatrix(new Rational[][] {
+				{Rational.valueOf(5, 3 * p), Rational.valueOf(-2, 3 * p)}, {Rational.valueOf(-1, 3), Rational.valueOf(1, 3)}});
+		System.out.println("The determinant divisible by " + p + " is " + multiple.getDeterminantExact()
+				+ ", the rank is " + multiple.getRank() + ", the inverse is exact: "
+				+ sameElements(multiple.inverseExact(), inverse) + ", the solution is exact: "
+				+ sameElements(multiple.solve(new IntegerMatrix(new Integer[][] {{(int) p - 2}, {(int) p - 5}})),
+						new IntegerMatrix(new Integer[][] {{1}, {-1}})));
+
+		IntegerMatrix negative = new IntegerMatrix(new Integer[][] {{0, 1, 2}, {1, 0, 3}, {4, -3, 8}});
+		inverse = new RationalMatrix(new Rational[][] {{Rational.valueOf(-9, 2), Rational.valueOf(7), Rational.valueOf(-3, 2)},
+				{Rational.valueOf(-2), Rational.valueOf(4), Rational.valueOf(-1)},
+				{Rational.valueOf(3, 2), Rational.valueOf(-2), Rational.valueOf(1, 2)}});
+		System.out.println("The negative determinant is " + negative.getDeterminant() + ", the rank is "
+				+ negative.getRank() + ", the inverse is exact: " + sameElements(negative.inverseExact(), inverse)
+				+ ", the solution is exact: " + sameElements(negative.solve(new IntegerMatrix(new Integer[][] {{4}, {10}, {34}})),
+						new IntegerMatrix(new Integer[][] {{1}, {-2}, {3}})));
+	}
+
+	public static void testUpdatableInverse() {
+		UpdatableInverse<Rational> updatable = rationalMatrix1.getUpdatableInverse();
+		updatable.setValue(0, 0, FIVE);
+		printUpdate("setValue", updatable);
+		updatable.addRow(2, 0, MINUS_TWO);
+		printUpdate("addRow", updatable);
+		Rational zero = Rational.valueOf(0);
+		updatable.update(new RationalMatrix(new Rational[][] {{ONE, zero}, {zero, ONE}, {ONE, ONE}, {zero, TWO}}),
+				new RationalMatrix(new Rational[][] {{TWO, ONE}, {ONE, zero}, {zero, MINUS_ONE}, {ONE, THREE}}));
+		printUpdate("the rank-2 update", updatable);
+
+		// Make row 3 equal to row 0
+		GenericMatrix<Rational> current = updatable.getMatrix();
+		Rational[][] difference = new Rational[4][1];
+		for (int j = 0; j < 4; j++)
+			difference[j][0] = current.getValue(0, j).subtract(current.getValue(3, j));
+		updatable.update(new RationalMatrix(new Rational[][] {{zero}, {zero}, {zero}, {ONE}}), new RationalMatrix(difference));
+		System.out.println("After the singular update the matrix is non-singular: " + updatable.isNonsingular()
+				+ ", its determinant is " + updatable.getDeterminant() + " and the fresh one is "
+				+ updatable.getMatrix().getDeterminant());
+		updatable.setValue(3, 3, current.getValue(3, 3).add(ONE));
+		printUpdate("setValue on the singular matrix", updatable);
+	}
+
+	public static void testMatrixView() {
+		GenericMatrix<Double> parent = doubleMatrix1.getCopy();
+		MatrixView<Double> view = (MatrixView<Double>) parent.getSubmatrixView(1, 3, 1, 4);
+		MatrixView<Double> transposed = (MatrixView<Double>) view.transposeView();
+		GenericMatrix<Double> minor = parent.getComplementMinorView(0, 0);
+		double determinant = minor.getDeterminant();
+
+		// An unwritten view reads the parent and has its version
+		parent.setValue(2, 2, 9.0);
+		System.out.println("The parent write is seen by the view: " + (view.getValue(1, 1) == 9.0)
+				+ ", by the view of the view: " + (transposed.getValue(1, 1) == 9.0) + ", the versions are equal: "
+				+ (view.getVersion() == parent.getVersion() && transposed.getVersion() == parent.getVersion())
+				+ ", the determinant of the minor changes from " + determinant + " to " + minor.getDeterminant());
+
+		// A write copies the view, which no longer changes with the parent
+		long version = view.getVersion();
+		view.setValue(0, 0, -1.0);
+		long copiedVersion = view.getVersion();
+		parent.setValue(2, 2, 5.0);
+		System.out.println("The view write copies it: " + view.isCopied() + ", the parent is unchanged: "
+				+ (parent.getValue(1, 1) == 4.0) + ", the version has changed: " + (copiedVersion != version)
+				+ ", later parent writes are not seen: " + (view.getValue(1, 1) == 9.0 && view.getVersion() == copiedVersion)
+				+ ", the view of the view still reads the parent: " + (!transposed.isCopied() && transposed.getValue(1, 1) == 5.0));
+
+		// The queries of an integer view are as exact as those of the parent
+		GenericMatrix<Integer> integers = new IntegerMatrix(new Integer[][] {{2, 1}, {1, 2}});
+		GenericMatrix<Integer> integerView = integers.transposeView();
+		String inverted;
+		try {
+			integerView.inverse();
+			inverted = "inverted";
+		} catch (RuntimeException ex) {
+			inverted = ex.getMessage();
+		}
+		System.out.println("The integer view has determinant " + integerView.getDeterminant() + " and rank "
+				+ integerView.getRank() + ", inverting it gives: " + inverted + " The minor view of integerMatrix1 has determinant "
+				+ integerMatrix1.getComplementMinorView(0, 0).getDeterminant() + ", equal to the dense one: "
+				+ integerMatrix1.getComplementMinorView(0, 0).getDeterminant().equals(
+						integerMatrix1.getComplementMinorView(0, 0).getCopy().getDeterminant()));
+	}
+
+	public static void testInvalidWrites() {
+		DoubleMatrix doubles = (DoubleMatrix) doubleMatrix1.getCopy();
+		IntegerMatrix ints = new IntegerMatrix(new Integer[][] {{Integer.MAX_VALUE, 1}, {1, 1}});
+		long doubleVersion = doubles.getVersion();
+		long intVersion = ints.getVersion();
+		Runnable[] writes = {() -> doubles.setDouble(4, 0, 1.0), () -> doubles.addRow(0, 4, 1.0),
+				() -> doubles.commuteRow(-1, 0), () -> doubles.addEquals(new DoubleMatrix(2, 2)),
+				() -> ints.setInt(0, 2, 1), () -> ints.addRow(0, 1, 1), () -> ints.multiplyRow(0, 2)};
+		int failed = 0;
+		for (Runnable write : writes) {
+			try {
+				write.run();
+			} catch (RuntimeException ex) {
+				failed++;
+			}
+		}
+		System.out.println(failed + " of " + writes.length + " invalid writes failed, the versions are unchanged: "
+				+ (doubles.getVersion() == doubleVersion && ints.getVersion() == intVersion));
+	}
+
+	private static void printUpdate(String update, UpdatableInverse<Rational> updatable) {
+		GenericMatrix<Rational> matrix = updatable.getMatrix();
+		System.out.println("After " + update + " the determinant is " + updatable.getDeterminant() + ", equal to the fresh one: "
+				+ updatable.getDeterminant().equals(matrix.getDeterminant()) + ", the inverse is equal to the fresh one: "
+				+ sameElements(updatable.getInverse(), matrix.inverse()) + ", eliminations: " + updatable.getFactorizations());
+	}
+
+	private static boolean sameElements(GenericMatrix<?> matrix1, GenericMatrix<?> matrix2) {
+		return Arrays.deepEquals(matrix1.getMatrix(), matrix2.getMatrix());
+	}
 
 }
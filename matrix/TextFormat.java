@@ -0,0 +1,17 @@
+package matrix;
+
+public enum TextFormat {
+	/**
+	 * One row per line, the elements separated by commas
+	 */
+	CSV,
+	/**
+	 * One row per line, the elements separated by tabs
+	 */
+	TSV,
+	/**
+	 * The Matrix Market exchange format: coordinate for a <code>SparseMatrix</code>, array otherwise.
+	 * Rationals are written with the field rational, which other readers do not know
+	 */
+	MATRIX_MARKET
+}
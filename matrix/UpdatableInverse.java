@@ -0,0 +1,266 @@
+package matrix;
+
+/**
+ * The inversion and the determinant of a square matrix, kept up to date while the matrix is changed
+ * by low-rank updates. A + U * V^T, where U and V have k columns, is applied in O(n^2 * k) element
+ * operations by the Sherman-Morrison-Woodbury formula
+ * <pre>
+ *   (A + U * V^T)^-1 = A^-1 - A^-1 * U * S^-1 * V^T * A^-1,   S = I + V^T * A^-1 * U
+ * </pre>
+ * and the matrix determinant lemma det(A + U * V^T) = det(A) * det(S), instead of eliminating again.
+ * <p>
+ * With exact elements, as for a <code>RationalMatrix</code>, the results equal those of eliminating the
+ * updated matrix. With rounded elements an update whose S is nearly singular would lose the accuracy
+ * of the inversion, so the updated matrix is eliminated again instead. An update which makes the
+ * matrix singular is applied, and the next update eliminates again.
+ */
+public class UpdatableInverse<E extends Number> {
+	/**
+	 * The smallest |det(S)|, relative to the sizes of the terms of S, for an update of rounded elements
+	 */
+	private static final double TOLERANCE = 1e-8;
+
+	/**
+	 * The current matrix
+	 */
+	private final GenericMatrix<E> matrix;
+	/**
+	 * The inversion of the current matrix, null if it is singular
+	 */
+	private GenericMatrix<E> inverse;
+	/**
+	 * The determinant of the current matrix
+	 */
+	private E determinant;
+	/**
+	 * The number of times the matrix has been eliminated
+	 */
+	private int factorizations;
+
+	/**
+	 * Construct a new <code>UpdatableInverse</code> object of a copy of the input matrix, which is
+	 * eliminated once
+	 * @param matrix the square matrix, which is not modified
+	 */
+	public UpdatableInverse(GenericMatrix<E> matrix) {
+		// Check bounds of the matrix
+		if (matrix.getRow() != matrix.getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		this.matrix = matrix.getHeapCopy();
+		this.matrix.setCachePolicy(CachePolicy.NONE); // The results are kept here
+		refactor();
+	}
+	/**
+	 * Get the current matrix
+	 * @return a copy of the matrix
+	 */
+	public GenericMatrix<E> getMatrix() {
+		return matrix.getCopy();
+	}
+	/**
+	 * Get the inversion of the current matrix
+	 * @return a copy of the inversion
+	 */
+	public GenericMatrix<E> getInverse() {
+		if (inverse == null)
+			throw new RuntimeException("The matrix is not an non-singular matrix.");
+		return inverse.getCopy();
+	}
+	/**
+	 * Get the determinant of the current matrix
+	 * @return the determinant
+	 */
+	public E getDeterminant() {
+		return determinant;
+	}
+	/**
+	 * Check if the current matrix is non-singular
+	 * @return true if the matrix is invertible, false otherwise
+	 */
+	public boolean isNonsingular() {
+		return inverse != null;
+	}
+	/**
+	 * Get the number of times the matrix has been eliminated, once on construction and once for
+	 * every update which could not be applied to the inversion
+	 * @return the number of eliminations
+	 */
+	public int getFactorizations() {
+		return factorizations;
+	}
+	/**
+	 * Set the value of matrix[row][column], a rank-1 update
+	 * @param row the row index of the matrix
+	 * @param column the column index of the matrix
+	 * @param value the value of matrix[row][column]
+	 */
+	public void setValue(int row, int column, E value) {
+		int n = matrix.getRow();
+		E difference = matrix.subtract(value, matrix.getValue(row, column));
+		if (matrix.compare(difference, matrix.zero()) == 0)
+			return;
+
+		GenericMatrix<E> u = matrix.zeros(n, 1);
+		GenericMatrix<E> v = matrix.zeros(n, 1);
+		u.setValue(row, 0, difference);
+		v.setValue(column, 0, matrix.powOfMinusOne(0));
+
+		matrix.setValue(row, column, value);
+		updateInverse(u, v);
+	}
+	/**
+	 * Set the values of a row of the matrix, a rank-1 update
+	 * @param row the row index
+	 * @param values the new elements of the row
+	 */
+	public void setRow(int row, E[] values) {
+		// Check bounds of the row
+		int n = matrix.getRow();
+		if (values.length != n)
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		GenericMatrix<E> u = matrix.zeros(n, 1);
+		GenericMatrix<E> v = matrix.zeros(n, 1);
+		u.setValue(row, 0, matrix.powOfMinusOne(0));
+		for (int j = 0; j < n; j++) {
+			v.setValue(j, 0, matrix.subtract(values[j], matrix.getValue(row, j)));
+			matrix.setValue(row, j, values[j]);
+		}
+		updateInverse(u, v);
+	}
+	/**
+	 * Add times * row2 to row1 of the matrix, a rank-1 update
+	 * @param row1 the summand row index
+	 * @param row2 the addend row index
+	 * @param times
+	 */
+	public void addRow(int row1, int row2, E times) {
+		int n = matrix.getRow();
+		GenericMatrix<E> u = matrix.zeros(n, 1);
+		GenericMatrix<E> v = matrix.zeros(n, 1);
+		u.setValue(row1, 0, matrix.powOfMinusOne(0));
+		for (int j = 0; j < n; j++)
+			v.setValue(j, 0, matrix.multiply(times, matrix.getValue(row2, j)));
+
+		matrix.addRow(row1, row2, times);
+		updateInverse(u, v);
+	}
+	/**
+	 * Add u * v^T to the matrix, a rank-k update
+	 * @param u a row * k matrix
+	 * @param v a row * k matrix
+	 */
+	public void update(GenericMatrix<E> u, GenericMatrix<E> v) {
+		// Check bounds of the matrices
+		int n = matrix.getRow();
+		if (u.getRow() != n || v.getRow() != n || u.getColumn() != v.getColumn())
+			throw new RuntimeException("The matrices do not have compatible size.");
+
+		addProduct(matrix, u, v.transposeView().getCopy(), false);
+		updateInverse(u, v);
+	}
+	/**
+	 * Eliminate the current matrix again, discarding the rounding errors of the updates
+	 */
+	public void refactor() {
+		factorizations++;
+		determinant = matrix.getDeterminant();
+		inverse = matrix.compare(determinant, matrix.zero()) == 0 ? null : matrix.inverse();
+	}
+	/**
+	 * Update the inversion and the determinant after u * v^T has been added to the matrix
+	 */
+	private void updateInverse(GenericMatrix<E> u, GenericMatrix<E> v) {
+		if (inverse == null) { // Nothing to update
+			refactor();
+			return;
+		}
+
+		int k = u.getColumn();
+		GenericMatrix<E> vt = v.transposeView().getCopy();
+		GenericMatrix<E> w = inverse.multiply(u); // A^-1 * U
+		GenericMatrix<E> s = vt.multiply(w).addEquals(matrix.eye(k)); // I + V^T * A^-1 * U
+		E factor = s.getDeterminant();
+
+		if (matrix.compare(factor, matrix.zero()) == 0) { // The updated matrix is singular
+			determinant = matrix.zero();
+			inverse = null;
+			return;
+		}
+		if (!matrix.isExact() && isIllConditioned(factor, v, w)) {
+			refactor();
+			return;
+		}
+
+		GenericMatrix<E> z = s.solve(vt.multiply(inverse)); // S^-1 * V^T * A^-1
+		addProduct(inverse, w, z, true);
+		determinant = matrix.multiply(determinant, factor);
+	}
+	/**
+	 * Check if det(S) is small against the terms it is summed from, which are bounded by the products
+	 * of the row sums of I + |V|^T * |A^-1 * U|
+	 */
+	private boolean isIllConditioned(E factor, GenericMatrix<E> v, GenericMatrix<E> w) {
+		int n = matrix.getRow();
+		int k = w.getColumn();
+		double bound = 1.0;
+		for (int i = 0; i < k; i++) {
+			double sum = 1.0;
+			for (int j = 0; j < k; j++)
+				for (int p = 0; p < n; p++)
+					sum += Math.abs(v.getValue(p, i).doubleValue() * w.getValue(p, j).doubleValue());
+			bound *= sum;
+		}
+		return Math.abs(factor.doubleValue()) < TOLERANCE * bound;
+	}
+	/**
+	 * Add or subtract w * z to target in place, a row block at a time
+	 * @param target a row * column matrix
+	 * @param w a row * k matrix
+	 * @param z a k * column matrix
+	 * @param subtract true for target - w * z
+	 */
+	private void addProduct(GenericMatrix<E> target, GenericMatrix<E> w, GenericMatrix<E> z, boolean subtract) {
+		int row = target.getRow();
+		int column = target.getColumn();
+		int k = w.getColumn();
+		long cost = (long) column * k * target.getOperationCost();
+
+		if (target instanceof DoubleMatrix && w instanceof DoubleMatrix && z instanceof DoubleMatrix) {
+			double[] t = ((DoubleMatrix) target).getData();
+			target.markModified();
+			double[] a = ((DoubleMatrix) w).getData();
+			double[] b = ((DoubleMatrix) z).getData();
+			DoubleKernels kernels = DoubleKernels.get();
+			MatrixExecutor.forEachRowBlock(row, cost, (fromRow, toRow) -> {
+				for (int i = fromRow; i < toRow; i++)
+					for (int p = 0; p < k; p++) {
+						double times = a[i * k + p];
+						if (times != 0.0)
+							kernels.axpy(subtract ? -times : times, b, p * column, t, i * column, column);
+					}
+			});
+			return;
+		}
+
+		E zero = target.zero();
+		E[][] t = target.getMatrix();
+		E[][] a = w.getMatrix();
+		E[][] b = z.getMatrix();
+		MatrixExecutor.forEachRowBlock(row, cost, (fromRow, toRow) -> {
+			for (int i = fromRow; i < toRow; i++)
+				for (int p = 0; p < k; p++) {
+					E times = a[i][p];
+					if (target.compare(times, zero) == 0)
+						continue;
+					for (int j = 0; j < column; j++) {
+						E term = target.multiply(times, b[p][j]);
+						t[i][j] = subtract ? target.subtract(t[i][j], term) : target.add(t[i][j], term);
+					}
+				}
+		});
+		target.setMatrix(t);
+	}
+
+}
@@ -0,0 +1,71 @@
+package matrix.simd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+import matrix.DoubleKernels;
+
+public final class VectorDoubleKernels extends DoubleKernels {
+	/**
+	 * The widest vector shape of the CPU, loading this class fails without the Vector API
+	 */
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	public VectorDoubleKernels() {
+
+	}
+
+	@Override
+	public String getName() {
+		return "vector " + SPECIES;
+	}
+
+	@Override
+	public void axpy(double alpha, double[] x, int xOffset, double[] y, int yOffset, int length) {
+		// mul then add rather than fma, so that the results equal the scalar loop
+		DoubleVector times = DoubleVector.broadcast(SPECIES, alpha);
+		int i = 0;
+		for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length())
+			DoubleVector.fromArray(SPECIES, x, xOffset + i).mul(times)
+					.add(DoubleVector.fromArray(SPECIES, y, yOffset + i))
+					.intoArray(y, yOffset + i);
+		for (; i < length; i++)
+			y[yOffset + i] += alpha * x[xOffset + i];
+	}
+
+	@Override
+	public void scale(double alpha, double[] x, int offset, int length) {
+		int i = 0;
+		for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length())
+			DoubleVector.fromArray(SPECIES, x, offset + i).mul(alpha).intoArray(x, offset + i);
+		for (; i < length; i++)
+			x[offset + i] *= alpha;
+	}
+
+	@Override
+	public void divide(double divisor, double[] x, int offset, int length) {
+		int i = 0;
+		for (int bound = SPECIES.loopBound(length); i < bound; i += SPECIES.length())
+			DoubleVector.fromArray(SPECIES, x, offset + i).div(divisor).intoArray(x, offset + i);
+		for (; i < length; i++)
+			x[offset + i] /= divisor;
+	}
+
+	@Override
+	public void add(double[] a, double[] b, double[] c, int fromIndex, int toIndex) {
+		int i = fromIndex;
+		for (int bound = fromIndex + SPECIES.loopBound(toIndex - fromIndex); i < bound; i += SPECIES.length())
+			DoubleVector.fromArray(SPECIES, a, i).add(DoubleVector.fromArray(SPECIES, b, i)).intoArray(c, i);
+		for (; i < toIndex; i++)
+			c[i] = a[i] + b[i];
+	}
+
+	@Override
+	public void subtract(double[] a, double[] b, double[] c, int fromIndex, int toIndex) {
+		int i = fromIndex;
+		for (int bound = fromIndex + SPECIES.loopBound(toIndex - fromIndex); i < bound; i += SPECIES.length())
+			DoubleVector.fromArray(SPECIES, a, i).sub(DoubleVector.fromArray(SPECIES, b, i)).intoArray(c, i);
+		for (; i < toIndex; i++)
+			c[i] = a[i] - b[i];
+	}
+
+}